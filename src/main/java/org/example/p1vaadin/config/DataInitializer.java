@@ -2,11 +2,13 @@ package org.example.p1vaadin.config;
 
 import org.example.p1vaadin.domain.Event;
 import org.example.p1vaadin.domain.Reservation;
+import org.example.p1vaadin.domain.SeatSection;
 import org.example.p1vaadin.domain.User;
 import org.example.p1vaadin.domain.enums.*;
 import org.example.p1vaadin.repository.EventRepository;
 import org.example.p1vaadin.repository.ReservationRepository;
 import org.example.p1vaadin.repository.UserRepository;
+import org.example.p1vaadin.service.SeatMapService;
 import org.example.p1vaadin.util.CodeGenerator;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
@@ -14,7 +16,10 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class DataInitializer {
@@ -25,7 +30,8 @@ public class DataInitializer {
             EventRepository eventRepository,
             ReservationRepository reservationRepository,
             PasswordEncoder passwordEncoder,
-            CodeGenerator codeGenerator
+            CodeGenerator codeGenerator,
+            SeatMapService seatMapService
     ) {
         return args -> {
             System.out.println("=== Initialisation des données ===");
@@ -90,7 +96,7 @@ public class DataInitializer {
             LocalDateTime now = LocalDateTime.now();
 
             // CONCERTS
-            Event concert1 = eventRepository.save(Event.builder()
+            Event concert1 = Event.builder()
                     .titre("Concert Saad Lamjarred")
                     .description("Grand concert live à Casablanca")
                     .categorie(EventCategory.CONCERT)
@@ -102,9 +108,9 @@ public class DataInitializer {
                     .prixUnitaire(300.0)
                     .organisateur(org1)
                     .statut(EventStatus. PUBLIE)
-                    .build());
+                    .build();
 
-            Event concert2 = eventRepository.save(Event.builder()
+            Event concert2 = Event.builder()
                     .titre("Festival Gnaoua")
                     .description("Festival de musique Gnaoua")
                     . categorie(EventCategory.CONCERT)
@@ -116,9 +122,9 @@ public class DataInitializer {
                     .prixUnitaire(150.0)
                     .organisateur(org2)
                     .statut(EventStatus.PUBLIE)
-                    .build());
+                    .build();
 
-            Event concert3 = eventRepository.save(Event.builder()
+            Event concert3 = Event.builder()
                     .titre("Jazz Night")
                     .description("Soirée Jazz")
                     .categorie(EventCategory.CONCERT)
@@ -130,10 +136,10 @@ public class DataInitializer {
                     .prixUnitaire(250.0)
                     .organisateur(org1)
                     .statut(EventStatus. PUBLIE)
-                    .build());
+                    .build();
 
             // THEATRE
-            Event theatre1 = eventRepository.save(Event.builder()
+            Event theatre1 = Event.builder()
                     .titre("Pièce Molière")
                     .description("Le Malade Imaginaire")
                     .categorie(EventCategory.THEATRE)
@@ -145,9 +151,9 @@ public class DataInitializer {
                     .prixUnitaire(200.0)
                     .organisateur(org1)
                     .statut(EventStatus. PUBLIE)
-                    .build());
+                    .build();
 
-            Event theatre2 = eventRepository.save(Event.builder()
+            Event theatre2 = Event.builder()
                     .titre("Comédie Marocaine")
                     .description("Spectacle comique")
                     .categorie(EventCategory.THEATRE)
@@ -159,9 +165,9 @@ public class DataInitializer {
                     .prixUnitaire(180.0)
                     .organisateur(org2)
                     .statut(EventStatus. PUBLIE)
-                    .build());
+                    .build();
 
-            Event theatre3 = eventRepository.save(Event.builder()
+            Event theatre3 = Event.builder()
                     .titre("Drame Classique")
                     . description("Antigone")
                     .categorie(EventCategory.THEATRE)
@@ -173,10 +179,10 @@ public class DataInitializer {
                     .prixUnitaire(120.0)
                     .organisateur(org1)
                     .statut(EventStatus.BROUILLON)
-                    .build());
+                    .build();
 
             // CONFERENCE
-            Event conf1 = eventRepository.save(Event.builder()
+            Event conf1 = Event.builder()
                     . titre("DevDays Maroc")
                     .description("Conférence développeurs")
                     .categorie(EventCategory.CONFERENCE)
@@ -188,9 +194,9 @@ public class DataInitializer {
                     .prixUnitaire(500.0)
                     .organisateur(org2)
                     .statut(EventStatus.PUBLIE)
-                    .build());
+                    .build();
 
-            Event conf2 = eventRepository.save(Event.builder()
+            Event conf2 = Event.builder()
                     .titre("AI Summit")
                     .description("Intelligence Artificielle")
                     . categorie(EventCategory.CONFERENCE)
@@ -202,9 +208,9 @@ public class DataInitializer {
                     .prixUnitaire(400.0)
                     .organisateur(org1)
                     .statut(EventStatus.PUBLIE)
-                    .build());
+                    .build();
 
-            Event conf3 = eventRepository.save(Event.builder()
+            Event conf3 = Event.builder()
                     .titre("Startup Weekend")
                     .description("48h pour créer une startup")
                     .categorie(EventCategory.CONFERENCE)
@@ -216,10 +222,10 @@ public class DataInitializer {
                     .prixUnitaire(350.0)
                     .organisateur(org2)
                     .statut(EventStatus. PUBLIE)
-                    .build());
+                    .build();
 
             // SPORT
-            Event sport1 = eventRepository. save(Event.builder()
+            Event sport1 = Event.builder()
                     .titre("Marathon Marrakech")
                     .description("Marathon international")
                     .categorie(EventCategory.SPORT)
@@ -231,9 +237,9 @@ public class DataInitializer {
                     .prixUnitaire(100.0)
                     .organisateur(org1)
                     .statut(EventStatus. PUBLIE)
-                    .build());
+                    .build();
 
-            Event sport2 = eventRepository.save(Event.builder()
+            Event sport2 = Event.builder()
                     .titre("Match Raja vs Wydad")
                     .description("Derby casablancais")
                     .categorie(EventCategory.SPORT)
@@ -245,9 +251,9 @@ public class DataInitializer {
                     .prixUnitaire(80.0)
                     .organisateur(org2)
                     .statut(EventStatus.PUBLIE)
-                    .build());
+                    .build();
 
-            Event sport3 = eventRepository. save(Event.builder()
+            Event sport3 = Event.builder()
                     .titre("Tournoi Tennis")
                     .description("Open de Tanger")
                     .categorie(EventCategory.SPORT)
@@ -259,10 +265,10 @@ public class DataInitializer {
                     .prixUnitaire(200.0)
                     .organisateur(org1)
                     .statut(EventStatus. BROUILLON)
-                    .build());
+                    .build();
 
             // AUTRE
-            Event autre1 = eventRepository.save(Event.builder()
+            Event autre1 = Event.builder()
                     .titre("Salon du Livre")
                     .description("Salon international")
                     .categorie(EventCategory.AUTRE)
@@ -274,9 +280,9 @@ public class DataInitializer {
                     .prixUnitaire(50.0)
                     .organisateur(org2)
                     .statut(EventStatus. PUBLIE)
-                    .build());
+                    .build();
 
-            Event autre2 = eventRepository.save(Event.builder()
+            Event autre2 = Event.builder()
                     .titre("Exposition Art")
                     .description("Art contemporain marocain")
                     .categorie(EventCategory.AUTRE)
@@ -288,9 +294,9 @@ public class DataInitializer {
                     .prixUnitaire(70.0)
                     .organisateur(org1)
                     .statut(EventStatus.PUBLIE)
-                    .build());
+                    .build();
 
-            Event autre3 = eventRepository.save(Event.builder()
+            Event autre3 = Event.builder()
                     .titre("Festival Culinaire")
                     .description("Gastronomie marocaine")
                     .categorie(EventCategory.AUTRE)
@@ -302,7 +308,16 @@ public class DataInitializer {
                     .prixUnitaire(0.0)
                     .organisateur(org2)
                     .statut(EventStatus. TERMINE)
-                    .build());
+                    .build();
+
+            // Insertions groupées en lots JDBC (ids issus de séquences)
+            eventRepository.saveAll(List.of(concert1, concert2, concert3, theatre1, theatre2, theatre3, conf1, conf2, conf3, sport1, sport2, sport3, autre1, autre2, autre3));
+
+            // Placement numéroté : 6 rangs de 20 au parterre, 2 rangs de 15 au balcon
+            seatMapService.defineSections(theatre3, List.of(
+                    SeatSection.builder().nom("Parterre").ordre(1).rangees(6).siegesParRangee(20).build(),
+                    SeatSection.builder().nom("Balcon").ordre(2).rangees(2).siegesParRangee(15).build()
+            ));
 
             System.out.println("✅ 15 événements créés");
 
@@ -310,13 +325,14 @@ public class DataInitializer {
             List<Event> publishedEvents = List.of(concert1, concert2, concert3, theatre1, theatre2, conf1, conf2, conf3, sport1, sport2, autre1, autre2);
             List<User> clients = List.of(client1, client2);
 
-            int resCount = 0;
+            List<Reservation> reservations = new ArrayList<>();
+            Map<Long, Integer> placesByEvent = new HashMap<>();
             for (int i = 0; i < 20; i++) {
                 Event event = publishedEvents.get(i % publishedEvents.size());
                 User client = clients.get(i % clients.size());
                 int places = (i % 5) + 1;
 
-                Reservation res = reservationRepository.save(Reservation. builder()
+                reservations.add(Reservation. builder()
                         .utilisateur(client)
                         . evenement(event)
                         . nombrePlaces(places)
@@ -325,10 +341,12 @@ public class DataInitializer {
                         . statut(i % 3 == 0 ? ReservationStatus.EN_ATTENTE : ReservationStatus.CONFIRMEE)
                         .commentaire(i % 2 == 0 ? "Réservation test " + i : null)
                         .build());
-                resCount++;
+                placesByEvent.merge(event.getId(), places, Integer::sum);
             }
+            reservationRepository.saveAll(reservations);
+            placesByEvent.forEach(eventRepository::incrementReservedPlaces);
 
-            System.out.println("✅ " + resCount + " réservations créées");
+            System.out.println("✅ " + reservations.size() + " réservations créées");
             System.out.println("=== Initialisation terminée ===");
             System.out.println("");
             System.out.println("📧 Comptes disponibles:");
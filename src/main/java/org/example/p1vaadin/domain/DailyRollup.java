@@ -0,0 +1,60 @@
+package org.example.p1vaadin.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Activité d'un événement sur une journée : réservations prises, confirmées et annulées ce jour-là,
+ * avec les places et montants (en centimes) correspondants. Tenu à jour par {@code RevenueRollupService}.
+ */
+@Entity
+@Table(name = "daily_rollups",
+        indexes = @Index(name = "idx_rollup_organizer_jour", columnList = "organizer_id, jour"))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class DailyRollup {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "organizer_id", nullable = false)
+    private Long organizerId;
+
+    @Column(nullable = false)
+    private long reservations;
+
+    @Column(nullable = false)
+    private long places;
+
+    @Column(nullable = false)
+    private long confirmations;
+
+    @Column(nullable = false)
+    private long annulations;
+
+    @Column(name = "places_annulees", nullable = false)
+    private long placesAnnulees;
+
+    @Column(name = "montant_centimes", nullable = false)
+    private long montantCentimes;
+
+    @Column(name = "rembourse_centimes", nullable = false)
+    private long rembourseCentimes;
+
+    @Embeddable
+    @Getter
+    @NoArgsConstructor @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        @Column(nullable = false)
+        private LocalDate jour;
+
+        @Column(name = "event_id", nullable = false)
+        private Long eventId;
+    }
+}
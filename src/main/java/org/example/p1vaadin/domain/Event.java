@@ -5,22 +5,33 @@ import jakarta.validation. constraints.*;
 import lombok.*;
 import org.example.p1vaadin.domain.enums.EventCategory;
 import org.example.p1vaadin.domain.enums.EventStatus;
+import org.example.p1vaadin.util.TextNormalizer;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_event_creation", columnList = "date_creation, id"),
+        @Index(name = "idx_event_organisateur_creation", columnList = "organisateur_id, date_creation, id"),
+        @Index(name = "idx_event_statut_debut", columnList = "statut, date_debut, id"),
+        @Index(name = "idx_event_statut_prix", columnList = "statut, prix_unitaire, id")})
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
 public class Event {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Séquence avec optimiseur pooled : un aller-retour pour 50 ids, et les insertions restent groupables en lots JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "eventSeq")
+    @SequenceGenerator(name = "eventSeq", sequenceName = "events_seq", allocationSize = 50)
     private Long id;
 
+    // Verrou optimiste : une modification concurrente du même événement échoue au lieu d'écraser l'autre
+    @Version
+    private Long version;
+
     @NotBlank(message = "Le titre est obligatoire")
     @Size(min = 5, max = 100, message = "Le titre doit contenir entre 5 et 100 caractères")
     @Column(nullable = false)
@@ -50,11 +61,17 @@ public class Event {
     @Column(nullable = false)
     private String ville;
 
+    // Modifiée uniquement par EventRepository.updateCapacity, sous condition du registre des places
     @NotNull(message = "La capacité est obligatoire")
     @Positive(message = "La capacité doit être positive")
-    @Column(name = "capacite_max", nullable = false)
+    @Column(name = "capacite_max", nullable = false, updatable = false)
     private Integer capaciteMax;
 
+    // Registre des places réservées, tenu à jour par EventRepository (jamais écrit par l'entité)
+    @Column(name = "reserved_places", nullable = false, updatable = false)
+    @Builder.Default
+    private Integer reservedPlaces = 0;
+
     @NotNull(message = "Le prix est obligatoire")
     @PositiveOrZero(message = "Le prix doit être positif ou nul")
     @Column(name = "prix_unitaire", nullable = false)
@@ -71,6 +88,14 @@ public class Event {
     @Column(nullable = false)
     private EventStatus statut;
 
+    // Mots normalisés (sans accents, minuscules) du titre, de la description, du lieu et de la ville, chacun
+    // précédé d'une espace : la recherche SQL y cherche des débuts de mots, comme EventSearchIndex
+    @Column(name = "texte_recherche", nullable = false, length = 2000)
+    private String texteRecherche;
+
+    @Column(name = "ville_recherche", nullable = false)
+    private String villeRecherche;
+
     @Column(name = "date_creation")
     private LocalDateTime dateCreation;
 
@@ -89,10 +114,30 @@ public class Event {
         if (statut == null) {
             statut = EventStatus. BROUILLON;
         }
+        if (reservedPlaces == null) {
+            reservedPlaces = 0;
+        }
+        refreshSearchText();
     }
 
     @PreUpdate
     public void preUpdate() {
         dateModification = LocalDateTime. now();
+        refreshSearchText();
+    }
+
+    private void refreshSearchText() {
+        texteRecherche = searchText(titre, description, lieu, ville);
+        villeRecherche = searchText(ville);
+    }
+
+    private static String searchText(String... fields) {
+        StringBuilder text = new StringBuilder();
+        for (String field : fields) {
+            for (String token : TextNormalizer.tokens(field)) {
+                text.append(' ').append(token);
+            }
+        }
+        return text.toString();
     }
 }
\ No newline at end of file
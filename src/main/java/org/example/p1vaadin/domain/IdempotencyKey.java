@@ -0,0 +1,26 @@
+package org.example.p1vaadin.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_date", columnList = "date_creation"))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class IdempotencyKey {
+
+    // Clé fournie par le client, préfixée par l'id de l'utilisateur
+    @Id
+    @Column(name = "cle", length = 100)
+    private String cle;
+
+    @Column(name = "reservation_id", nullable = false)
+    private Long reservationId;
+
+    @Column(name = "date_creation", nullable = false)
+    private LocalDateTime dateCreation;
+}
@@ -0,0 +1,39 @@
+package org.example.p1vaadin.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification à envoyer à un utilisateur (boîte d'envoi) : les traitements métier l'insèrent
+ * dans leur transaction, l'envoi se fait ensuite par lots.
+ */
+@Entity
+@Table(name = "notifications",
+        indexes = @Index(name = "idx_notification_envoyee", columnList = "envoyee"))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class Notification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "utilisateur_id", nullable = false)
+    private User utilisateur;
+
+    @Column(nullable = false, length = 30)
+    private String type;
+
+    @Column(nullable = false, length = 500)
+    private String message;
+
+    @Column(name = "date_creation", nullable = false)
+    private LocalDateTime dateCreation;
+
+    @Column(nullable = false)
+    private boolean envoyee;
+}
@@ -8,16 +8,21 @@ import org.example.p1vaadin.domain.enums.ReservationStatus;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations",
+        indexes = @Index(name = "idx_reservation_utilisateur_date", columnList = "utilisateur_id, date_reservation, id"))
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
 public class Reservation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservationSeq")
+    @SequenceGenerator(name = "reservationSeq", sequenceName = "reservations_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "utilisateur_id", nullable = false)
     private User utilisateur;
@@ -47,6 +52,10 @@ public class Reservation {
 
     private String commentaire;
 
+    // Bloc de sièges attribué (voir SeatMap.Block), null en placement libre
+    @Column(length = 50)
+    private String sieges;
+
     @PrePersist
     public void prePersist() {
         if (dateReservation == null) {
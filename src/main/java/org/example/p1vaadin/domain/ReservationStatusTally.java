@@ -0,0 +1,28 @@
+package org.example.p1vaadin.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+
+/**
+ * Nombre de réservations et montant cumulé (en centimes) par statut, sauvegardés
+ * périodiquement par {@code ReservationStatsService} pour survivre à un redémarrage.
+ */
+@Entity
+@Table(name = "reservation_stats")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ReservationStatusTally {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ReservationStatus statut;
+
+    @Column(nullable = false)
+    private long nombre;
+
+    @Column(name = "montant_centimes", nullable = false)
+    private long montantCentimes;
+}
@@ -0,0 +1,45 @@
+package org.example.p1vaadin.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+/**
+ * Section d'un plan de salle (parterre, balcon...) : une grille de rangées de même longueur.
+ * Un événement sans section est en placement libre.
+ */
+@Entity
+@Table(name = "seat_sections",
+        indexes = @Index(name = "idx_seat_section_event", columnList = "evenement_id"))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class SeatSection {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "evenement_id", nullable = false)
+    private Event evenement;
+
+    @Column(nullable = false, length = 50)
+    private String nom;
+
+    // Les sections de plus petit ordre sont proposées en premier
+    @Column(nullable = false)
+    private Integer ordre;
+
+    @Positive
+    @Column(nullable = false)
+    private Integer rangees;
+
+    @Positive
+    @Column(name = "sieges_par_rangee", nullable = false)
+    private Integer siegesParRangee;
+
+    public int getCapacite() {
+        return rangees * siegesParRangee;
+    }
+}
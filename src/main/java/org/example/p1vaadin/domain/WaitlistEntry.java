@@ -0,0 +1,56 @@
+package org.example.p1vaadin.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import lombok.*;
+import org.example.p1vaadin.domain.enums.WaitlistStatus;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "waitlist_entries",
+        indexes = @Index(name = "idx_waitlist_event_statut", columnList = "evenement_id, statut, id"))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "waitlistEntrySeq")
+    @SequenceGenerator(name = "waitlistEntrySeq", sequenceName = "waitlist_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "utilisateur_id", nullable = false)
+    private User utilisateur;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "evenement_id", nullable = false)
+    private Event evenement;
+
+    @NotNull(message = "Le nombre de places est obligatoire")
+    @Positive(message = "Le nombre de places doit être positif")
+    @Max(value = 10, message = "Maximum 10 places par réservation")
+    @Column(name = "nombre_places", nullable = false)
+    private Integer nombrePlaces;
+
+    @Column(name = "date_inscription")
+    private LocalDateTime dateInscription;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus statut;
+
+    @Column(name = "reservation_id")
+    private Long reservationId;
+
+    @PrePersist
+    public void prePersist() {
+        if (dateInscription == null) {
+            dateInscription = LocalDateTime.now();
+        }
+        if (statut == null) {
+            statut = WaitlistStatus.EN_ATTENTE;
+        }
+    }
+}
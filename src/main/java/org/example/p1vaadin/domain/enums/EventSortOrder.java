@@ -0,0 +1,34 @@
+package org.example.p1vaadin.domain.enums;
+
+import org.example.p1vaadin.domain.Event;
+
+/**
+ * Tris proposés par le catalogue public ; l'identifiant départage les égalités, toujours croissant.
+ */
+public enum EventSortOrder {
+    DATE("Date la plus proche", "dateDebut", true),
+    PRIX_CROISSANT("Prix croissant", "prixUnitaire", true),
+    PRIX_DECROISSANT("Prix décroissant", "prixUnitaire", false);
+
+    private final String label;
+    private final String attribute;
+    private final boolean ascending;
+
+    EventSortOrder(String label, String attribute, boolean ascending) {
+        this.label = label;
+        this.attribute = attribute;
+        this.ascending = ascending;
+    }
+
+    public String getLabel() { return label; }
+    public String getAttribute() { return attribute; }
+    public boolean isAscending() { return ascending; }
+
+    /** Valeur de la clé de tri pour un événement, à reprendre dans un curseur. */
+    public Comparable<?> keyOf(Event event) {
+        return switch (this) {
+            case DATE -> event.getDateDebut();
+            case PRIX_CROISSANT, PRIX_DECROISSANT -> event.getPrixUnitaire();
+        };
+    }
+}
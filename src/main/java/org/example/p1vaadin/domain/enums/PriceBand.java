@@ -0,0 +1,39 @@
+package org.example.p1vaadin.domain.enums;
+
+/**
+ * Tranches de prix unitaire des facettes de recherche, bornes en centimes : minimum inclus, maximum exclu.
+ */
+public enum PriceBand {
+    GRATUIT("Gratuit", 0, 1),
+    MOINS_DE_100("Moins de 100 DH", 1, 10_000),
+    DE_100_A_300("100 à 300 DH", 10_000, 30_000),
+    DE_300_A_500("300 à 500 DH", 30_000, 50_000),
+    PLUS_DE_500("500 DH et plus", 50_000, Long.MAX_VALUE);
+
+    private final String label;
+    private final long minCents;
+    private final long maxCents;
+
+    PriceBand(String label, long minCents, long maxCents) {
+        this.label = label;
+        this.minCents = minCents;
+        this.maxCents = maxCents;
+    }
+
+    public String getLabel() { return label; }
+
+    /** Prix minimal de la tranche, pour un filtre à bornes incluses. */
+    public Double getMinPrice() { return minCents / 100.0; }
+
+    /** Prix maximal de la tranche, pour un filtre à bornes incluses ; nul pour la dernière tranche. */
+    public Double getMaxPrice() { return maxCents == Long.MAX_VALUE ? null : (maxCents - 1) / 100.0; }
+
+    public static PriceBand ofCents(long cents) {
+        for (PriceBand band : values()) {
+            if (cents < band.maxCents) {
+                return band;
+            }
+        }
+        return PLUS_DE_500;
+    }
+}
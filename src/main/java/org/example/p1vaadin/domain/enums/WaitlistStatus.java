@@ -0,0 +1,18 @@
+package org.example.p1vaadin.domain.enums;
+
+public enum WaitlistStatus {
+    EN_ATTENTE("En attente", "contrast"),
+    PROMUE("Promue", "success"),
+    ANNULEE("Annulée", "error");
+
+    private final String label;
+    private final String badgeVariant;
+
+    WaitlistStatus(String label, String badgeVariant) {
+        this.label = label;
+        this.badgeVariant = badgeVariant;
+    }
+
+    public String getLabel() { return label; }
+    public String getBadgeVariant() { return badgeVariant; }
+}
@@ -0,0 +1,7 @@
+package org.example.p1vaadin.events;
+
+/**
+ * Publié quand un événement passe au statut ANNULE.
+ */
+public record EventCancelledEvent(Long eventId, String titre) {
+}
@@ -0,0 +1,9 @@
+package org.example.p1vaadin.events;
+
+/**
+ * Publié quand un événement est créé, modifié (y compris publié ou annulé) ou supprimé.
+ */
+public record EventChangedEvent(Long eventId, Long organizerId, Change change) {
+
+    public enum Change { CREATED, UPDATED, DELETED }
+}
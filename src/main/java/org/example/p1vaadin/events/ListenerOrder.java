@@ -0,0 +1,19 @@
+package org.example.p1vaadin.events;
+
+import org.springframework.core.Ordered;
+
+/**
+ * Ordre des écouteurs d'un même événement validé : les agrégats tenus en mémoire sont mis à jour avant
+ * l'invalidation des instantanés qui les lisent, sinon un recalcul immédiat reprendrait l'ancien état.
+ */
+public final class ListenerOrder {
+
+    /** Compteurs et agrégats en mémoire (statistiques, répartitions par statut, revenus, activité récente). */
+    public static final int AGGREGATES = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    /** Caches d'instantanés calculés à partir des agrégats. */
+    public static final int SNAPSHOTS = Ordered.LOWEST_PRECEDENCE - 100;
+
+    private ListenerOrder() {
+    }
+}
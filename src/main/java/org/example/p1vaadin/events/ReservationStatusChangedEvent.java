@@ -0,0 +1,38 @@
+package org.example.p1vaadin.events;
+
+import org.example.p1vaadin.domain.Reservation;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publié à chaque changement de statut d'une réservation ; {@code previousStatus} est nul à la création.
+ */
+public record ReservationStatusChangedEvent(
+        Long reservationId,
+        Long eventId,
+        Long userId,
+        int places,
+        double amount,
+        LocalDateTime reservedAt,
+        ReservationStatus previousStatus,
+        ReservationStatus newStatus
+) {
+
+    public static ReservationStatusChangedEvent of(Reservation reservation, ReservationStatus previousStatus) {
+        return new ReservationStatusChangedEvent(
+                reservation.getId(),
+                reservation.getEvenement().getId(),
+                reservation.getUtilisateur().getId(),
+                reservation.getNombrePlaces(),
+                reservation.getMontantTotal(),
+                reservation.getDateReservation(),
+                previousStatus,
+                reservation.getStatut()
+        );
+    }
+
+    public boolean isCreation() {
+        return previousStatus == null;
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.p1vaadin.events;
+
+/**
+ * Publié pour chaque lot de réservations annulées en masse (annulation d'un événement), à la place
+ * d'un {@link ReservationStatusChangedEvent} par réservation. Ne décrit que les réservations que le lot
+ * a effectivement fait passer à ANNULEE.
+ */
+public record ReservationsBulkCancelledEvent(
+        Long eventId,
+        int previouslyPending,
+        int previouslyConfirmed,
+        int pendingPlaces,
+        int confirmedPlaces,
+        double pendingAmount,
+        double confirmedAmount
+) {
+
+    public int count() {
+        return previouslyPending + previouslyConfirmed;
+    }
+
+    public int places() {
+        return pendingPlaces + confirmedPlaces;
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.p1vaadin.events;
+
+/**
+ * Publié quand un compte utilisateur est créé ({@code created}) ou que son profil, son rôle ou son état change.
+ */
+public record UserChangedEvent(Long userId, boolean created) {
+}
@@ -0,0 +1,7 @@
+package org.example.p1vaadin.exception;
+
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.p1vaadin.repository;
+
+import org.example.p1vaadin.domain.DailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, DailyRollup.Key> {
+
+    @Query("SELECT YEAR(d.id.jour), MONTH(d.id.jour), SUM(d.reservations - d.annulations), " +
+            "SUM(d.places - d.placesAnnulees), SUM(d.montantCentimes - d.rembourseCentimes) FROM DailyRollup d " +
+            "WHERE d.organizerId = :organizerId AND d.id.jour >= :from AND d.id.jour < :to " +
+            "GROUP BY YEAR(d.id.jour), MONTH(d.id.jour)")
+    List<Object[]> sumByMonthForOrganizer(@Param("organizerId") Long organizerId,
+                                          @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT YEAR(d.id.jour), MONTH(d.id.jour), SUM(d.reservations - d.annulations), " +
+            "SUM(d.places - d.placesAnnulees), SUM(d.montantCentimes - d.rembourseCentimes) FROM DailyRollup d " +
+            "WHERE d.id.eventId = :eventId AND d.id.jour >= :from AND d.id.jour < :to " +
+            "GROUP BY YEAR(d.id.jour), MONTH(d.id.jour)")
+    List<Object[]> sumByMonthForEvent(@Param("eventId") Long eventId,
+                                      @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -4,17 +4,22 @@ import org.example.p1vaadin.domain.Event;
 import org.example.p1vaadin.domain.User;
 import org.example.p1vaadin.domain.enums.EventCategory;
 import org.example.p1vaadin.domain.enums.EventStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
 
     @Query("SELECT e FROM Event e JOIN FETCH e.organisateur WHERE e.id = :id")
     Optional<Event> findByIdWithOrganisateur(@Param("id") Long id);
@@ -25,15 +30,85 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     @Query("SELECT e FROM Event e JOIN FETCH e.organisateur WHERE e.statut = 'PUBLIE' AND e.dateFin > CURRENT_TIMESTAMP")
     List<Event> findAvailableEventsWithOrganisateur();
 
-    @Query("SELECT e FROM Event e JOIN FETCH e.organisateur WHERE e.statut = 'PUBLIE' ORDER BY SIZE(e.reservations) DESC")
-    List<Event> findPopularEventsWithOrganisateur();
+    @Query("SELECT e FROM Event e JOIN FETCH e.organisateur WHERE e.id IN :ids")
+    List<Event> findAllWithOrganisateurByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT e.statut FROM Event e WHERE e.id = :id")
+    Optional<EventStatus> findStatutById(@Param("id") Long id);
+
+    @Query("SELECT e.id FROM Event e WHERE e.statut = :statut")
+    List<Long> findIdsByStatut(@Param("statut") EventStatus statut);
 
     @Query("SELECT e FROM Event e JOIN FETCH e.organisateur WHERE e.organisateur = :organisateur")
     List<Event> findByOrganisateurWithDetails(@Param("organisateur") User organisateur);
 
+    @Query("SELECT e.id, e.organisateur.id FROM Event e WHERE e.id IN :ids")
+    List<Object[]> findOrganizerIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT e.statut, COUNT(e) FROM Event e WHERE e.organisateur = :organisateur GROUP BY e.statut")
+    List<Object[]> countByStatusForOrganisateur(@Param("organisateur") User organisateur);
+
+    // Événements les plus récents, puis suite par keyset sur (date_creation, id)
+    @Query("SELECT e FROM Event e JOIN FETCH e.organisateur ORDER BY e.dateCreation DESC, e.id DESC")
+    List<Event> findRecentWithOrganisateur(Pageable pageable);
+
+    @Query("SELECT e FROM Event e JOIN FETCH e.organisateur " +
+            "WHERE e.dateCreation < :at OR (e.dateCreation = :at AND e.id < :id) ORDER BY e.dateCreation DESC, e.id DESC")
+    List<Event> findRecentWithOrganisateurBefore(@Param("at") LocalDateTime at, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT e FROM Event e JOIN FETCH e.organisateur WHERE e.organisateur.id = :organizerId " +
+            "ORDER BY e.dateCreation DESC, e.id DESC")
+    List<Event> findRecentByOrganisateur(@Param("organizerId") Long organizerId, Pageable pageable);
+
+    @Query("SELECT e FROM Event e JOIN FETCH e.organisateur WHERE e.organisateur.id = :organizerId " +
+            "AND (e.dateCreation < :at OR (e.dateCreation = :at AND e.id < :id)) ORDER BY e.dateCreation DESC, e.id DESC")
+    List<Event> findRecentByOrganisateurBefore(@Param("organizerId") Long organizerId, @Param("at") LocalDateTime at,
+                                               @Param("id") Long id, Pageable pageable);
+
+    // Registre des places réservées (events.reserved_places)
+
+    @Query("SELECT e.reservedPlaces FROM Event e WHERE e.id = :id")
+    Integer findReservedPlaces(@Param("id") Long id);
+
+    @Query("SELECT e.id, e.reservedPlaces FROM Event e")
+    List<Object[]> findAllReservedPlaces();
+
+    // Verrouille la ligne de l'événement jusqu'à la fin de la transaction : une réservation en cours
+    // (qui met à jour cette ligne) est attendue, et aucune ne peut commencer avant la fin de la transaction
+    @Query(value = "SELECT reserved_places FROM events WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Integer lockReservedPlaces(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE events SET reserved_places = :places WHERE id = :id", nativeQuery = true)
+    int setReservedPlaces(@Param("id") Long id, @Param("places") int places);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE events SET reserved_places = reserved_places + :places WHERE id = :id AND reserved_places + :places <= capacite_max", nativeQuery = true)
+    int incrementReservedPlaces(@Param("id") Long id, @Param("places") int places);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE events SET reserved_places = reserved_places - :places WHERE id = :id", nativeQuery = true)
+    int decrementReservedPlaces(@Param("id") Long id, @Param("places") int places);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE events SET reserved_places = reserved_places + :delta WHERE id = :id", nativeQuery = true)
+    int adjustReservedPlaces(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE events SET capacite_max = :capacity WHERE id = :id AND reserved_places <= :capacity", nativeQuery = true)
+    int updateCapacity(@Param("id") Long id, @Param("capacity") int capacity);
+
     List<Event> findByCategorie(EventCategory categorie);
     List<Event> findByOrganisateurAndStatut(User organisateur, EventStatus statut);
     List<Event> findByOrganisateur(User organisateur);
+    long countByOrganisateur(User organisateur);
+    long countByOrganisateurAndStatut(User organisateur, EventStatus statut);
     List<Event> findByStatut(EventStatus statut);
+    long countByStatut(EventStatus statut);
     long countByCategorie(EventCategory categorie);
 }
\ No newline at end of file
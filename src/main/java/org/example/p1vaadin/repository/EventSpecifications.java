@@ -0,0 +1,85 @@
+package org.example.p1vaadin.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.enums.EventCategory;
+import org.example.p1vaadin.domain.enums.EventSortOrder;
+import org.example.p1vaadin.domain.enums.EventStatus;
+import org.example.p1vaadin.util.TextNormalizer;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Critères de recherche du catalogue public, traduits en prédicats SQL, et pagination par clé (keyset) :
+ * une page reprend après la clé de tri et l'identifiant du dernier événement lu au lieu de sauter
+ * des lignes, si bien que la page N coûte autant que la première.
+ */
+public final class EventSpecifications {
+
+    private EventSpecifications() {
+    }
+
+    /**
+     * Événements disponibles (publiés et non terminés à {@code now}) répondant aux critères ; un critère nul
+     * ou vide n'est pas appliqué. Chaque mot de la ville et de {@code keyword}, sans accents ni casse, doit
+     * commencer un mot de la ville, ou du titre, de la description, du lieu ou de la ville pour le mot-clé :
+     * la même règle que {@link org.example.p1vaadin.service.EventSearchIndex}, dont viennent les facettes.
+     */
+    public static Specification<Event> matching(EventCategory category, String city, String keyword,
+                                                Double minPrice, Double maxPrice, LocalDateTime now) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("statut"), EventStatus.PUBLIE));
+            predicates.add(cb.greaterThan(root.get("dateFin"), now));
+            if (category != null) {
+                predicates.add(cb.equal(root.get("categorie"), category));
+            }
+            for (String word : TextNormalizer.tokens(city)) {
+                predicates.add(startsAWord(cb, root.get("villeRecherche"), word));
+            }
+            for (String word : TextNormalizer.tokens(keyword)) {
+                predicates.add(startsAWord(cb, root.get("texteRecherche"), word));
+            }
+            if (minPrice != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("prixUnitaire"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("prixUnitaire"), maxPrice));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Événements situés strictement après ({@code key}, {@code id}) dans l'ordre {@code order}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Event> after(EventSortOrder order, Comparable<?> key, Long id) {
+        return (root, query, cb) -> {
+            Path<Comparable> path = root.get(order.getAttribute());
+            Comparable value = key;
+            Predicate beyond = order.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+            return cb.or(beyond, cb.and(cb.equal(path, value), cb.greaterThan(root.<Long>get("id"), id)));
+        };
+    }
+
+    /**
+     * Tri correspondant à {@code order}, départagé par l'identifiant croissant comme {@link #after}.
+     */
+    public static Sort sort(EventSortOrder order) {
+        Sort.Direction direction = order.isAscending() ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return Sort.by(direction, order.getAttribute()).and(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    // Les colonnes normalisées précèdent chaque mot d'une espace ; un mot normalisé n'a ni % ni _ à échapper
+    private static Predicate startsAWord(CriteriaBuilder cb, Expression<String> normalized, String word) {
+        return cb.like(normalized, "% " + word + "%");
+    }
+}
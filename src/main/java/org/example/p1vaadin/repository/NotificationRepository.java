@@ -0,0 +1,39 @@
+package org.example.p1vaadin.repository;
+
+import org.example.p1vaadin.domain.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    // Une notification par réservation, insérées en une seule requête
+    @Modifying
+    @Query(value = "INSERT INTO notifications (utilisateur_id, type, message, date_creation, envoyee) " +
+            "SELECT r.utilisateur_id, 'EVENEMENT_ANNULE', " +
+            "CONCAT('L''événement « ', :titre, ' » est annulé : votre réservation ', r.code_reservation, ' est annulée.'), " +
+            "CURRENT_TIMESTAMP, FALSE FROM reservations r WHERE r.id IN (:ids)", nativeQuery = true)
+    int enqueueEventCancelled(@Param("ids") List<Long> ids, @Param("titre") String titre);
+
+    // Une notification par réservation promue depuis la liste d'attente, avec le délai pour la confirmer
+    @Modifying
+    @Query(value = "INSERT INTO notifications (utilisateur_id, type, message, date_creation, envoyee) " +
+            "SELECT r.utilisateur_id, 'LISTE_ATTENTE_PROMUE', " +
+            "CONCAT('Des places se sont libérées pour « ', :titre, ' » : votre réservation ', r.code_reservation, " +
+            "' est retenue, confirmez-la dans Mes Réservations avant ', :minutes, ' minutes.'), " +
+            "CURRENT_TIMESTAMP, FALSE FROM reservations r WHERE r.id IN (:ids)", nativeQuery = true)
+    int enqueueWaitlistPromoted(@Param("ids") List<Long> ids, @Param("titre") String titre, @Param("minutes") long minutes);
+
+    @Query("SELECT n FROM Notification n JOIN FETCH n.utilisateur WHERE n.envoyee = false ORDER BY n.id")
+    List<Notification> findPending(Pageable page);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.envoyee = true WHERE n.id IN :ids")
+    int markSent(@Param("ids") List<Long> ids);
+}
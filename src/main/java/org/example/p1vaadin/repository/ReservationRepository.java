@@ -4,7 +4,9 @@ import org.example.p1vaadin.domain.Event;
 import org.example.p1vaadin.domain.Reservation;
 import org.example.p1vaadin.domain.User;
 import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query. Param;
 import org.springframework.stereotype.Repository;
@@ -20,6 +22,19 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @Query("SELECT r FROM Reservation r JOIN FETCH r.evenement JOIN FETCH r.utilisateur WHERE r.utilisateur = :user")
     List<Reservation> findByUtilisateurWithDetails(@Param("user") User user);
 
+    // Réservations les plus récentes d'un client, puis suite par keyset sur (date_reservation, id)
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.evenement WHERE r.utilisateur.id = :userId " +
+            "ORDER BY r.dateReservation DESC, r.id DESC")
+    List<Reservation> findRecentByUtilisateur(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.evenement WHERE r.utilisateur.id = :userId " +
+            "AND (r.dateReservation < :at OR (r.dateReservation = :at AND r.id < :id)) ORDER BY r.dateReservation DESC, r.id DESC")
+    List<Reservation> findRecentByUtilisateurBefore(@Param("userId") Long userId, @Param("at") LocalDateTime at,
+                                                    @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT r.statut, COUNT(r) FROM Reservation r WHERE r.utilisateur = :user GROUP BY r.statut")
+    List<Object[]> countByStatusForUser(@Param("user") User user);
+
     // Charger les réservations d'un événement avec les détails
     @Query("SELECT r FROM Reservation r JOIN FETCH r.utilisateur JOIN FETCH r.evenement WHERE r.evenement = :event")
     List<Reservation> findByEvenementWithDetails(@Param("event") Event event);
@@ -37,6 +52,65 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @Query("SELECT COALESCE(SUM(r. nombrePlaces), 0) FROM Reservation r WHERE r.evenement = :event AND r.statut != 'ANNULEE'")
     Integer sumPlacesReservedForEvent(@Param("event") Event event);
 
+    @Query("SELECT r.evenement.id, SUM(r.nombrePlaces) FROM Reservation r WHERE r.statut != 'ANNULEE' GROUP BY r.evenement.id")
+    List<Object[]> sumPlacesReservedGroupedByEvent();
+
+    // Sièges attribués aux réservations actives d'un événement à placement numéroté
+    @Query("SELECT r.sieges FROM Reservation r WHERE r.evenement.id = :eventId AND r.statut != 'ANNULEE' AND r.sieges IS NOT NULL")
+    List<String> findSeatAssignments(@Param("eventId") Long eventId);
+
+    // Réservations actives d'un événement par lots (keyset sur l'id), sans charger les entités
+    @Query("SELECT r.id, r.statut, r.nombrePlaces, r.montantTotal FROM Reservation r " +
+            "WHERE r.evenement.id = :eventId AND r.statut != 'ANNULEE' AND r.id > :afterId ORDER BY r.id")
+    List<Object[]> findActiveAfter(@Param("eventId") Long eventId, @Param("afterId") Long afterId, Pageable page);
+
+    @Query("SELECT DISTINCT r.evenement.id FROM Reservation r WHERE r.evenement.statut = 'ANNULE' AND r.statut != 'ANNULEE'")
+    List<Long> findCancelledEventsWithActiveReservations();
+
+    @Query("SELECT r.statut, COUNT(r), COALESCE(SUM(r.montantTotal), 0) FROM Reservation r GROUP BY r.statut")
+    List<Object[]> countAndSumGroupedByStatus();
+
+    @Query("SELECT r.statut, COUNT(r), COALESCE(SUM(r.montantTotal), 0) FROM Reservation r " +
+            "WHERE r.evenement.organisateur = :organizer GROUP BY r.statut")
+    List<Object[]> countAndSumByStatusForOrganizer(@Param("organizer") User organizer);
+
+    @Query("SELECT COUNT(r) FROM Reservation r WHERE r.evenement.organisateur = :organizer")
+    long countByOrganizer(@Param("organizer") User organizer);
+
+    @Query("SELECT COALESCE(SUM(r.montantTotal), 0) FROM Reservation r " +
+            "WHERE r.evenement.organisateur = :organizer AND r.statut != 'ANNULEE'")
+    Double sumRevenueByOrganizer(@Param("organizer") User organizer);
+
+    @Query("SELECT CAST(r.dateReservation AS LocalDate), r.evenement.id, r.evenement.organisateur.id, " +
+            "COUNT(r), SUM(r.nombrePlaces), SUM(r.montantTotal), " +
+            "SUM(CASE WHEN r.statut = 'CONFIRMEE' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.statut = 'ANNULEE' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.statut = 'ANNULEE' THEN r.nombrePlaces ELSE 0 END), " +
+            "SUM(CASE WHEN r.statut = 'ANNULEE' THEN r.montantTotal ELSE 0 END) " +
+            "FROM Reservation r GROUP BY CAST(r.dateReservation AS LocalDate), r.evenement.id, r.evenement.organisateur.id")
+    List<Object[]> summarizeByDayAndEvent();
+
+    @Query("SELECT r.evenement.id, CAST(r.dateReservation AS LocalDate), COUNT(r) FROM Reservation r " +
+            "WHERE r.statut != 'ANNULEE' GROUP BY r.evenement.id, CAST(r.dateReservation AS LocalDate)")
+    List<Object[]> countActiveByEventAndDay();
+
+    @Query("SELECT e.id, e.categorie, e.ville, e.dateDebut, r.statut, COUNT(r), SUM(r.nombrePlaces), SUM(r.montantTotal) " +
+            "FROM Reservation r JOIN r.evenement e GROUP BY e.id, e.categorie, e.ville, e.dateDebut, r.statut")
+    List<Object[]> countAndSumByEventAndStatus();
+
+    @Query("SELECT r.evenement.id, r.evenement.organisateur.id, r.statut, COUNT(r) FROM Reservation r " +
+            "GROUP BY r.evenement.id, r.evenement.organisateur.id, r.statut")
+    List<Object[]> countByEventOrganizerAndStatus();
+
+    @Query("SELECT r.id, r.dateReservation FROM Reservation r WHERE r.statut = 'EN_ATTENTE'")
+    List<Object[]> findPendingHolds();
+
+    @Modifying
+    @Query("UPDATE Reservation r SET r.statut = :newStatus, r.version = r.version + 1 WHERE r.id = :id AND r.statut = :expected")
+    int updateStatusIfCurrent(@Param("id") Long id,
+                              @Param("expected") ReservationStatus expected,
+                              @Param("newStatus") ReservationStatus newStatus);
+
     Optional<Reservation> findByCodeReservation(String code);
 
     List<Reservation> findByDateReservationBetween(LocalDateTime start, LocalDateTime end);
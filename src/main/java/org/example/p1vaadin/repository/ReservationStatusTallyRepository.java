@@ -0,0 +1,10 @@
+package org.example.p1vaadin.repository;
+
+import org.example.p1vaadin.domain.ReservationStatusTally;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReservationStatusTallyRepository extends JpaRepository<ReservationStatusTally, ReservationStatus> {
+}
@@ -0,0 +1,21 @@
+package org.example.p1vaadin.repository;
+
+import org.example.p1vaadin.domain.SeatSection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SeatSectionRepository extends JpaRepository<SeatSection, Long> {
+
+    @Query("SELECT s FROM SeatSection s WHERE s.evenement.id = :eventId ORDER BY s.ordre, s.id")
+    List<SeatSection> findByEventId(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("DELETE FROM SeatSection s WHERE s.evenement.id = :eventId")
+    int deleteByEventId(@Param("eventId") Long eventId);
+}
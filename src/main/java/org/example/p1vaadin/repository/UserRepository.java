@@ -2,10 +2,13 @@ package org.example.p1vaadin. repository;
 
 import org.example. p1vaadin.domain.User;
 import org.example.p1vaadin.domain. enums.Role;
+import org.springframework.data.domain.Pageable;
 import org. springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa. repository.Query;
+import org.springframework.data.repository.query.Param;
 import org. springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +25,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     long countByRole(Role role);
 
+    @Query("SELECT u.role, COUNT(u) FROM User u GROUP BY u.role")
+    List<Object[]> countGroupedByRole();
+
+    // Inscriptions les plus récentes, puis suite par keyset sur (date_inscription, id)
+    @Query("SELECT u FROM User u ORDER BY u.dateInscription DESC, u.id DESC")
+    List<User> findRecent(Pageable page);
+
+    @Query("SELECT u FROM User u WHERE u.dateInscription < :at OR (u.dateInscription = :at AND u.id < :id) " +
+            "ORDER BY u.dateInscription DESC, u.id DESC")
+    List<User> findRecentBefore(@Param("at") LocalDateTime at, @Param("id") Long id, Pageable page);
+
     List<User> findByRole(Role role);
 
     List<User> findByActif(Boolean actif);
@@ -0,0 +1,36 @@
+package org.example.p1vaadin.repository;
+
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.domain.WaitlistEntry;
+import org.example.p1vaadin.domain.enums.WaitlistStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // File d'attente d'un événement dans l'ordre d'arrivée, par pages (keyset sur l'id)
+    @Query("SELECT w FROM WaitlistEntry w JOIN FETCH w.utilisateur WHERE w.evenement.id = :eventId AND w.statut = 'EN_ATTENTE' AND w.id > :afterId ORDER BY w.id")
+    List<WaitlistEntry> findWaitingAfter(@Param("eventId") Long eventId, @Param("afterId") Long afterId, Pageable page);
+
+    @Query("SELECT COUNT(w) FROM WaitlistEntry w WHERE w.evenement.id = :eventId AND w.statut = 'EN_ATTENTE' AND w.id <= :entryId")
+    long positionOf(@Param("eventId") Long eventId, @Param("entryId") Long entryId);
+
+    @Query("SELECT w FROM WaitlistEntry w JOIN FETCH w.evenement WHERE w.utilisateur = :user ORDER BY w.id DESC")
+    List<WaitlistEntry> findByUtilisateurWithDetails(@Param("user") User user);
+
+    boolean existsByUtilisateurAndEvenementAndStatut(User utilisateur, Event evenement, WaitlistStatus statut);
+
+    long countByEvenementAndStatut(Event evenement, WaitlistStatus statut);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.statut = 'ANNULEE' WHERE w.evenement.id = :eventId AND w.statut = 'EN_ATTENTE'")
+    int cancelWaiting(@Param("eventId") Long eventId);
+}
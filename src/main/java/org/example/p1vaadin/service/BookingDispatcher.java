@@ -0,0 +1,288 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Reservation;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.exception.ServiceBusyException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Répartit les demandes de réservation dans une file par événement.
+ * Chaque file est vidée par un seul thread virtuel qui traite les demandes par lots, dans une
+ * transaction par lot : un événement très demandé est sérialisé et regroupé, tandis que les
+ * autres événements avancent en parallèle. Une file pleine refuse immédiatement la demande.
+ * <p>
+ * Une demande est prise en charge une seule fois, soit par la file qui la traite, soit par l'appelant
+ * qui renonce à l'attendre : une demande abandonnée ne peut plus réserver ensuite. Une file inactive
+ * depuis {@code app.booking.idle-ms} s'arrête et disparaît de la table des files.
+ */
+@Service
+public class BookingDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingDispatcher.class);
+
+    private static final String NOT_PROCESSED =
+            "Trop de demandes en cours pour cet événement, la réservation n'a pas été traitée : veuillez réessayer";
+
+    private final ReservationService reservationService;
+    private final IdempotencyService idempotencyService;
+    private final int laneCapacity;
+    private final int maxBatch;
+    private final long timeoutMillis;
+    private final long idleMillis;
+    private final ConcurrentHashMap<Long, Lane> lanes = new ConcurrentHashMap<>();
+
+    public BookingDispatcher(ReservationService reservationService,
+                             IdempotencyService idempotencyService,
+                             @Value("${app.booking.lane-capacity:1000}") int laneCapacity,
+                             @Value("${app.booking.max-batch:50}") int maxBatch,
+                             @Value("${app.booking.timeout-ms:10000}") long timeoutMillis,
+                             @Value("${app.booking.idle-ms:30000}") long idleMillis) {
+        this.reservationService = reservationService;
+        this.idempotencyService = idempotencyService;
+        this.laneCapacity = laneCapacity;
+        this.maxBatch = maxBatch;
+        this.timeoutMillis = timeoutMillis;
+        this.idleMillis = idleMillis;
+    }
+
+    /**
+     * Soumet la demande et attend son traitement. Une demande répétée avec la même clé
+     * d'idempotence renvoie la réservation d'origine.
+     */
+    public Reservation book(Long eventId, int nombrePlaces, String commentaire, User user, String idempotencyKey) {
+        PendingBooking pending = enqueue(new BookingRequest(eventId, nombrePlaces, commentaire, user, idempotencyKey));
+        try {
+            try {
+                return pending.result().get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                if (pending.withdraw()) {
+                    throw new ServiceBusyException(NOT_PROCESSED);
+                }
+                // Déjà en cours de traitement : son issue est attendue encore une fois le délai
+                return pending.result().get(timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new ServiceBusyException("La réservation prend plus de temps que prévu, vérifiez Mes Réservations avant de réessayer");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (pending.withdraw()) {
+                throw new ServiceBusyException("Réservation interrompue");
+            }
+            throw new ServiceBusyException("Réservation interrompue, vérifiez Mes Réservations avant de réessayer");
+        }
+    }
+
+    /**
+     * Soumet la demande sans attendre ; une demande restée en file au-delà de {@code app.booking.timeout-ms}
+     * est refusée sans être traitée.
+     */
+    public CompletableFuture<Reservation> submit(BookingRequest request) {
+        return enqueue(request).result();
+    }
+
+    private PendingBooking enqueue(BookingRequest request) {
+        if (request.idempotencyKey() != null) {
+            Optional<Reservation> existing = idempotencyService
+                    .find(IdempotencyService.scopedKey(request.user(), request.idempotencyKey()))
+                    .flatMap(reservationService::findById);
+            if (existing.isPresent()) {
+                PendingBooking done = new PendingBooking(request, System.nanoTime(), CompletableFuture.completedFuture(existing.get()));
+                done.withdraw();
+                return done;
+            }
+        }
+
+        PendingBooking pending = new PendingBooking(request, System.nanoTime(), new CompletableFuture<>());
+        while (true) {
+            Lane lane = lanes.computeIfAbsent(request.eventId(), Lane::new);
+            synchronized (lane) {
+                // Une file retirée de la table par son thread ne reçoit plus de demande : on en crée une autre
+                if (lane.retired) {
+                    continue;
+                }
+                if (!lane.queue.offer(pending)) {
+                    lane.rejected.incrementAndGet();
+                    throw new ServiceBusyException("Trop de demandes en cours pour cet événement, veuillez réessayer dans un instant");
+                }
+                lane.ensureRunning();
+                return pending;
+            }
+        }
+    }
+
+    /**
+     * Activité des files en cours, la plus chargée d'abord.
+     */
+    public List<LaneStats> laneStats() {
+        return lanes.values().stream()
+                .map(Lane::stats)
+                .sorted(Comparator.comparingInt(LaneStats::queueDepth).reversed())
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${app.booking.stats-interval-ms:60000}")
+    public void logLaneStats() {
+        for (LaneStats stats : laneStats()) {
+            log.info("File de réservation de l'événement {} : {} en attente, {} traitées, {} refusées, latence moyenne {} ms, max {} ms",
+                    stats.eventId(), stats.queueDepth(), stats.processed(), stats.rejected(),
+                    Math.round(stats.averageLatencyMillis()), Math.round(stats.maxLatencyMillis()));
+        }
+    }
+
+    public record LaneStats(Long eventId, int queueDepth, long processed, long rejected,
+                            double averageLatencyMillis, double maxLatencyMillis) {
+    }
+
+    private record PendingBooking(BookingRequest request, long enqueuedAt, CompletableFuture<Reservation> result,
+                                  AtomicBoolean taken) {
+
+        private PendingBooking(BookingRequest request, long enqueuedAt, CompletableFuture<Reservation> result) {
+            this(request, enqueuedAt, result, new AtomicBoolean());
+        }
+
+        /**
+         * Prend la demande en charge ; faux si la file ou l'appelant l'a déjà fait.
+         */
+        private boolean withdraw() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+
+    private final class Lane implements Runnable {
+
+        private final Long eventId;
+        private final ArrayBlockingQueue<PendingBooking> queue = new ArrayBlockingQueue<>(laneCapacity);
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong totalLatencyNanos = new AtomicLong();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+        private boolean running;
+        private boolean retired;
+
+        private Lane(Long eventId) {
+            this.eventId = eventId;
+        }
+
+        private synchronized void ensureRunning() {
+            if (!running) {
+                running = true;
+                Thread.ofVirtual().name("booking-lane-" + eventId).start(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            List<PendingBooking> batch = new ArrayList<>(maxBatch);
+            while (true) {
+                PendingBooking first;
+                try {
+                    first = queue.poll(idleMillis, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ex) {
+                    synchronized (this) {
+                        running = false;
+                    }
+                    return;
+                }
+                if (first == null) {
+                    synchronized (this) {
+                        if (queue.isEmpty()) {
+                            running = false;
+                            retired = true;
+                            lanes.remove(eventId, this);
+                            log.debug("File de réservation de l'événement {} arrêtée après inactivité", eventId);
+                            return;
+                        }
+                    }
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                batch.removeIf(this::abandoned);
+                if (!batch.isEmpty()) {
+                    process(batch);
+                }
+                batch.clear();
+            }
+        }
+
+        /**
+         * Écarte une demande retirée par son appelant, ou restée en file plus longtemps que le délai d'attente.
+         */
+        private boolean abandoned(PendingBooking pending) {
+            if (!pending.withdraw()) {
+                return true;
+            }
+            if (System.nanoTime() - pending.enqueuedAt() > TimeUnit.MILLISECONDS.toNanos(timeoutMillis)) {
+                rejected.incrementAndGet();
+                pending.result().completeExceptionally(new ServiceBusyException(NOT_PROCESSED));
+                return true;
+            }
+            return false;
+        }
+
+        private void process(List<PendingBooking> batch) {
+            List<BookingRequest> requests = batch.stream().map(PendingBooking::request).toList();
+            try {
+                List<BookingResult> results = reservationService.createGroup(eventId, requests);
+                for (int i = 0; i < batch.size(); i++) {
+                    complete(batch.get(i), results.get(i));
+                }
+            } catch (RuntimeException groupFailure) {
+                log.warn("Lot de {} réservations refusé pour l'événement {}, traitement unitaire : {}",
+                        batch.size(), eventId, groupFailure.getMessage());
+                for (PendingBooking pending : batch) {
+                    BookingRequest request = pending.request();
+                    try {
+                        complete(pending, BookingResult.accepted(reservationService.create(
+                                request.eventId(), request.nombrePlaces(), request.commentaire(),
+                                request.user(), request.idempotencyKey())));
+                    } catch (RuntimeException ex) {
+                        complete(pending, BookingResult.rejected(ex));
+                    }
+                }
+            }
+        }
+
+        private void complete(PendingBooking pending, BookingResult result) {
+            long latency = System.nanoTime() - pending.enqueuedAt();
+            processed.incrementAndGet();
+            totalLatencyNanos.addAndGet(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            if (result.isAccepted()) {
+                pending.result().complete(result.reservation());
+            } else {
+                pending.result().completeExceptionally(result.error());
+            }
+        }
+
+        private LaneStats stats() {
+            long count = processed.get();
+            return new LaneStats(eventId, queue.size(), count, rejected.get(),
+                    count == 0 ? 0 : totalLatencyNanos.get() / 1e6 / count,
+                    maxLatencyNanos.get() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.User;
+
+public record BookingRequest(Long eventId, int nombrePlaces, String commentaire, User user, String idempotencyKey) {
+}
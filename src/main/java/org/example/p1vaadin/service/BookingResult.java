@@ -0,0 +1,21 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Reservation;
+
+/**
+ * Issue d'une demande traitée dans un lot : la réservation créée, ou le motif du refus.
+ */
+public record BookingResult(Reservation reservation, RuntimeException error) {
+
+    public static BookingResult accepted(Reservation reservation) {
+        return new BookingResult(reservation, null);
+    }
+
+    public static BookingResult rejected(RuntimeException error) {
+        return new BookingResult(null, error);
+    }
+
+    public boolean isAccepted() {
+        return reservation != null;
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.p1vaadin.service;
+
+/**
+ * Ligne de panier : un nombre de places sur un événement.
+ */
+public record CartLine(Long eventId, int nombrePlaces) {
+}
@@ -0,0 +1,206 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.domain.enums.EventStatus;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.domain.enums.Role;
+import org.example.p1vaadin.events.EventChangedEvent;
+import org.example.p1vaadin.events.ListenerOrder;
+import org.example.p1vaadin.events.ReservationStatusChangedEvent;
+import org.example.p1vaadin.events.ReservationsBulkCancelledEvent;
+import org.example.p1vaadin.events.UserChangedEvent;
+import org.example.p1vaadin.repository.EventRepository;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.example.p1vaadin.repository.UserRepository;
+import org.example.p1vaadin.service.OrganizerAnalyticsService.OrganizerStats;
+import org.example.p1vaadin.service.RecentActivityService.RecentEvent;
+import org.example.p1vaadin.service.RecentActivityService.RecentReservation;
+import org.example.p1vaadin.service.RecentActivityService.RecentUser;
+import org.example.p1vaadin.service.ReservationStatusCounters.StatusDistribution;
+import org.example.p1vaadin.service.RevenueRollupService.MonthlyRevenue;
+import org.example.p1vaadin.util.SnapshotCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indicateurs des tableaux de bord, calculés une fois par rôle (ou par utilisateur) et partagés
+ * entre les visiteurs pendant une courte durée. Un seul calcul a lieu à la fois pour une même entrée,
+ * et les entrées concernées sont invalidées dès qu'une réservation, un événement ou un compte change,
+ * après la mise à jour des agrégats en mémoire qu'elles lisent ({@link ListenerOrder}).
+ */
+@Service
+public class DashboardSnapshotService {
+
+    private static final int REVENUE_MONTHS = 6;
+    private static final String ADMIN = "admin";
+
+    private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationStatsService reservationStatsService;
+    private final OrganizerAnalyticsService organizerAnalyticsService;
+    private final RevenueRollupService revenueRollupService;
+    private final ReservationStatusCounters statusCounters;
+    private final RecentActivityService recentActivityService;
+    private final TransactionTemplate transactionTemplate;
+    private final SnapshotCache<String, AdminSnapshot> adminSnapshots;
+    private final SnapshotCache<Long, OrganizerSnapshot> organizerSnapshots;
+    private final SnapshotCache<Long, ClientSnapshot> clientSnapshots;
+
+    public DashboardSnapshotService(UserRepository userRepository, EventRepository eventRepository,
+                                    ReservationRepository reservationRepository,
+                                    ReservationStatsService reservationStatsService,
+                                    OrganizerAnalyticsService organizerAnalyticsService,
+                                    RevenueRollupService revenueRollupService,
+                                    ReservationStatusCounters statusCounters,
+                                    RecentActivityService recentActivityService,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${app.dashboard.snapshot-ttl:PT10S}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.eventRepository = eventRepository;
+        this.reservationRepository = reservationRepository;
+        this.reservationStatsService = reservationStatsService;
+        this.organizerAnalyticsService = organizerAnalyticsService;
+        this.revenueRollupService = revenueRollupService;
+        this.statusCounters = statusCounters;
+        this.recentActivityService = recentActivityService;
+        this.transactionTemplate = transactionTemplate;
+        this.adminSnapshots = new SnapshotCache<>(ttl);
+        this.organizerSnapshots = new SnapshotCache<>(ttl);
+        this.clientSnapshots = new SnapshotCache<>(ttl);
+    }
+
+    public AdminSnapshot admin() {
+        return adminSnapshots.get(ADMIN, () -> transactionTemplate.execute(status -> {
+            Map<Role, Long> usersByRole = new EnumMap<>(Role.class);
+            for (Object[] row : userRepository.countGroupedByRole()) {
+                usersByRole.put((Role) row[0], ((Number) row[1]).longValue());
+            }
+            List<Activity> activity = new ArrayList<>();
+            for (RecentUser user : recentActivityService.recentUsers(3)) {
+                activity.add(new Activity(Activity.Kind.USER, user.fullName()));
+            }
+            for (RecentEvent event : recentActivityService.recentEvents(2)) {
+                activity.add(new Activity(Activity.Kind.EVENT, event.titre() + " par " + event.organizer()));
+            }
+            return new AdminSnapshot(
+                    Map.copyOf(usersByRole),
+                    eventRepository.count(),
+                    eventRepository.countByStatut(EventStatus.PUBLIE),
+                    reservationStatsService.countAll(),
+                    reservationStatsService.count(ReservationStatus.EN_ATTENTE),
+                    reservationStatsService.revenue(),
+                    List.copyOf(activity));
+        }));
+    }
+
+    public OrganizerSnapshot organizer(User organizer) {
+        return organizerSnapshots.get(organizer.getId(), () -> {
+            YearMonth current = YearMonth.now();
+            return new OrganizerSnapshot(
+                    organizerAnalyticsService.stats(organizer),
+                    revenueRollupService.monthlyForOrganizer(organizer, current.minusMonths(REVENUE_MONTHS - 1), current),
+                    statusCounters.forOrganizer(organizer.getId()),
+                    recentActivityService.recentEvents(organizer, 5));
+        });
+    }
+
+    public ClientSnapshot client(User user) {
+        return clientSnapshots.get(user.getId(), () -> transactionTemplate.execute(status -> {
+            Map<ReservationStatus, Long> byStatus = new EnumMap<>(ReservationStatus.class);
+            for (Object[] row : reservationRepository.countByStatusForUser(user)) {
+                byStatus.put((ReservationStatus) row[0], ((Number) row[1]).longValue());
+            }
+            return new ClientSnapshot(Map.copyOf(byStatus), recentActivityService.recentReservations(user, 5));
+        }));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(ListenerOrder.SNAPSHOTS)
+    public void onReservationStatusChanged(ReservationStatusChangedEvent event) {
+        adminSnapshots.invalidateAll();
+        invalidateOrganizerOf(event.eventId());
+        clientSnapshots.invalidate(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(ListenerOrder.SNAPSHOTS)
+    public void onReservationsBulkCancelled(ReservationsBulkCancelledEvent event) {
+        adminSnapshots.invalidateAll();
+        invalidateOrganizerOf(event.eventId());
+        // Les clients touchés ne sont pas connus ici : une annulation en masse reste rare
+        clientSnapshots.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(ListenerOrder.SNAPSHOTS)
+    public void onEventChanged(EventChangedEvent event) {
+        adminSnapshots.invalidateAll();
+        organizerSnapshots.invalidate(event.organizerId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(ListenerOrder.SNAPSHOTS)
+    public void onUserChanged(UserChangedEvent event) {
+        adminSnapshots.invalidateAll();
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        organizerSnapshots.purgeExpired();
+        clientSnapshots.purgeExpired();
+    }
+
+    private void invalidateOrganizerOf(Long eventId) {
+        Long organizerId = statusCounters.organizerOf(eventId);
+        if (organizerId != null) {
+            organizerSnapshots.invalidate(organizerId);
+        } else {
+            organizerSnapshots.invalidateAll();
+        }
+    }
+
+    public record AdminSnapshot(Map<Role, Long> usersByRole, long totalEvents, long publishedEvents,
+                                long totalReservations, long pendingReservations, double revenue,
+                                List<Activity> recentActivity) {
+
+        public long totalUsers() {
+            return usersByRole.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long users(Role role) {
+            return usersByRole.getOrDefault(role, 0L);
+        }
+    }
+
+    public record Activity(Kind kind, String description) {
+
+        public enum Kind { USER, EVENT }
+    }
+
+    public record OrganizerSnapshot(OrganizerStats stats, List<MonthlyRevenue> revenueByMonth,
+                                    StatusDistribution distribution, List<RecentEvent> recentEvents) {
+    }
+
+    public record ClientSnapshot(Map<ReservationStatus, Long> reservationsByStatus, List<RecentReservation> recentReservations) {
+
+        public long total() {
+            return reservationsByStatus.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long count(ReservationStatus status) {
+            return reservationsByStatus.getOrDefault(status, 0L);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.events.EventCancelledEvent;
+import org.example.p1vaadin.events.ReservationsBulkCancelledEvent;
+import org.example.p1vaadin.repository.EventRepository;
+import org.example.p1vaadin.repository.NotificationRepository;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.example.p1vaadin.repository.WaitlistRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Annule en cascade les réservations d'un événement annulé.
+ * Le travail se fait en arrière-plan, par lots de {@code app.cancellation.chunk-size} réservations,
+ * chaque lot dans sa propre transaction : lecture des ids (keyset), mise à jour conditionnelle de chaque
+ * statut, insertion des notifications par INSERT ... SELECT. Aucune entité n'est chargée.
+ * Une annulation interrompue (arrêt du serveur) est reprise au démarrage.
+ */
+@Service
+public class EventCancellationService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventCancellationService.class);
+
+    private static final int MAX_PASSES = 3;
+
+    private final ReservationRepository reservationRepository;
+    private final EventRepository eventRepository;
+    private final WaitlistRepository waitlistRepository;
+    private final NotificationRepository notificationRepository;
+    private final SeatInventory seatInventory;
+    private final ReservedPlacesLedgerService ledgerService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor executor;
+    private final int chunkSize;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    public EventCancellationService(ReservationRepository reservationRepository, EventRepository eventRepository,
+                                    WaitlistRepository waitlistRepository, NotificationRepository notificationRepository,
+                                    SeatInventory seatInventory, ReservedPlacesLedgerService ledgerService,
+                                    TransactionTemplate transactionTemplate,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Qualifier("backgroundTaskExecutor") Executor executor,
+                                    @Value("${app.cancellation.chunk-size:1000}") int chunkSize) {
+        this.reservationRepository = reservationRepository;
+        this.eventRepository = eventRepository;
+        this.waitlistRepository = waitlistRepository;
+        this.notificationRepository = notificationRepository;
+        this.seatInventory = seatInventory;
+        this.ledgerService = ledgerService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    @TransactionalEventListener
+    public void onEventCancelled(EventCancelledEvent event) {
+        requestCancellation(event.eventId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        List<Long> pending = transactionTemplate.execute(status -> reservationRepository.findCancelledEventsWithActiveReservations());
+        if (pending != null && !pending.isEmpty()) {
+            log.info("Reprise de l'annulation des réservations de {} événements annulés", pending.size());
+            pending.forEach(this::requestCancellation);
+        }
+    }
+
+    /**
+     * Programme l'annulation en arrière-plan ; sans effet si elle est déjà en cours pour cet événement.
+     */
+    public void requestCancellation(Long eventId) {
+        if (running.add(eventId)) {
+            executor.execute(() -> {
+                try {
+                    cancelReservations(eventId);
+                } catch (Exception ex) {
+                    log.warn("Échec de l'annulation des réservations de l'événement {} : {}", eventId, ex.getMessage());
+                } finally {
+                    running.remove(eventId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Annule toutes les réservations actives de l'événement, lot par lot, et retourne leur nombre.
+     */
+    public int cancelReservations(Long eventId) {
+        String titre = transactionTemplate.execute(status ->
+                eventRepository.findById(eventId).map(Event::getTitre).orElse(null));
+        if (titre == null) {
+            return 0;
+        }
+
+        int cancelled = 0;
+        int skipped;
+        int passes = 0;
+        do {
+            // Une réservation modifiée entre la lecture et la mise à jour de son lot est reprise au passage suivant
+            skipped = 0;
+            long afterId = 0;
+            while (true) {
+                long from = afterId;
+                Chunk chunk = transactionTemplate.execute(status -> cancelChunk(eventId, titre, from));
+                if (chunk == null || chunk.lastId() == null) {
+                    break;
+                }
+                cancelled += chunk.cancelled();
+                skipped += chunk.selected() - chunk.cancelled();
+                afterId = chunk.lastId();
+            }
+        } while (skipped > 0 && ++passes < MAX_PASSES);
+
+        transactionTemplate.executeWithoutResult(status -> waitlistRepository.cancelWaiting(eventId));
+        // Filet de sécurité : le registre est relu et corrigé sous le verrou de l'événement
+        ReservedPlacesLedgerService.LedgerDrift drift = ledgerService.align(eventId);
+        if (drift != null) {
+            log.warn("Registre corrigé après annulation de l'événement {} : {} -> {}", eventId, drift.ledger(), drift.actual());
+        }
+        seatInventory.evict(eventId);
+
+        log.info("{} réservations annulées suite à l'annulation de l'événement {}", cancelled, eventId);
+        return cancelled;
+    }
+
+    private Chunk cancelChunk(Long eventId, String titre, long afterId) {
+        List<Object[]> rows = reservationRepository.findActiveAfter(eventId, afterId, PageRequest.of(0, chunkSize));
+        if (rows.isEmpty()) {
+            return new Chunk(null, 0, 0);
+        }
+
+        // Une ligne à la fois, le statut lu faisant partie du filtre : une réservation modifiée entre la lecture
+        // et la mise à jour n'est pas touchée, et seules les lignes réellement annulées ici sont comptées,
+        // notifiées et retirées du registre
+        List<Long> cancelledIds = new ArrayList<>();
+        int pending = 0;
+        int confirmed = 0;
+        int pendingPlaces = 0;
+        int confirmedPlaces = 0;
+        double pendingAmount = 0;
+        double confirmedAmount = 0;
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            ReservationStatus status = (ReservationStatus) row[1];
+            if (reservationRepository.updateStatusIfCurrent(id, status, ReservationStatus.ANNULEE) == 0) {
+                continue;
+            }
+            cancelledIds.add(id);
+            int rowPlaces = ((Number) row[2]).intValue();
+            double amount = ((Number) row[3]).doubleValue();
+            if (status == ReservationStatus.EN_ATTENTE) {
+                pending++;
+                pendingPlaces += rowPlaces;
+                pendingAmount += amount;
+            } else {
+                confirmed++;
+                confirmedPlaces += rowPlaces;
+                confirmedAmount += amount;
+            }
+        }
+
+        if (!cancelledIds.isEmpty()) {
+            notificationRepository.enqueueEventCancelled(cancelledIds, titre);
+            eventRepository.decrementReservedPlaces(eventId, pendingPlaces + confirmedPlaces);
+            eventPublisher.publishEvent(new ReservationsBulkCancelledEvent(eventId, pending, confirmed,
+                    pendingPlaces, confirmedPlaces, pendingAmount, confirmedAmount));
+        }
+        return new Chunk((Long) rows.get(rows.size() - 1)[0], rows.size(), cancelledIds.size());
+    }
+
+    private record Chunk(Long lastId, int selected, int cancelled) {
+    }
+}
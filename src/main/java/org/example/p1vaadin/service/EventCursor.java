@@ -0,0 +1,15 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.enums.EventSortOrder;
+
+/**
+ * Position dans une liste triée d'événements : clé de tri et identifiant du dernier événement lu.
+ * La page suivante commence juste après, quelle que soit sa profondeur.
+ */
+public record EventCursor(Comparable<?> key, Long id) {
+
+    public static EventCursor after(Event event, EventSortOrder order) {
+        return new EventCursor(order.keyOf(event), event.getId());
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Event;
+
+import java.util.List;
+
+/**
+ * Une page de résultats et le curseur de la suivante, nul s'il n'y en a plus.
+ */
+public record EventPage(List<Event> events, EventCursor next) {
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
@@ -0,0 +1,585 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.enums.EventCategory;
+import org.example.p1vaadin.domain.enums.EventStatus;
+import org.example.p1vaadin.domain.enums.PriceBand;
+import org.example.p1vaadin.events.EventChangedEvent;
+import org.example.p1vaadin.repository.EventRepository;
+import org.example.p1vaadin.util.CompactBitmap;
+import org.example.p1vaadin.util.TextNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index de recherche des événements, en mémoire. Chaque événement reçoit un numéro de document ;
+ * les mots (sans accents, en minuscules) du titre, de la description, de la ville et du lieu pointent
+ * vers l'ensemble des documents qui les contiennent, et le prix et la date de fin sont rangés dans des
+ * colonnes triées pour les filtres par intervalle. Une recherche est une suite d'intersections d'ensembles
+ * de bits, sans lecture en base. Les mêmes ensembles, par catégorie, ville et tranche de prix, donnent
+ * les facettes d'une recherche par simple comptage d'intersections. L'index est construit au démarrage
+ * puis tenu à jour après chaque création, modification, publication, annulation ou suppression validée
+ * d'un événement.
+ */
+@Service
+public class EventSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSearchIndex.class);
+
+    /**
+     * Champs textuels indexés.
+     */
+    public enum Field { TITLE, DESCRIPTION, CITY, VENUE }
+
+    private static final Set<Field> KEYWORD_FIELDS = EnumSet.allOf(Field.class);
+    private static final Set<Field> CITY_FIELDS = EnumSet.of(Field.CITY);
+
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Field, TreeMap<String, CompactBitmap>> postings = new EnumMap<>(Field.class);
+    private final Map<EventCategory, BitSet> byCategory = new EnumMap<>(EventCategory.class);
+    private final Map<EventStatus, BitSet> byStatus = new EnumMap<>(EventStatus.class);
+    private final Map<PriceBand, BitSet> byPriceBand = new EnumMap<>(PriceBand.class);
+    private final Map<String, City> byCity = new HashMap<>();
+    private final Map<Long, Integer> docByEvent = new HashMap<>();
+    private final ArrayDeque<Integer> freeDocs = new ArrayDeque<>();
+    private final RangeColumn prices = new RangeColumn();
+    private final RangeColumn ends = new RangeColumn();
+    private Doc[] docs = new Doc[1024];
+    private int nextDoc;
+
+    public EventSearchIndex(EventRepository eventRepository, TransactionTemplate transactionTemplate) {
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = transactionTemplate;
+        for (Field field : Field.values()) {
+            postings.put(field, new TreeMap<>());
+        }
+        for (EventCategory category : EventCategory.values()) {
+            byCategory.put(category, new BitSet());
+        }
+        for (EventStatus status : EventStatus.values()) {
+            byStatus.put(status, new BitSet());
+        }
+        for (PriceBand band : PriceBand.values()) {
+            byPriceBand.put(band, new BitSet());
+        }
+    }
+
+    /**
+     * Identifiants des événements disponibles (publiés et non terminés) qui satisfont la requête,
+     * par date de début croissante.
+     */
+    public List<Long> search(Query query) {
+        lock.readLock().lock();
+        try {
+            return eventIds(match(query, LocalDateTime.now()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Comme {@link #search(Query)}, avec en plus le nombre de résultats qu'aurait chaque valeur de catégorie,
+     * de ville et de tranche de prix. Le décompte d'une facette ignore son propre critère et applique
+     * tous les autres : il indique ce que donnerait le choix d'une autre valeur.
+     */
+    public Result searchWithFacets(Query query) {
+        return evaluate(query, true);
+    }
+
+    /**
+     * Décomptes des facettes seuls, pour accompagner des résultats paginés lus ailleurs.
+     */
+    public Facets facets(Query query) {
+        return evaluate(query, false).facets();
+    }
+
+    private Result evaluate(Query query, boolean withResults) {
+        lock.readLock().lock();
+        try {
+            BitSet available = (BitSet) byStatus.get(EventStatus.PUBLIE).clone();
+            matchText(available, query.keyword(), KEYWORD_FIELDS);
+            ends.removeAtMost(available, toMillis(LocalDateTime.now()));
+
+            BitSet category = query.category() != null ? byCategory.get(query.category()) : null;
+            BitSet city = null;
+            if (!TextNormalizer.tokens(query.city()).isEmpty()) {
+                city = (BitSet) available.clone();
+                matchText(city, query.city(), CITY_FIELDS);
+            }
+            BitSet price = null;
+            if (query.minPrice() != null || query.maxPrice() != null) {
+                price = (BitSet) available.clone();
+                matchPrice(price, query.minPrice(), query.maxPrice());
+            }
+
+            Facets facets = new Facets(
+                    countCategories(intersect(available, city, price)),
+                    countCities(intersect(available, category, price)),
+                    countPriceBands(intersect(available, category, city)));
+            return new Result(withResults ? eventIds(intersect(available, category, city, price)) : List.of(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByEvent.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent event) {
+        if (event.change() == EventChangedEvent.Change.DELETED) {
+            remove(event.eventId());
+            return;
+        }
+        transactionTemplate.execute(status -> eventRepository.findById(event.eventId()))
+                .ifPresentOrElse(this::put, () -> remove(event.eventId()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Event> events = transactionTemplate.execute(status -> eventRepository.findAll());
+        lock.writeLock().lock();
+        try {
+            // Colonnes remplies dans le désordre puis triées une fois, plutôt qu'une insertion triée par événement
+            for (Event event : events) {
+                if (!docByEvent.containsKey(event.getId())) {
+                    int doc = allocate();
+                    docByEvent.put(event.getId(), doc);
+                    index(doc, Doc.of(event), false);
+                }
+            }
+            prices.sort();
+            ends.sort();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Index de recherche initialisé ({} événements)", size());
+    }
+
+    /**
+     * Indexe l'événement, ou remplace son entrée s'il l'est déjà.
+     */
+    public void put(Event event) {
+        Doc fresh = Doc.of(event);
+        lock.writeLock().lock();
+        try {
+            Integer existing = docByEvent.get(event.getId());
+            int doc;
+            if (existing != null) {
+                doc = existing;
+                unindex(doc);
+            } else {
+                doc = allocate();
+                docByEvent.put(event.getId(), doc);
+            }
+            index(doc, fresh, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long eventId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByEvent.remove(eventId);
+            if (doc != null) {
+                unindex(doc);
+                docs[doc] = null;
+                freeDocs.push(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Appelé sous le verrou de lecture
+    private BitSet match(Query query, LocalDateTime now) {
+        BitSet result = (BitSet) byStatus.get(EventStatus.PUBLIE).clone();
+        if (query.category() != null) {
+            result.and(byCategory.get(query.category()));
+        }
+        matchText(result, query.city(), CITY_FIELDS);
+        matchText(result, query.keyword(), KEYWORD_FIELDS);
+        ends.removeAtMost(result, toMillis(now));
+        if (query.minPrice() != null || query.maxPrice() != null) {
+            matchPrice(result, query.minPrice(), query.maxPrice());
+        }
+        return result;
+    }
+
+    private void matchPrice(BitSet result, Double minPrice, Double maxPrice) {
+        long min = minPrice != null ? toCents(minPrice) : Long.MIN_VALUE;
+        long max = maxPrice != null ? toCents(maxPrice) : Long.MAX_VALUE;
+        // Le moins coûteux : vérifier le prix des candidats restants, ou intersecter avec l'intervalle trié
+        if (result.cardinality() < prices.count(min, max)) {
+            for (int doc = result.nextSetBit(0); doc >= 0; doc = result.nextSetBit(doc + 1)) {
+                if (docs[doc].priceCents < min || docs[doc].priceCents > max) {
+                    result.clear(doc);
+                }
+            }
+        } else {
+            result.and(prices.range(min, max));
+        }
+    }
+
+    // Appelé sous le verrou de lecture ; les documents retenus par date de début croissante
+    private List<Long> eventIds(BitSet matches) {
+        List<Doc> found = new ArrayList<>(matches.cardinality());
+        for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+            found.add(docs[doc]);
+        }
+        found.sort(Comparator.comparingLong(Doc::startMillis).thenComparingLong(Doc::eventId));
+        List<Long> ids = new ArrayList<>(found.size());
+        found.forEach(d -> ids.add(d.eventId()));
+        return ids;
+    }
+
+    /**
+     * Intersection de {@code base} et des filtres non nuls, dans un nouvel ensemble.
+     */
+    private static BitSet intersect(BitSet base, BitSet... filters) {
+        BitSet result = (BitSet) base.clone();
+        for (BitSet filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private Map<EventCategory, Integer> countCategories(BitSet base) {
+        long[] words = base.toLongArray();
+        Map<EventCategory, Integer> counts = new EnumMap<>(EventCategory.class);
+        byCategory.forEach((category, docsInCategory) -> counts.put(category,
+                words.length == 0 ? 0 : CompactBitmap.andCardinality(docsInCategory.toLongArray(), words)));
+        return counts;
+    }
+
+    private Map<PriceBand, Integer> countPriceBands(BitSet base) {
+        long[] words = base.toLongArray();
+        Map<PriceBand, Integer> counts = new EnumMap<>(PriceBand.class);
+        byPriceBand.forEach((band, docsInBand) -> counts.put(band,
+                words.length == 0 ? 0 : CompactBitmap.andCardinality(docsInBand.toLongArray(), words)));
+        return counts;
+    }
+
+    /**
+     * Villes ayant au moins un résultat, de la plus fournie à la moins fournie.
+     */
+    private Map<String, Integer> countCities(BitSet base) {
+        Map<City, Integer> counts = new HashMap<>();
+        int candidates = base.cardinality();
+        // Le moins coûteux : lire la ville de chaque candidat, ou intersecter l'ensemble de chaque ville
+        if (candidates < byCity.size()) {
+            for (int doc = base.nextSetBit(0); doc >= 0; doc = base.nextSetBit(doc + 1)) {
+                City city = byCity.get(docs[doc].cityKey);
+                if (city != null) {
+                    counts.merge(city, 1, Integer::sum);
+                }
+            }
+        } else if (candidates > 0) {
+            long[] words = base.toLongArray();
+            for (City city : byCity.values()) {
+                int count = city.docs.andCardinality(words);
+                if (count > 0) {
+                    counts.put(city, count);
+                }
+            }
+        }
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<City, Integer>comparingByValue().reversed()
+                        .thenComparing(e -> e.getKey().name))
+                .forEach(e -> sorted.put(e.getKey().name, e.getValue()));
+        return sorted;
+    }
+
+    /**
+     * Restreint {@code result} aux documents dont l'un des champs contient, pour chaque mot de {@code text},
+     * un mot qui commence par lui (« mars » trouve « marseille »).
+     */
+    private void matchText(BitSet result, String text, Set<Field> fields) {
+        for (String token : TextNormalizer.tokens(text)) {
+            if (result.isEmpty()) {
+                return;
+            }
+            BitSet any = new BitSet();
+            for (Field field : fields) {
+                for (CompactBitmap docsWithWord : postings.get(field).subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                    docsWithWord.orInto(any);
+                }
+            }
+            result.and(any);
+        }
+    }
+
+    // Appelé sous le verrou d'écriture
+    private void index(int doc, Doc entry, boolean sorted) {
+        docs[doc] = entry;
+        entry.tokens.forEach((field, tokens) -> {
+            for (String token : tokens) {
+                postings.get(field).computeIfAbsent(token, t -> new CompactBitmap()).add(doc);
+            }
+        });
+        byCategory.get(entry.category).set(doc);
+        byStatus.get(entry.status).set(doc);
+        byPriceBand.get(PriceBand.ofCents(entry.priceCents)).set(doc);
+        if (!entry.cityKey.isEmpty()) {
+            byCity.computeIfAbsent(entry.cityKey, key -> new City(entry.cityName)).docs.add(doc);
+        }
+        if (sorted) {
+            prices.add(entry.priceCents, doc);
+            ends.add(entry.endMillis, doc);
+        } else {
+            prices.append(entry.priceCents, doc);
+            ends.append(entry.endMillis, doc);
+        }
+    }
+
+    // Appelé sous le verrou d'écriture
+    private void unindex(int doc) {
+        Doc old = docs[doc];
+        old.tokens.forEach((field, tokens) -> {
+            TreeMap<String, CompactBitmap> words = postings.get(field);
+            for (String token : tokens) {
+                CompactBitmap docsWithWord = words.get(token);
+                docsWithWord.remove(doc);
+                if (docsWithWord.isEmpty()) {
+                    words.remove(token);
+                }
+            }
+        });
+        byCategory.get(old.category).clear(doc);
+        byStatus.get(old.status).clear(doc);
+        byPriceBand.get(PriceBand.ofCents(old.priceCents)).clear(doc);
+        City city = byCity.get(old.cityKey);
+        if (city != null) {
+            city.docs.remove(doc);
+            if (city.docs.isEmpty()) {
+                byCity.remove(old.cityKey);
+            }
+        }
+        prices.remove(old.priceCents, doc);
+        ends.remove(old.endMillis, doc);
+    }
+
+    private int allocate() {
+        if (!freeDocs.isEmpty()) {
+            return freeDocs.pop();
+        }
+        if (nextDoc == docs.length) {
+            docs = Arrays.copyOf(docs, docs.length * 2);
+        }
+        return nextDoc++;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    /**
+     * Critères de recherche ; un critère nul ou vide n'est pas appliqué.
+     */
+    public record Query(EventCategory category, String city, String keyword, Double minPrice, Double maxPrice) {
+    }
+
+    /**
+     * Nombre de résultats par valeur de facette ; toutes les catégories et tranches figurent, même à zéro,
+     * et seules les villes ayant des résultats, de la plus fournie à la moins fournie.
+     */
+    public record Facets(Map<EventCategory, Integer> categories, Map<String, Integer> cities,
+                         Map<PriceBand, Integer> priceBands) {
+    }
+
+    public record Result(List<Long> eventIds, Facets facets) {
+    }
+
+    /**
+     * Documents d'une ville, sous la première graphie rencontrée.
+     */
+    private static final class City {
+        private final String name;
+        private final CompactBitmap docs = new CompactBitmap();
+
+        private City(String name) {
+            this.name = name;
+        }
+    }
+
+    private record Doc(long eventId, EventCategory category, EventStatus status, long priceCents,
+                       long startMillis, long endMillis, String cityKey, String cityName,
+                       Map<Field, List<String>> tokens) {
+
+        static Doc of(Event event) {
+            Map<Field, List<String>> tokens = new EnumMap<>(Field.class);
+            tokens.put(Field.TITLE, TextNormalizer.tokens(event.getTitre()));
+            tokens.put(Field.DESCRIPTION, TextNormalizer.tokens(event.getDescription()));
+            tokens.put(Field.CITY, TextNormalizer.tokens(event.getVille()));
+            tokens.put(Field.VENUE, TextNormalizer.tokens(event.getLieu()));
+            return new Doc(event.getId(), event.getCategorie(), event.getStatut(), toCents(event.getPrixUnitaire()),
+                    toMillis(event.getDateDebut()), toMillis(event.getDateFin()),
+                    String.join(" ", tokens.get(Field.CITY)), event.getVille() == null ? "" : event.getVille().strip(),
+                    tokens);
+        }
+    }
+
+    /**
+     * Colonne de valeurs triées (valeur, document) : ajout et retrait par recherche dichotomique et décalage,
+     * lecture d'un intervalle en O(log n + nombre de documents retenus). Les documents de valeur inférieure
+     * à un seuil qui ne fait que croître (l'instant courant) sont gardés en cache et complétés à chaque appel.
+     */
+    static final class RangeColumn {
+        private long[] keys = new long[1024];
+        private int[] docs = new int[1024];
+        private int size;
+        private final BitSet prefix = new BitSet();
+        private int prefixLength;
+        private long prefixBound = Long.MIN_VALUE;
+
+        void add(long key, int doc) {
+            grow();
+            int pos = position(key, doc);
+            System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+            System.arraycopy(docs, pos, docs, pos + 1, size - pos);
+            keys[pos] = key;
+            docs[pos] = doc;
+            size++;
+            invalidatePrefix();
+        }
+
+        /**
+         * Ajoute en fin de colonne sans trier ; {@link #sort()} doit suivre avant toute lecture.
+         */
+        void append(long key, int doc) {
+            grow();
+            keys[size] = key;
+            docs[size] = doc;
+            size++;
+        }
+
+        void sort() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            long[] k = keys;
+            int[] d = docs;
+            Arrays.sort(order, Comparator.<Integer>comparingLong(i -> k[i]).thenComparingInt(i -> d[i]));
+            long[] sortedKeys = new long[keys.length];
+            int[] sortedDocs = new int[docs.length];
+            for (int i = 0; i < size; i++) {
+                sortedKeys[i] = k[order[i]];
+                sortedDocs[i] = d[order[i]];
+            }
+            keys = sortedKeys;
+            docs = sortedDocs;
+            invalidatePrefix();
+        }
+
+        void remove(long key, int doc) {
+            int pos = position(key, doc);
+            if (pos < size && keys[pos] == key && docs[pos] == doc) {
+                System.arraycopy(keys, pos + 1, keys, pos, size - pos - 1);
+                System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+                size--;
+                invalidatePrefix();
+            }
+        }
+
+        /**
+         * Nombre de documents dont la valeur est comprise entre {@code from} et {@code to} inclus.
+         */
+        int count(long from, long to) {
+            return Math.max(0, position(to, Integer.MAX_VALUE) - position(from, Integer.MIN_VALUE));
+        }
+
+        /**
+         * Retire de {@code target} les documents de valeur inférieure ou égale à {@code bound}.
+         * Appelé par plusieurs lecteurs à la fois : le cache est protégé par le moniteur de la colonne.
+         */
+        synchronized void removeAtMost(BitSet target, long bound) {
+            if (bound < prefixBound) {
+                invalidatePrefix();
+            }
+            while (prefixLength < size && keys[prefixLength] <= bound) {
+                prefix.set(docs[prefixLength++]);
+            }
+            prefixBound = bound;
+            target.andNot(prefix);
+        }
+
+        /**
+         * Documents dont la valeur est comprise entre {@code from} et {@code to} inclus.
+         */
+        BitSet range(long from, long to) {
+            BitSet result = new BitSet();
+            for (int i = position(from, Integer.MIN_VALUE); i < size && keys[i] <= to; i++) {
+                result.set(docs[i]);
+            }
+            return result;
+        }
+
+        private void grow() {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+        }
+
+        // Appelé sous le verrou d'écriture de l'index, sans lecteur concurrent
+        private void invalidatePrefix() {
+            prefix.clear();
+            prefixLength = 0;
+            prefixBound = Long.MIN_VALUE;
+        }
+
+        // Premier rang dont le couple (valeur, document) est supérieur ou égal à celui donné
+        private int position(long key, int doc) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < key || (keys[mid] == key && docs[mid] < doc)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Event;
+
+import java.util.List;
+
+/**
+ * Résultats d'une recherche d'événements et décomptes des facettes qui les accompagnent.
+ */
+public record EventSearchResult(List<Event> events, EventSearchIndex.Facets facets) {
+}
@@ -1,14 +1,24 @@
 package org.example.p1vaadin.service;
 
 import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.SeatSection;
 import org.example.p1vaadin.domain.User;
 import org.example.p1vaadin.domain.enums.EventCategory;
+import org.example.p1vaadin.domain.enums.EventSortOrder;
 import org.example.p1vaadin.domain.enums.EventStatus;
 import org. example.p1vaadin.domain.enums.Role;
+import org.example.p1vaadin.events.EventCancelledEvent;
+import org.example.p1vaadin.events.EventChangedEvent;
+import org.example.p1vaadin.events.EventChangedEvent.Change;
 import org.example.p1vaadin.exception.*;
 import org.example.p1vaadin.repository.EventRepository;
-import org.example.p1vaadin.repository.ReservationRepository;
+import org.example.p1vaadin.repository.EventSpecifications;
+import org.example.p1vaadin.util.OptimisticRetry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.domain.Specification;
 import org. springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation. Transactional;
 
 import java. time.LocalDateTime;
@@ -19,12 +29,31 @@ import java.util.stream. Collectors;
 @Transactional
 public class EventService {
 
-    private final EventRepository eventRepository;
-    private final ReservationRepository reservationRepository;
+    private static final int MAX_PAGE_SIZE = 100;
 
-    public EventService(EventRepository eventRepository, ReservationRepository reservationRepository) {
+    private final EventRepository eventRepository;
+    private final SeatInventory seatInventory;
+    private final SeatMapService seatMapService;
+    private final OptimisticRetry optimisticRetry;
+    private final OrganizerAnalyticsService organizerAnalyticsService;
+    private final RevenueCubeService revenueCubeService;
+    private final PopularityService popularityService;
+    private final EventSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EventService(EventRepository eventRepository, SeatInventory seatInventory, SeatMapService seatMapService,
+                        OptimisticRetry optimisticRetry, OrganizerAnalyticsService organizerAnalyticsService,
+                        RevenueCubeService revenueCubeService, PopularityService popularityService,
+                        EventSearchIndex searchIndex, ApplicationEventPublisher eventPublisher) {
         this.eventRepository = eventRepository;
-        this. reservationRepository = reservationRepository;
+        this.seatInventory = seatInventory;
+        this.seatMapService = seatMapService;
+        this.optimisticRetry = optimisticRetry;
+        this.organizerAnalyticsService = organizerAnalyticsService;
+        this.revenueCubeService = revenueCubeService;
+        this.popularityService = popularityService;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     public Event create(Event event, User currentUser) {
@@ -38,7 +67,9 @@ public class EventService {
         event.setStatut(EventStatus. BROUILLON);
         event.setDateCreation(LocalDateTime.now());
         event.setDateModification(LocalDateTime.now());
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        eventPublisher.publishEvent(new EventChangedEvent(saved.getId(), currentUser.getId(), Change.CREATED));
+        return saved;
     }
 
     public Event update(Long id, Event payload, User currentUser) {
@@ -53,6 +84,11 @@ public class EventService {
             throw new ForbiddenException("Vous n'avez pas le droit de modifier cet événement");
         }
 
+        // Le formulaire a été rempli à partir d'une version précédente : pas de nouvel essai automatique
+        if (payload.getVersion() != null && !payload.getVersion().equals(event.getVersion())) {
+            throw new ConflictException("Cet événement a été modifié entre-temps, rechargez-le avant de l'enregistrer");
+        }
+
         event.setTitre(payload. getTitre());
         event.setDescription(payload.getDescription());
         event.setCategorie(payload.getCategorie());
@@ -60,57 +96,127 @@ public class EventService {
         event.setDateFin(payload.getDateFin());
         event.setLieu(payload.getLieu());
         event.setVille(payload.getVille());
-        event.setCapaciteMax(payload.getCapaciteMax());
+        Integer capacity = payload.getCapaciteMax();
+        if (capacity != null && !capacity.equals(event.getCapaciteMax())) {
+            if (eventRepository.updateCapacity(id, capacity) == 0) {
+                throw new BadRequestException("La capacité ne peut pas être inférieure aux "
+                        + eventRepository.findReservedPlaces(id) + " places déjà réservées");
+            }
+            event.setCapaciteMax(capacity);
+        }
         event.setPrixUnitaire(payload.getPrixUnitaire());
         event.setImageUrl(payload.getImageUrl());
         event.setDateModification(LocalDateTime.now());
 
-        return eventRepository.save(event);
+        try {
+            Event saved = eventRepository.saveAndFlush(event);
+            revenueCubeService.relocate(saved);
+            eventPublisher.publishEvent(new EventChangedEvent(saved.getId(), saved.getOrganisateur().getId(), Change.UPDATED));
+            return saved;
+        } catch (OptimisticLockingFailureException ex) {
+            throw new ConflictException("Cet événement a été modifié entre-temps, rechargez-le avant de l'enregistrer");
+        }
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Event publish(Long id, User currentUser) {
-        Event event = eventRepository.findByIdWithOrganisateur(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Événement non trouvé"));
-
-        if (!isOwnerOrAdmin(event, currentUser)) {
-            throw new ForbiddenException("Vous n'avez pas le droit de publier cet événement");
-        }
-
-        if (event.getStatut() != EventStatus.BROUILLON) {
-            throw new BadRequestException("Seul un événement en brouillon peut être publié");
-        }
-
-        event.setStatut(EventStatus.PUBLIE);
-        event.setDateModification(LocalDateTime.now());
-        return eventRepository.save(event);
+        return optimisticRetry.execute("event.publish", () -> {
+            Event event = eventRepository.findByIdWithOrganisateur(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Événement non trouvé"));
+
+            if (!isOwnerOrAdmin(event, currentUser)) {
+                throw new ForbiddenException("Vous n'avez pas le droit de publier cet événement");
+            }
+
+            if (event.getStatut() != EventStatus.BROUILLON) {
+                throw new BadRequestException("Seul un événement en brouillon peut être publié");
+            }
+
+            event.setStatut(EventStatus.PUBLIE);
+            event.setDateModification(LocalDateTime.now());
+            Event saved = eventRepository.save(event);
+            eventPublisher.publishEvent(new EventChangedEvent(saved.getId(), saved.getOrganisateur().getId(), Change.UPDATED));
+            return saved;
+        });
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Event cancel(Long id, User currentUser) {
+        return optimisticRetry.execute("event.cancel", () -> {
+            Event event = eventRepository.findByIdWithOrganisateur(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Événement non trouvé"));
+
+            if (!isOwnerOrAdmin(event, currentUser)) {
+                throw new ForbiddenException("Vous n'avez pas le droit d'annuler cet événement");
+            }
+
+            if (event.getStatut() == EventStatus.ANNULE) {
+                return event;
+            }
+
+            event.setStatut(EventStatus. ANNULE);
+            event.setDateModification(LocalDateTime.now());
+            Event saved = eventRepository.save(event);
+            // Les réservations sont annulées par lots après validation (EventCancellationService)
+            eventPublisher.publishEvent(new EventCancelledEvent(saved.getId(), saved.getTitre()));
+            eventPublisher.publishEvent(new EventChangedEvent(saved.getId(), saved.getOrganisateur().getId(), Change.UPDATED));
+            return saved;
+        });
+    }
+
+    public void delete(Long id, User currentUser) {
         Event event = eventRepository.findByIdWithOrganisateur(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Événement non trouvé"));
 
         if (!isOwnerOrAdmin(event, currentUser)) {
-            throw new ForbiddenException("Vous n'avez pas le droit d'annuler cet événement");
+            throw new ForbiddenException("Vous n'avez pas le droit de supprimer cet événement");
         }
 
-        event.setStatut(EventStatus. ANNULE);
-        event.setDateModification(LocalDateTime.now());
-        return eventRepository.save(event);
+        if (! event.getReservations().isEmpty()) {
+            throw new BadRequestException("Impossible de supprimer un événement avec des réservations");
+        }
+
+        seatMapService.removeSections(id);
+        eventRepository. delete(event);
+        seatInventory.evict(id);
+        eventPublisher.publishEvent(new EventChangedEvent(id, event.getOrganisateur().getId(), Change.DELETED));
     }
 
-    public void delete(Long id, User currentUser) {
+    /**
+     * Remplace le plan de salle de l'événement, sections dans l'ordre donné ; une liste vide le ramène
+     * au placement libre. Réservé à son organisateur ou à un administrateur, avant les premières réservations.
+     */
+    public void defineSeatSections(Long id, List<SeatSection> sections, User currentUser) {
         Event event = eventRepository.findByIdWithOrganisateur(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Événement non trouvé"));
 
         if (!isOwnerOrAdmin(event, currentUser)) {
-            throw new ForbiddenException("Vous n'avez pas le droit de supprimer cet événement");
+            throw new ForbiddenException("Vous n'avez pas le droit de modifier cet événement");
+        }
+        if (event.getStatut() == EventStatus.ANNULE || event.getStatut() == EventStatus.TERMINE) {
+            throw new BadRequestException("Le plan de salle d'un événement annulé ou terminé ne peut pas être modifié");
         }
 
-        if (! event.getReservations().isEmpty()) {
-            throw new BadRequestException("Impossible de supprimer un événement avec des réservations");
+        List<SeatSection> copies = new ArrayList<>();
+        for (SeatSection section : sections) {
+            if (section.getNom() == null || section.getNom().isBlank()) {
+                throw new BadRequestException("Chaque section doit avoir un nom");
+            }
+            if (section.getRangees() == null || section.getRangees() < 1
+                    || section.getSiegesParRangee() == null || section.getSiegesParRangee() < 1) {
+                throw new BadRequestException("La section " + section.getNom() + " doit avoir au moins une rangée d'un siège");
+            }
+            copies.add(SeatSection.builder().nom(section.getNom().strip()).ordre(copies.size() + 1)
+                    .rangees(section.getRangees()).siegesParRangee(section.getSiegesParRangee()).build());
         }
 
-        eventRepository. delete(event);
+        seatMapService.defineSections(event, copies);
+        eventPublisher.publishEvent(new EventChangedEvent(id, event.getOrganisateur().getId(), Change.UPDATED));
+    }
+
+    @Transactional(readOnly = true)
+    public List<SeatSection> findSeatSections(Long id) {
+        return seatMapService.findSections(id);
     }
 
     @Transactional(readOnly = true)
@@ -136,72 +242,108 @@ public class EventService {
 
     @Transactional(readOnly = true)
     public List<Event> findPopularEvents(int limit) {
-        return eventRepository.findPopularEventsWithOrganisateur().stream()
-                .limit(limit)
-                .collect(Collectors. toList());
+        return findInOrder(popularityService.popular(limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Event> findTrendingEvents(int limit) {
+        return findInOrder(popularityService.trending(limit));
+    }
+
+    // Charge les événements en une requête, dans l'ordre des identifiants donnés
+    private List<Event> findInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Event> byId = eventRepository.findAllWithOrganisateurByIdIn(ids).stream()
+                .collect(Collectors.toMap(Event::getId, e -> e));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
     }
 
+    /**
+     * Événements disponibles répondant aux critères, par date de début, lus dans l'index de recherche.
+     */
     @Transactional(readOnly = true)
     public List<Event> search(EventCategory category, String ville, String keyword, Double minPrice, Double maxPrice) {
-        return eventRepository.findAvailableEventsWithOrganisateur().stream()
-                .filter(e -> category == null || e.getCategorie() == category)
-                .filter(e -> ville == null || ville.isBlank() || e.getVille().toLowerCase().contains(ville.toLowerCase()))
-                .filter(e -> keyword == null || keyword.isBlank() || e.getTitre().toLowerCase().contains(keyword.toLowerCase()))
-                .filter(e -> minPrice == null || e.getPrixUnitaire() >= minPrice)
-                .filter(e -> maxPrice == null || e.getPrixUnitaire() <= maxPrice)
-                .collect(Collectors.toList());
+        return findInOrder(searchIndex.search(new EventSearchIndex.Query(category, ville, keyword, minPrice, maxPrice)));
+    }
+
+    /**
+     * Comme {@link #search}, avec les décomptes des facettes calculés sur les mêmes critères.
+     */
+    @Transactional(readOnly = true)
+    public EventSearchResult searchWithFacets(EventCategory category, String ville, String keyword,
+                                              Double minPrice, Double maxPrice) {
+        EventSearchIndex.Result result = searchIndex.searchWithFacets(
+                new EventSearchIndex.Query(category, ville, keyword, minPrice, maxPrice));
+        return new EventSearchResult(findInOrder(result.eventIds()), result.facets());
+    }
+
+    /**
+     * Page de résultats filtrée et triée en base, reprise après {@code after} (nul pour la première page) ;
+     * les colonnes normalisées donnent la même correspondance que l'index dont viennent {@link #searchFacets}.
+     */
+    @Transactional(readOnly = true)
+    public EventPage searchPage(EventSearchIndex.Query query, EventSortOrder order, EventCursor after, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("La taille de page doit être entre 1 et " + MAX_PAGE_SIZE);
+        }
+        Specification<Event> spec = EventSpecifications.matching(query.category(), query.city(), query.keyword(),
+                query.minPrice(), query.maxPrice(), LocalDateTime.now());
+        if (after != null) {
+            spec = spec.and(EventSpecifications.after(order, after.key(), after.id()));
+        }
+        // Une ligne de plus que demandé indique s'il reste une page, sans requête de comptage
+        List<Event> rows = eventRepository.findBy(spec,
+                q -> q.sortBy(EventSpecifications.sort(order)).limit(size + 1).all());
+        if (rows.size() <= size) {
+            return new EventPage(rows, null);
+        }
+        List<Event> events = List.copyOf(rows.subList(0, size));
+        return new EventPage(events, EventCursor.after(events.get(size - 1), order));
+    }
+
+    public EventSearchIndex.Facets searchFacets(EventSearchIndex.Query query) {
+        return searchIndex.facets(query);
     }
 
     @Transactional(readOnly = true)
     public int getAvailableSeats(Long eventId) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new ResourceNotFoundException("Événement non trouvé"));
-        Integer reserved = reservationRepository.sumPlacesReservedForEvent(event);
-        return event.getCapaciteMax() - (reserved != null ? reserved : 0);
+        return seatInventory.available(event);
     }
 
     @Transactional(readOnly = true)
     public Map<String, Object> getOrganizerStats(User organizer) {
-        List<Event> events = eventRepository.findByOrganisateurWithDetails(organizer);
+        OrganizerAnalyticsService.OrganizerStats organizerStats = organizerAnalyticsService.stats(organizer);
         Map<String, Object> stats = new HashMap<>();
 
-        stats.put("totalEvents", events.size());
-        stats.put("published", events.stream().filter(e -> e.getStatut() == EventStatus.PUBLIE).count());
-        stats.put("draft", events.stream().filter(e -> e.getStatut() == EventStatus.BROUILLON).count());
-        stats.put("cancelled", events.stream().filter(e -> e.getStatut() == EventStatus.ANNULE).count());
-
-        long totalReservations = events.stream()
-                .mapToLong(e -> reservationRepository.countByEvenement(e))
-                .sum();
-        stats.put("totalReservations", totalReservations);
-
-        double totalRevenue = events. stream()
-                .flatMap(e -> e.getReservations().stream())
-                .filter(r -> r.getStatut() != org.example.p1vaadin. domain.enums.ReservationStatus.ANNULEE)
-                .mapToDouble(r -> r.getMontantTotal())
-                .sum();
-        stats.put("totalRevenue", totalRevenue);
+        stats.put("totalEvents", organizerStats.totalEvents());
+        stats.put("published", organizerStats.events(EventStatus.PUBLIE));
+        stats.put("draft", organizerStats.events(EventStatus.BROUILLON));
+        stats.put("cancelled", organizerStats.events(EventStatus.ANNULE));
+        stats.put("totalReservations", organizerStats.totalReservations());
+        stats.put("totalRevenue", organizerStats.revenue());
 
         return stats;
     }
 
     @Transactional(readOnly = true)
     public long countByStatus(EventStatus status) {
-        return eventRepository.findByStatut(status).size();
+        return eventRepository.countByStatut(status);
     }
 
     // ✅ Nouvelles méthodes pour les dashboards
 
     @Transactional(readOnly = true)
     public long countByOrganizer(User organizer) {
-        return eventRepository.findByOrganisateurWithDetails(organizer).size();
+        return eventRepository.countByOrganisateur(organizer);
     }
 
     @Transactional(readOnly = true)
     public long countPublishedByOrganizer(User organizer) {
-        return eventRepository.findByOrganisateurWithDetails(organizer).stream()
-                .filter(e -> e.getStatut() == EventStatus.PUBLIE)
-                .count();
+        return eventRepository.countByOrganisateurAndStatut(organizer, EventStatus.PUBLIE);
     }
 
     @Transactional(readOnly = true)
@@ -211,7 +353,7 @@ public class EventService {
 
     @Transactional(readOnly = true)
     public long countPublished() {
-        return eventRepository.findByStatut(EventStatus. PUBLIE).size();
+        return eventRepository.countByStatut(EventStatus.PUBLIE);
     }
 
     private boolean isOwnerOrAdmin(Event event, User user) {
@@ -0,0 +1,88 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.events.ReservationStatusChangedEvent;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.example.p1vaadin.util.TimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Expiration des réservations en attente : chaque réservation EN_ATTENTE retient ses places
+ * pendant {@code app.reservation.hold-ttl}, après quoi elle est annulée et ses places rendues.
+ * Les échéances sont tenues dans une roue temporelle ; au redémarrage elles sont reconstruites
+ * à partir de {@code date_reservation}.
+ */
+@Service
+public class HoldExpiryService {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldExpiryService.class);
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationService reservationService;
+    private final Duration holdTtl;
+    private final TimingWheel<Long> wheel;
+
+    public HoldExpiryService(ReservationRepository reservationRepository,
+                             ReservationService reservationService,
+                             @Value("${app.reservation.hold-ttl:PT15M}") Duration holdTtl,
+                             @Value("${app.reservation.hold-tick-ms:1000}") long tickMillis) {
+        this.reservationRepository = reservationRepository;
+        this.reservationService = reservationService;
+        this.holdTtl = holdTtl;
+        this.wheel = new TimingWheel<>(tickMillis, 4096, System.currentTimeMillis());
+    }
+
+    public Duration getHoldTtl() {
+        return holdTtl;
+    }
+
+    @TransactionalEventListener
+    public void onStatusChanged(ReservationStatusChangedEvent event) {
+        if (event.newStatus() == ReservationStatus.EN_ATTENTE) {
+            wheel.schedule(event.reservationId(), deadline(event.reservedAt()));
+        } else if (event.previousStatus() == ReservationStatus.EN_ATTENTE) {
+            wheel.cancel(event.reservationId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        List<Object[]> holds = reservationRepository.findPendingHolds();
+        for (Object[] row : holds) {
+            wheel.schedule((Long) row[0], deadline((LocalDateTime) row[1]));
+        }
+        log.info("{} réservations en attente reprogrammées pour expiration", holds.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservation.hold-tick-ms:1000}")
+    public void expireDueHolds() {
+        for (Long reservationId : wheel.advance(System.currentTimeMillis())) {
+            try {
+                reservationService.expireHold(reservationId);
+            } catch (Exception ex) {
+                log.warn("Échec de l'expiration de la réservation {} : {}", reservationId, ex.getMessage());
+            }
+        }
+    }
+
+    public int pendingHolds() {
+        return wheel.size();
+    }
+
+    private long deadline(LocalDateTime reservedAt) {
+        LocalDateTime start = reservedAt != null ? reservedAt : LocalDateTime.now();
+        return start.plus(holdTtl).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
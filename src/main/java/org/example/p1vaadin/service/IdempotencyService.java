@@ -0,0 +1,114 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.IdempotencyKey;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.repository.IdempotencyKeyRepository;
+import org.example.p1vaadin.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Clés d'idempotence des demandes de réservation.
+ * Une clé déjà vue renvoie vers la réservation d'origine pendant {@code app.idempotency.ttl}.
+ * Les clés sont persistées dans {@code idempotency_keys} ; les plus récentes sont gardées dans
+ * un cache borné en mémoire pour répondre aux doubles clics sans requête.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyKeyRepository repository;
+    private final Duration ttl;
+    private final Map<String, Entry> recent;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public IdempotencyService(IdempotencyKeyRepository repository,
+                              @Value("${app.idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${app.idempotency.cache-size:10000}") int cacheSize) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public static String scopedKey(User user, String clientKey) {
+        return user.getId() + ":" + clientKey;
+    }
+
+    /**
+     * Id de la réservation déjà créée pour cette clé, s'il y en a une encore valide.
+     */
+    public Optional<Long> find(String key) {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (recent) {
+            Entry entry = recent.get(key);
+            if (entry != null && entry.expiresAt().isAfter(now)) {
+                return Optional.of(entry.reservationId());
+            }
+        }
+        return repository.findById(key)
+                .filter(k -> k.getDateCreation().plus(ttl).isAfter(now))
+                .map(k -> {
+                    cache(key, k.getReservationId(), k.getDateCreation());
+                    return k.getReservationId();
+                });
+    }
+
+    /**
+     * Enregistre la clé dans la transaction courante ; elle n'entre dans le cache qu'après validation.
+     */
+    public void remember(String key, Long reservationId) {
+        LocalDateTime now = LocalDateTime.now();
+        repository.save(IdempotencyKey.builder()
+                .cle(key)
+                .reservationId(reservationId)
+                .dateCreation(now)
+                .build());
+        TransactionHooks.afterCommit(() -> cache(key, reservationId, now));
+    }
+
+    /**
+     * Marque la clé comme en cours de traitement jusqu'à la fin de la transaction courante.
+     * Retourne {@code false} si une demande portant la même clé est déjà en cours.
+     */
+    public boolean begin(String key) {
+        if (!inFlight.add(key)) {
+            return false;
+        }
+        TransactionHooks.afterCompletion(committed -> inFlight.remove(key));
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int deleted = repository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        if (deleted > 0) {
+            log.info("{} clés d'idempotence expirées supprimées", deleted);
+        }
+    }
+
+    private void cache(String key, Long reservationId, LocalDateTime createdAt) {
+        synchronized (recent) {
+            recent.put(key, new Entry(reservationId, createdAt.plus(ttl)));
+        }
+    }
+
+    private record Entry(Long reservationId, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Notification;
+import org.example.p1vaadin.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Envoie les notifications en attente, par lots. Il n'y a pas encore de passerelle e-mail :
+ * l'envoi est journalisé puis la notification marquée comme envoyée.
+ */
+@Service
+public class NotificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public NotificationService(NotificationRepository notificationRepository, TransactionTemplate transactionTemplate,
+                               @Value("${app.notifications.batch-size:500}") int batchSize) {
+        this.notificationRepository = notificationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.dispatch-interval-ms:10000}")
+    public void dispatchPending() {
+        int sent = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> dispatchBatch());
+            sent += batch;
+        } while (batch == batchSize);
+        if (sent > 0) {
+            log.info("{} notifications envoyées", sent);
+        }
+    }
+
+    private int dispatchBatch() {
+        List<Notification> pending = notificationRepository.findPending(PageRequest.of(0, batchSize));
+        for (Notification notification : pending) {
+            log.debug("Notification {} à {} : {}", notification.getType(),
+                    notification.getUtilisateur().getEmail(), notification.getMessage());
+        }
+        if (!pending.isEmpty()) {
+            notificationRepository.markSent(pending.stream().map(Notification::getId).toList());
+        }
+        return pending.size();
+    }
+}
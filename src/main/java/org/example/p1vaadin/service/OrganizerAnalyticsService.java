@@ -0,0 +1,68 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.domain.enums.EventStatus;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.repository.EventRepository;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Indicateurs d'un organisateur, calculés par deux requêtes agrégées (événements par statut,
+ * réservations par statut) quel que soit le nombre de ses événements.
+ */
+@Service
+@Transactional(readOnly = true)
+public class OrganizerAnalyticsService {
+
+    private final EventRepository eventRepository;
+    private final ReservationRepository reservationRepository;
+
+    public OrganizerAnalyticsService(EventRepository eventRepository, ReservationRepository reservationRepository) {
+        this.eventRepository = eventRepository;
+        this.reservationRepository = reservationRepository;
+    }
+
+    public OrganizerStats stats(User organizer) {
+        Map<EventStatus, Long> events = new EnumMap<>(EventStatus.class);
+        for (Object[] row : eventRepository.countByStatusForOrganisateur(organizer)) {
+            events.put((EventStatus) row[0], ((Number) row[1]).longValue());
+        }
+
+        Map<ReservationStatus, Long> reservations = new EnumMap<>(ReservationStatus.class);
+        double revenue = 0;
+        for (Object[] row : reservationRepository.countAndSumByStatusForOrganizer(organizer)) {
+            ReservationStatus status = (ReservationStatus) row[0];
+            reservations.put(status, ((Number) row[1]).longValue());
+            if (status != ReservationStatus.ANNULEE) {
+                revenue += ((Number) row[2]).doubleValue();
+            }
+        }
+        return new OrganizerStats(events, reservations, revenue);
+    }
+
+    public record OrganizerStats(Map<EventStatus, Long> events,
+                                 Map<ReservationStatus, Long> reservations,
+                                 double revenue) {
+
+        public long events(EventStatus status) {
+            return events.getOrDefault(status, 0L);
+        }
+
+        public long totalEvents() {
+            return events.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long reservations(ReservationStatus status) {
+            return reservations.getOrDefault(status, 0L);
+        }
+
+        public long totalReservations() {
+            return reservations.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.enums.EventStatus;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.events.EventChangedEvent;
+import org.example.p1vaadin.events.ReservationStatusChangedEvent;
+import org.example.p1vaadin.events.ReservationsBulkCancelledEvent;
+import org.example.p1vaadin.repository.EventRepository;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Classements des événements publiés, tenus à jour à chaque changement de statut de réservation validé :
+ * <ul>
+ *   <li>popularité : nombre de réservations actives (non annulées) ;</li>
+ *   <li>tendance : même décompte, chaque réservation pesant 2^(-âge / demi-vie).</li>
+ * </ul>
+ * La tendance utilise une décroissance « vers l'avant » : chaque réservation apporte
+ * exp(λ·(t − repère)), valeur fixe qui ne change plus ensuite ; l'ordre entre événements est celui
+ * des scores décroissants à tout instant, sans recalcul périodique. Les deux classements sont des listes
+ * à enjambements triées par score : les k premiers se lisent en O(k). Le repère est ramené à l'instant
+ * courant lors de la réconciliation nocturne, qui reconstruit aussi les scores à partir de la base.
+ */
+@Service
+public class PopularityService {
+
+    private static final Logger log = LoggerFactory.getLogger(PopularityService.class);
+
+    private static final Comparator<Rank> BY_SCORE_DESC =
+            Comparator.comparingDouble(Rank::score).reversed().thenComparingLong(Rank::eventId);
+
+    private final ReservationRepository reservationRepository;
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double lambdaPerMilli;
+    private final int maxSkippedRebuilds;
+    private final ConcurrentHashMap<Long, Score> scores = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Rank> popular = new ConcurrentSkipListSet<>(BY_SCORE_DESC);
+    private final ConcurrentSkipListSet<Rank> trending = new ConcurrentSkipListSet<>(BY_SCORE_DESC);
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicInteger skippedRebuilds = new AtomicInteger();
+    private volatile long landmarkMillis = System.currentTimeMillis();
+
+    public PopularityService(ReservationRepository reservationRepository, EventRepository eventRepository,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${app.popularity.trending-half-life:P3D}") Duration halfLife,
+                             @Value("${app.popularity.max-skipped-rebuilds:3}") int maxSkippedRebuilds) {
+        this.reservationRepository = reservationRepository;
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.lambdaPerMilli = Math.log(2) / halfLife.toMillis();
+        this.maxSkippedRebuilds = maxSkippedRebuilds;
+    }
+
+    /**
+     * Identifiants des {@code limit} événements publiés ayant le plus de réservations actives.
+     */
+    public List<Long> popular(int limit) {
+        return top(popular, limit);
+    }
+
+    /**
+     * Identifiants des {@code limit} événements publiés les plus réservés récemment.
+     */
+    public List<Long> trending(int limit) {
+        return top(trending, limit);
+    }
+
+    @TransactionalEventListener
+    public void onReservationStatusChanged(ReservationStatusChangedEvent event) {
+        int before = isActive(event.previousStatus()) ? 1 : 0;
+        int after = event.newStatus() != ReservationStatus.ANNULEE ? 1 : 0;
+        if (before == after) {
+            return;
+        }
+        int delta = after - before;
+        double weight = delta * decayWeight(event.reservedAt());
+        update(event.eventId(), score -> {
+            score.active += delta;
+            score.trend = score.active == 0 ? 0 : score.trend + weight;
+        });
+    }
+
+    @TransactionalEventListener
+    public void onReservationsBulkCancelled(ReservationsBulkCancelledEvent event) {
+        // Les dates des réservations du lot ne sont pas connues ; l'événement, annulé, ne figure plus
+        // dans les classements et sa tendance est remise à zéro avec sa dernière réservation active
+        update(event.eventId(), score -> {
+            score.active = Math.max(0, score.active - event.count());
+            if (score.active == 0) {
+                score.trend = 0;
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent event) {
+        if (event.change() == EventChangedEvent.Change.DELETED) {
+            Score score = scores.remove(event.eventId());
+            if (score != null) {
+                synchronized (score) {
+                    unrank(score);
+                }
+            }
+            return;
+        }
+        boolean published = transactionTemplate.execute(status -> eventRepository.findStatutById(event.eventId()))
+                .map(statut -> statut == EventStatus.PUBLIE)
+                .orElse(false);
+        update(event.eventId(), score -> score.published = published);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild(true);
+        log.info("Classements de popularité initialisés ({} événements publiés)", popular.size());
+    }
+
+    /**
+     * Recalcule les scores à partir de la base avec un repère ramené à maintenant. Si une réservation
+     * change pendant la lecture, la reconstruction est reportée au passage suivant ; après
+     * {@code app.popularity.max-skipped-rebuilds} reports consécutifs elle est imposée, l'écart laissé par
+     * les réservations concurrentes étant borné et corrigé par les mises à jour suivantes.
+     */
+    @Scheduled(cron = "${app.popularity.reconcile-cron:0 5 4 * * *}")
+    public boolean rebuild() {
+        boolean force = skippedRebuilds.get() >= maxSkippedRebuilds;
+        if (force) {
+            log.warn("Reconstruction des classements imposée après {} reports consécutifs", skippedRebuilds.get());
+        }
+        if (rebuild(force)) {
+            skippedRebuilds.set(0);
+            return true;
+        }
+        skippedRebuilds.incrementAndGet();
+        return false;
+    }
+
+    private boolean rebuild(boolean force) {
+        long before = generation.get();
+        long landmark = System.currentTimeMillis();
+        Set<Long> published = new HashSet<>();
+        Map<Long, long[]> active = new HashMap<>();
+        Map<Long, Double> trend = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            published.addAll(eventRepository.findIdsByStatut(EventStatus.PUBLIE));
+            for (Object[] row : reservationRepository.countActiveByEventAndDay()) {
+                Long eventId = (Long) row[0];
+                long count = ((Number) row[2]).longValue();
+                // Réservations d'une même journée datées de midi : erreur négligeable devant une demi-vie en jours
+                long middayMillis = ((LocalDate) row[1]).atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                active.computeIfAbsent(eventId, id -> new long[1])[0] += count;
+                trend.merge(eventId, count * Math.exp(lambdaPerMilli * (middayMillis - landmark)), Double::sum);
+            }
+        });
+        if (!force && generation.get() != before) {
+            log.info("Reconstruction des classements reportée : réservations modifiées pendant la lecture");
+            return false;
+        }
+
+        landmarkMillis = landmark;
+        Set<Long> ids = new HashSet<>(scores.keySet());
+        ids.addAll(published);
+        ids.addAll(active.keySet());
+        for (Long eventId : ids) {
+            long count = active.getOrDefault(eventId, new long[1])[0];
+            double weight = trend.getOrDefault(eventId, 0.0);
+            update(eventId, score -> {
+                score.active = count;
+                score.trend = weight;
+                score.published = published.contains(eventId);
+            });
+        }
+        return true;
+    }
+
+    private List<Long> top(ConcurrentSkipListSet<Rank> ranking, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        Iterator<Rank> it = ranking.iterator();
+        while (ids.size() < limit && it.hasNext()) {
+            ids.add(it.next().eventId());
+        }
+        return ids;
+    }
+
+    private void update(Long eventId, Consumer<Score> change) {
+        Score score = scores.computeIfAbsent(eventId, id -> new Score());
+        synchronized (score) {
+            unrank(score);
+            change.accept(score);
+            if (score.published) {
+                score.popularRank = new Rank(score.active, eventId);
+                score.trendingRank = new Rank(score.trend, eventId);
+                popular.add(score.popularRank);
+                trending.add(score.trendingRank);
+            }
+        }
+        generation.incrementAndGet();
+    }
+
+    // Appelé sous le verrou du score
+    private void unrank(Score score) {
+        if (score.popularRank != null) {
+            popular.remove(score.popularRank);
+            trending.remove(score.trendingRank);
+            score.popularRank = null;
+            score.trendingRank = null;
+        }
+    }
+
+    private double decayWeight(LocalDateTime at) {
+        long millis = at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Math.exp(lambdaPerMilli * (millis - landmarkMillis));
+    }
+
+    private static boolean isActive(ReservationStatus status) {
+        return status != null && status != ReservationStatus.ANNULEE;
+    }
+
+    private record Rank(double score, long eventId) {
+    }
+
+    private static final class Score {
+        private long active;
+        private double trend;
+        private boolean published;
+        private Rank popularRank;
+        private Rank trendingRank;
+    }
+}
@@ -0,0 +1,287 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.Reservation;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.domain.enums.EventStatus;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.events.EventChangedEvent;
+import org.example.p1vaadin.events.ListenerOrder;
+import org.example.p1vaadin.events.ReservationStatusChangedEvent;
+import org.example.p1vaadin.events.ReservationsBulkCancelledEvent;
+import org.example.p1vaadin.events.UserChangedEvent;
+import org.example.p1vaadin.repository.EventRepository;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.example.p1vaadin.repository.UserRepository;
+import org.example.p1vaadin.util.RecentRing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Fils « activité récente » des tableaux de bord : dernières inscriptions, derniers événements
+ * (globalement et par organisateur) et dernières réservations de chaque client. Chaque fil est un
+ * tampon borné alimenté par les événements de cycle de vie validés ; il est amorcé en base à la première
+ * lecture par une requête limitée, puis complété par keyset sur (date, id) quand des suppressions l'ont vidé.
+ * Une lecture coûte ainsi de l'ordre du nombre d'éléments affichés, jamais de la taille des tables.
+ * Les fils par organisateur et par client inutilisés sont libérés périodiquement.
+ */
+@Service
+public class RecentActivityService {
+
+    private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int capacity;
+    private final long idleNanos;
+    private final Feed<RecentUser> users;
+    private final Feed<RecentEvent> events;
+    private final ConcurrentHashMap<Long, Feed<RecentEvent>> byOrganizer = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Feed<RecentReservation>> byUser = new ConcurrentHashMap<>();
+
+    public RecentActivityService(UserRepository userRepository, EventRepository eventRepository,
+                                 ReservationRepository reservationRepository, TransactionTemplate transactionTemplate,
+                                 @Value("${app.activity.ring-size:10}") int capacity,
+                                 @Value("${app.activity.idle-ttl:PT30M}") Duration idleTtl) {
+        this.userRepository = userRepository;
+        this.eventRepository = eventRepository;
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.capacity = capacity;
+        this.idleNanos = idleTtl.toNanos();
+        this.users = new Feed<>(capacity);
+        this.events = new Feed<>(capacity);
+    }
+
+    public List<RecentUser> recentUsers(int limit) {
+        return read(users, limit,
+                page -> userRepository.findRecent(page).stream().map(RecentUser::of).toList(),
+                (oldest, page) -> userRepository.findRecentBefore(oldest.at(), oldest.id(), page).stream()
+                        .map(RecentUser::of).toList());
+    }
+
+    public List<RecentEvent> recentEvents(int limit) {
+        return read(events, limit,
+                page -> eventRepository.findRecentWithOrganisateur(page).stream().map(RecentEvent::of).toList(),
+                (oldest, page) -> eventRepository.findRecentWithOrganisateurBefore(oldest.at(), oldest.id(), page).stream()
+                        .map(RecentEvent::of).toList());
+    }
+
+    public List<RecentEvent> recentEvents(User organizer, int limit) {
+        Long organizerId = organizer.getId();
+        return read(byOrganizer.computeIfAbsent(organizerId, id -> new Feed<>(capacity)), limit,
+                page -> eventRepository.findRecentByOrganisateur(organizerId, page).stream().map(RecentEvent::of).toList(),
+                (oldest, page) -> eventRepository.findRecentByOrganisateurBefore(organizerId, oldest.at(), oldest.id(), page)
+                        .stream().map(RecentEvent::of).toList());
+    }
+
+    public List<RecentReservation> recentReservations(User user, int limit) {
+        Long userId = user.getId();
+        return read(byUser.computeIfAbsent(userId, id -> new Feed<>(capacity)), limit,
+                page -> reservationRepository.findRecentByUtilisateur(userId, page).stream()
+                        .map(RecentReservation::of).toList(),
+                (oldest, page) -> reservationRepository.findRecentByUtilisateurBefore(userId, oldest.at(), oldest.id(), page)
+                        .stream().map(RecentReservation::of).toList());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(ListenerOrder.AGGREGATES)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!users.seeded || (!event.created() && !users.contains(event.userId()))) {
+            return;
+        }
+        transactionTemplate.execute(status -> userRepository.findById(event.userId()))
+                .map(RecentUser::of)
+                .ifPresent(user -> {
+                    if (event.created()) {
+                        users.upsert(user);
+                    } else {
+                        users.replace(user);
+                    }
+                });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(ListenerOrder.AGGREGATES)
+    public void onEventChanged(EventChangedEvent event) {
+        Feed<RecentEvent> organizerFeed = byOrganizer.get(event.organizerId());
+        if (event.change() == EventChangedEvent.Change.DELETED) {
+            events.remove(event.eventId());
+            if (organizerFeed != null) {
+                organizerFeed.remove(event.eventId());
+            }
+            byUser.values().forEach(feed -> feed.ring.removeIf(r -> r.eventId().equals(event.eventId())));
+            return;
+        }
+
+        boolean created = event.change() == EventChangedEvent.Change.CREATED;
+        boolean listed = events.contains(event.eventId())
+                || (organizerFeed != null && organizerFeed.contains(event.eventId()))
+                || byUser.values().stream().anyMatch(feed -> feed.ring.anyMatch(r -> r.eventId().equals(event.eventId())));
+        if (!listed && !(created && (events.seeded || organizerFeed != null))) {
+            return;
+        }
+        Event loaded = transactionTemplate.execute(status -> eventRepository.findByIdWithOrganisateur(event.eventId()))
+                .orElse(null);
+        if (loaded == null) {
+            return;
+        }
+        RecentEvent recent = RecentEvent.of(loaded);
+        if (created) {
+            events.upsert(recent);
+            if (organizerFeed != null) {
+                organizerFeed.upsert(recent);
+            }
+            return;
+        }
+        events.replace(recent);
+        if (organizerFeed != null) {
+            organizerFeed.replace(recent);
+        }
+        byUser.values().forEach(feed -> feed.ring.replaceAll(r -> r.eventId().equals(loaded.getId())
+                ? r.withEvent(loaded.getTitre(), loaded.getDateDebut()) : r));
+    }
+
+    @TransactionalEventListener
+    @Order(ListenerOrder.AGGREGATES)
+    public void onReservationStatusChanged(ReservationStatusChangedEvent event) {
+        Feed<RecentReservation> feed = byUser.get(event.userId());
+        if (feed == null || !feed.seeded) {
+            return;
+        }
+        if (!event.isCreation()) {
+            feed.ring.replaceAll(r -> r.id().equals(event.reservationId()) ? r.withStatut(event.newStatus()) : r);
+            return;
+        }
+        transactionTemplate.execute(status -> eventRepository.findById(event.eventId()))
+                .ifPresent(e -> feed.upsert(new RecentReservation(event.reservationId(), e.getId(), e.getTitre(),
+                        e.getDateDebut(), event.places(), event.newStatus(), event.reservedAt())));
+    }
+
+    @TransactionalEventListener
+    @Order(ListenerOrder.AGGREGATES)
+    public void onReservationsBulkCancelled(ReservationsBulkCancelledEvent event) {
+        byUser.values().forEach(feed -> feed.ring.replaceAll(r -> r.eventId().equals(event.eventId())
+                ? r.withStatut(ReservationStatus.ANNULEE) : r));
+    }
+
+    /**
+     * Libère les fils par organisateur et par client qui n'ont pas été lus depuis {@code app.activity.idle-ttl}.
+     */
+    @Scheduled(fixedDelayString = "${app.activity.purge-interval-ms:300000}")
+    public void purgeIdle() {
+        long now = System.nanoTime();
+        byOrganizer.values().removeIf(feed -> now - feed.lastRead > idleNanos);
+        byUser.values().removeIf(feed -> now - feed.lastRead > idleNanos);
+    }
+
+    private <T extends Recent> List<T> read(Feed<T> feed, int limit, Function<Pageable, List<T>> first,
+                                            BiFunction<T, Pageable, List<T>> before) {
+        feed.lastRead = System.nanoTime();
+        synchronized (feed) {
+            if (!feed.seeded || (feed.ring.size() < limit && !feed.exhausted)) {
+                T oldest = feed.ring.oldest();
+                int missing = capacity - feed.ring.size();
+                Pageable page = PageRequest.of(0, missing);
+                List<T> rows = transactionTemplate.execute(status ->
+                        oldest == null ? first.apply(page) : before.apply(oldest, page));
+                rows.forEach(feed.ring::append);
+                feed.exhausted = rows.size() < missing;
+                feed.seeded = true;
+            }
+        }
+        return feed.ring.latest(limit);
+    }
+
+    /**
+     * Un fil : son tampon, et ce que l'on sait de la base au-delà de son plus ancien élément.
+     */
+    private static final class Feed<T extends Recent> {
+        private final RecentRing<T> ring;
+        private volatile boolean seeded;
+        // Vrai quand la base n'a plus rien de plus ancien que le tampon
+        private volatile boolean exhausted;
+        private volatile long lastRead = System.nanoTime();
+
+        private Feed(int capacity) {
+            this.ring = new RecentRing<>(capacity);
+        }
+
+        private synchronized void upsert(T item) {
+            if (!seeded) {
+                return;
+            }
+            ring.removeIf(existing -> existing.id().equals(item.id()));
+            if (ring.size() == ring.capacity()) {
+                exhausted = false;
+            }
+            ring.push(item);
+        }
+
+        private void replace(T item) {
+            ring.replaceAll(existing -> existing.id().equals(item.id()) ? item : existing);
+        }
+
+        private void remove(Long id) {
+            ring.removeIf(existing -> existing.id().equals(id));
+        }
+
+        private boolean contains(Long id) {
+            return ring.anyMatch(existing -> existing.id().equals(id));
+        }
+    }
+
+    private interface Recent {
+        Long id();
+
+        LocalDateTime at();
+    }
+
+    public record RecentUser(Long id, String fullName, LocalDateTime at) implements Recent {
+
+        static RecentUser of(User user) {
+            return new RecentUser(user.getId(), user.getFullName(), user.getDateInscription());
+        }
+    }
+
+    public record RecentEvent(Long id, Long organizerId, String titre, String organizer, String ville,
+                              int capacite, EventStatus statut, LocalDateTime at) implements Recent {
+
+        static RecentEvent of(Event event) {
+            return new RecentEvent(event.getId(), event.getOrganisateur().getId(), event.getTitre(),
+                    event.getOrganisateur().getFullName(), event.getVille(), event.getCapaciteMax(),
+                    event.getStatut(), event.getDateCreation());
+        }
+    }
+
+    public record RecentReservation(Long id, Long eventId, String eventTitle, LocalDateTime eventStart,
+                                    int places, ReservationStatus statut, LocalDateTime at) implements Recent {
+
+        static RecentReservation of(Reservation reservation) {
+            Event event = reservation.getEvenement();
+            return new RecentReservation(reservation.getId(), event.getId(), event.getTitre(), event.getDateDebut(),
+                    reservation.getNombrePlaces(), reservation.getStatut(), reservation.getDateReservation());
+        }
+
+        RecentReservation withStatut(ReservationStatus statut) {
+            return new RecentReservation(id, eventId, eventTitle, eventStart, places, statut, at);
+        }
+
+        RecentReservation withEvent(String eventTitle, LocalDateTime eventStart) {
+            return new RecentReservation(id, eventId, eventTitle, eventStart, places, statut, at);
+        }
+    }
+}
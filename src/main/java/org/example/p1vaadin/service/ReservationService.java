@@ -5,18 +5,25 @@ import org.example.p1vaadin.domain.Reservation;
 import org.example.p1vaadin.domain.User;
 import org.example.p1vaadin.domain.enums. EventStatus;
 import org.example. p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.events.ReservationStatusChangedEvent;
 import org.example.p1vaadin.exception.*;
 import org.example.p1vaadin.repository.EventRepository;
 import org.example.p1vaadin.repository.ReservationRepository;
 import org.example. p1vaadin.util.CodeGenerator;
+import org.example.p1vaadin.util.OptimisticRetry;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time. LocalDateTime;
+import java.util.ArrayList;
 import java.util. HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 @Service
 @Transactional
@@ -25,89 +32,327 @@ public class ReservationService {
     private final ReservationRepository reservationRepository;
     private final EventRepository eventRepository;
     private final CodeGenerator codeGenerator;
-
-    public ReservationService(ReservationRepository reservationRepository, EventRepository eventRepository, CodeGenerator codeGenerator) {
+    private final SeatInventory seatInventory;
+    private final SeatMapService seatMapService;
+    private final IdempotencyService idempotencyService;
+    private final OptimisticRetry optimisticRetry;
+    private final ReservationStatsService reservationStatsService;
+    private final WaitingRoomService waitingRoomService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReservationService(ReservationRepository reservationRepository, EventRepository eventRepository,
+                              CodeGenerator codeGenerator, SeatInventory seatInventory, SeatMapService seatMapService,
+                              IdempotencyService idempotencyService, OptimisticRetry optimisticRetry,
+                              ReservationStatsService reservationStatsService, WaitingRoomService waitingRoomService,
+                              ApplicationEventPublisher eventPublisher) {
         this.reservationRepository = reservationRepository;
         this.eventRepository = eventRepository;
         this.codeGenerator = codeGenerator;
+        this.seatInventory = seatInventory;
+        this.seatMapService = seatMapService;
+        this.idempotencyService = idempotencyService;
+        this.optimisticRetry = optimisticRetry;
+        this.reservationStatsService = reservationStatsService;
+        this.waitingRoomService = waitingRoomService;
+        this.eventPublisher = eventPublisher;
     }
 
-    public Reservation create(Long eventId, int nombrePlaces, String commentaire, User currentUser) {
-        if (nombrePlaces < 1 || nombrePlaces > 10) {
-            throw new BadRequestException("Le nombre de places doit être entre 1 et 10");
+    /**
+     * Variante idempotente de {@link #create} : une demande répétée avec la même clé
+     * (double clic, nouvel essai après expiration du délai) renvoie la réservation d'origine
+     * sans retenir de places ni insérer de ligne.
+     */
+    public Reservation create(Long eventId, int nombrePlaces, String commentaire, User currentUser, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return create(eventId, nombrePlaces, commentaire, currentUser);
         }
 
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new ResourceNotFoundException("Événement non trouvé"));
-
-        if (event.getStatut() != EventStatus.PUBLIE) {
-            throw new BadRequestException("Cet événement n'est pas disponible à la réservation");
+        String key = IdempotencyService.scopedKey(currentUser, idempotencyKey);
+        Optional<Reservation> existing = findExisting(key);
+        if (existing.isPresent()) {
+            return existing.get();
         }
 
-        if (event.getDateDebut().isBefore(LocalDateTime.now())) {
-            throw new BadRequestException("Cet événement a déjà commencé");
+        if (!idempotencyService.begin(key)) {
+            throw new ConflictException("Cette demande de réservation est déjà en cours de traitement");
         }
+        Reservation reservation = create(eventId, nombrePlaces, commentaire, currentUser);
+        idempotencyService.remember(key, reservation.getId());
+        return reservation;
+    }
 
-        Integer reserved = reservationRepository.sumPlacesReservedForEvent(event);
-        int totalReserved = reserved != null ? reserved : 0;
-        int availableSeats = event.getCapaciteMax() - totalReserved;
-
-        if (nombrePlaces > availableSeats) {
-            throw new BadRequestException("Il ne reste que " + availableSeats + " places disponibles");
+    public Reservation create(Long eventId, int nombrePlaces, String commentaire, User currentUser) {
+        if (nombrePlaces < 1 || nombrePlaces > 10) {
+            throw new BadRequestException("Le nombre de places doit être entre 1 et 10");
         }
 
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Événement non trouvé"));
+        checkBookable(event);
+        waitingRoomService.checkAdmitted(event, currentUser);
+
         Reservation reservation = Reservation.builder()
                 .utilisateur(currentUser)
-                .evenement(event)
                 .nombrePlaces(nombrePlaces)
-                .montantTotal(nombrePlaces * event.getPrixUnitaire())
-                .dateReservation(LocalDateTime.now())
-                .statut(ReservationStatus.EN_ATTENTE)
-                .codeReservation(codeGenerator.generateReservationCode())
                 .commentaire(commentaire)
                 .build();
 
-        return reservationRepository.save(reservation);
+        return createAll(event, List.of(reservation)).get(0);
     }
 
-    public Reservation confirm(Long id, User currentUser) {
-        Reservation reservation = reservationRepository. findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Réservation non trouvée"));
+    /**
+     * Traite un lot de demandes sur un même événement dans une seule transaction.
+     * Les demandes sont servies dans l'ordre ; celles qui ne peuvent pas être honorées
+     * sont refusées une à une sans faire échouer le reste du lot.
+     */
+    public List<BookingResult> createGroup(Long eventId, List<BookingRequest> requests) {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Événement non trouvé"));
+        try {
+            checkBookable(event);
+        } catch (BadRequestException ex) {
+            return requests.stream().map(r -> BookingResult.rejected(ex)).toList();
+        }
+
+        int available = event.getCapaciteMax() - eventRepository.findReservedPlaces(eventId);
+        BookingResult[] results = new BookingResult[requests.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<Reservation> drafts = new ArrayList<>();
+        Map<String, Integer> keysInBatch = new HashMap<>();
+        Map<Integer, Integer> duplicates = new HashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            BookingRequest request = requests.get(i);
+            int places = request.nombrePlaces();
+            String key = request.idempotencyKey() != null
+                    ? IdempotencyService.scopedKey(request.user(), request.idempotencyKey())
+                    : null;
+            Optional<Reservation> existing = key != null ? findExisting(key) : Optional.empty();
+            if (existing.isPresent()) {
+                results[i] = BookingResult.accepted(existing.get());
+            } else if (key != null && keysInBatch.containsKey(key)) {
+                duplicates.put(i, keysInBatch.get(key));
+            } else if (!waitingRoomService.hasAccess(eventId, request.user().getId())) {
+                results[i] = BookingResult.rejected(waitingRoomService.notAdmitted(event));
+            } else if (places < 1 || places > 10) {
+                results[i] = BookingResult.rejected(new BadRequestException("Le nombre de places doit être entre 1 et 10"));
+            } else if (places > available) {
+                results[i] = BookingResult.rejected(new BadRequestException("Il ne reste que " + Math.max(available, 0) + " places disponibles"));
+            } else {
+                available -= places;
+                if (key != null) {
+                    keysInBatch.put(key, i);
+                }
+                acceptedIndexes.add(i);
+                drafts.add(Reservation.builder()
+                        .utilisateur(request.user())
+                        .nombrePlaces(places)
+                        .commentaire(request.commentaire())
+                        .build());
+            }
+        }
 
-        if (!reservation.getUtilisateur().getId().equals(currentUser.getId())) {
-            throw new ForbiddenException("Vous ne pouvez pas modifier cette réservation");
+        if (!drafts.isEmpty()) {
+            List<Reservation> saved = createAll(event, drafts);
+            for (int i = 0; i < saved.size(); i++) {
+                int index = acceptedIndexes.get(i);
+                results[index] = BookingResult.accepted(saved.get(i));
+                BookingRequest request = requests.get(index);
+                if (request.idempotencyKey() != null) {
+                    idempotencyService.remember(IdempotencyService.scopedKey(request.user(), request.idempotencyKey()), saved.get(i).getId());
+                }
+            }
+        }
+        duplicates.forEach((index, original) -> results[index] = results[original]);
+        return List.of(results);
+    }
+
+    /**
+     * Réserve tout le panier dans une seule transaction : soit toutes les lignes sont réservées,
+     * soit aucune. Les lignes d'un même événement sont fusionnées et les événements traités par id
+     * croissant, pour que deux paniers concurrents verrouillent les lignes dans le même ordre.
+     * Un événement en ouverture sous file d'attente exige, comme une réservation simple, un ticket admis.
+     */
+    public List<Reservation> checkout(List<CartLine> lines, User currentUser) {
+        if (lines.isEmpty()) {
+            throw new BadRequestException("Le panier est vide");
         }
 
-        if (reservation.getStatut() != ReservationStatus.EN_ATTENTE) {
-            throw new BadRequestException("Cette réservation ne peut pas être confirmée");
+        SortedMap<Long, Integer> placesByEvent = new TreeMap<>();
+        for (CartLine line : lines) {
+            placesByEvent.merge(line.eventId(), line.nombrePlaces(), Integer::sum);
         }
 
-        reservation.setStatut(ReservationStatus.CONFIRMEE);
-        return reservationRepository.save(reservation);
+        Map<Long, Event> events = new HashMap<>();
+        eventRepository.findAllById(placesByEvent.keySet()).forEach(e -> events.put(e.getId(), e));
+
+        List<Reservation> drafts = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : placesByEvent.entrySet()) {
+            Event event = events.get(line.getKey());
+            if (event == null) {
+                throw new ResourceNotFoundException("Événement non trouvé");
+            }
+            int places = line.getValue();
+            try {
+                if (places < 1 || places > 10) {
+                    throw new BadRequestException("Le nombre de places doit être entre 1 et 10");
+                }
+                checkBookable(event);
+                waitingRoomService.checkAdmitted(event, currentUser);
+                claimSeats(event, places);
+                drafts.add(draft(event, currentUser, places, null));
+            } catch (BadRequestException ex) {
+                throw new BadRequestException(event.getTitre() + " : " + ex.getMessage());
+            }
+        }
+
+        List<Reservation> saved = reservationRepository.saveAll(drafts);
+        saved.forEach(r -> eventPublisher.publishEvent(ReservationStatusChangedEvent.of(r, null)));
+        return saved;
+    }
+
+    /**
+     * Crée plusieurs réservations sur un même événement : les places sont retenues en une fois
+     * et les lignes insérées ensemble. Les brouillons ne portent que l'utilisateur, le nombre
+     * de places et le commentaire ; la disponibilité de l'événement est vérifiée par l'appelant.
+     */
+    public List<Reservation> createAll(Event event, List<Reservation> drafts) {
+        int totalPlaces = drafts.stream().mapToInt(Reservation::getNombrePlaces).sum();
+        claimSeats(event, totalPlaces);
+
+        List<Reservation> reservations = drafts.stream()
+                .map(d -> draft(event, d.getUtilisateur(), d.getNombrePlaces(), d.getCommentaire()))
+                .toList();
+
+        List<Reservation> saved = reservationRepository.saveAll(reservations);
+        saved.forEach(r -> eventPublisher.publishEvent(ReservationStatusChangedEvent.of(r, null)));
+        return saved;
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Reservation confirm(Long id, User currentUser) {
+        return optimisticRetry.execute("reservation.confirm", () -> {
+            Reservation reservation = reservationRepository. findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Réservation non trouvée"));
+
+            if (!reservation.getUtilisateur().getId().equals(currentUser.getId())) {
+                throw new ForbiddenException("Vous ne pouvez pas modifier cette réservation");
+            }
+
+            // Déjà confirmée, par exemple par la demande concurrente qui a provoqué un nouvel essai
+            if (reservation.getStatut() == ReservationStatus.CONFIRMEE) {
+                return reservation;
+            }
+
+            if (reservation.getStatut() != ReservationStatus.EN_ATTENTE) {
+                throw new BadRequestException("Cette réservation ne peut pas être confirmée");
+            }
+
+            reservation.setStatut(ReservationStatus.CONFIRMEE);
+            Reservation saved = reservationRepository.save(reservation);
+            eventPublisher.publishEvent(ReservationStatusChangedEvent.of(saved, ReservationStatus.EN_ATTENTE));
+            return saved;
+        });
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Reservation cancel(Long id, User currentUser) {
-        Reservation reservation = reservationRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Réservation non trouvée"));
+        return optimisticRetry.execute("reservation.cancel", () -> {
+            Reservation reservation = reservationRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Réservation non trouvée"));
+
+            if (!reservation.getUtilisateur().getId().equals(currentUser.getId())) {
+                throw new ForbiddenException("Vous ne pouvez pas annuler cette réservation");
+            }
+
+            if (reservation.getStatut() == ReservationStatus.ANNULEE) {
+                throw new BadRequestException("Cette réservation est déjà annulée");
+            }
+
+            Event event = eventRepository.findById(reservation.getEvenement().getId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Événement non trouvé"));
+
+            LocalDateTime eventDate = event.getDateDebut();
+            if (eventDate.isBefore(LocalDateTime.now().plusHours(48))) {
+                throw new BadRequestException("Les réservations ne peuvent être annulées que 48h avant l'événement");
+            }
+
+            ReservationStatus previousStatus = reservation.getStatut();
+            reservation.setStatut(ReservationStatus.ANNULEE);
+            releaseSeats(reservation);
+            Reservation saved = reservationRepository.save(reservation);
+            eventPublisher.publishEvent(ReservationStatusChangedEvent.of(saved, previousStatus));
+            return saved;
+        });
+    }
 
-        if (!reservation.getUtilisateur().getId().equals(currentUser.getId())) {
-            throw new ForbiddenException("Vous ne pouvez pas annuler cette réservation");
+    /**
+     * Annule une réservation restée EN_ATTENTE au-delà de son délai et rend ses places.
+     * Sans effet si la réservation a été confirmée ou annulée entre-temps.
+     */
+    public boolean expireHold(Long id) {
+        Reservation reservation = reservationRepository.findById(id).orElse(null);
+        if (reservation == null || reservation.getStatut() != ReservationStatus.EN_ATTENTE) {
+            return false;
+        }
+        if (reservationRepository.updateStatusIfCurrent(id, ReservationStatus.EN_ATTENTE, ReservationStatus.ANNULEE) == 0) {
+            return false;
         }
+        releaseSeats(reservation);
+        eventPublisher.publishEvent(new ReservationStatusChangedEvent(
+                reservation.getId(),
+                reservation.getEvenement().getId(),
+                reservation.getUtilisateur().getId(),
+                reservation.getNombrePlaces(),
+                reservation.getMontantTotal(),
+                reservation.getDateReservation(),
+                ReservationStatus.EN_ATTENTE,
+                ReservationStatus.ANNULEE
+        ));
+        return true;
+    }
 
-        if (reservation.getStatut() == ReservationStatus.ANNULEE) {
-            throw new BadRequestException("Cette réservation est déjà annulée");
+    private Reservation draft(Event event, User user, int places, String commentaire) {
+        return Reservation.builder()
+                .utilisateur(user)
+                .evenement(event)
+                .nombrePlaces(places)
+                .commentaire(commentaire)
+                .sieges(seatMapService.allocate(event, places))
+                .montantTotal(places * event.getPrixUnitaire())
+                .dateReservation(LocalDateTime.now())
+                .statut(ReservationStatus.EN_ATTENTE)
+                .codeReservation(codeGenerator.generateReservationCode())
+                .build();
+    }
+
+    private Optional<Reservation> findExisting(String idempotencyKey) {
+        return idempotencyService.find(idempotencyKey).flatMap(reservationRepository::findById);
+    }
+
+    private void checkBookable(Event event) {
+        if (event.getStatut() != EventStatus.PUBLIE) {
+            throw new BadRequestException("Cet événement n'est pas disponible à la réservation");
         }
 
-        Event event = eventRepository.findById(reservation.getEvenement().getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Événement non trouvé"));
+        if (event.getDateDebut().isBefore(LocalDateTime.now())) {
+            throw new BadRequestException("Cet événement a déjà commencé");
+        }
+    }
 
-        LocalDateTime eventDate = event.getDateDebut();
-        if (eventDate.isBefore(LocalDateTime.now().plusHours(48))) {
-            throw new BadRequestException("Les réservations ne peuvent être annulées que 48h avant l'événement");
+    private void claimSeats(Event event, int places) {
+        seatInventory.reserve(event, places);
+        if (eventRepository.incrementReservedPlaces(event.getId(), places) == 0) {
+            int available = event.getCapaciteMax() - eventRepository.findReservedPlaces(event.getId());
+            throw new BadRequestException("Il ne reste que " + Math.max(available, 0) + " places disponibles");
         }
+    }
 
-        reservation.setStatut(ReservationStatus.ANNULEE);
-        return reservationRepository.save(reservation);
+    private void releaseSeats(Reservation reservation) {
+        Long eventId = reservation.getEvenement().getId();
+        eventRepository.decrementReservedPlaces(eventId, reservation.getNombrePlaces());
+        seatInventory.release(eventId, reservation.getNombrePlaces());
+        seatMapService.release(eventId, reservation.getSieges());
     }
 
     @Transactional(readOnly = true)
@@ -151,18 +396,12 @@ public class ReservationService {
     @Transactional(readOnly = true)
     public Map<String, Object> getGlobalStats() {
         Map<String, Object> stats = new HashMap<>();
-        List<Reservation> all = reservationRepository.findAllWithDetails();
-
-        stats.put("total", all.size());
-        stats.put("confirmees", all.stream().filter(r -> r.getStatut() == ReservationStatus.CONFIRMEE).count());
-        stats.put("enAttente", all.stream().filter(r -> r.getStatut() == ReservationStatus.EN_ATTENTE).count());
-        stats.put("annulees", all.stream().filter(r -> r.getStatut() == ReservationStatus.ANNULEE).count());
 
-        double totalRevenue = all.stream()
-                .filter(r -> r.getStatut() != ReservationStatus.ANNULEE)
-                .mapToDouble(Reservation::getMontantTotal)
-                .sum();
-        stats.put("totalRevenue", totalRevenue);
+        stats.put("total", reservationStatsService.countAll());
+        stats.put("confirmees", reservationStatsService.count(ReservationStatus.CONFIRMEE));
+        stats.put("enAttente", reservationStatsService.count(ReservationStatus.EN_ATTENTE));
+        stats.put("annulees", reservationStatsService.count(ReservationStatus.ANNULEE));
+        stats.put("totalRevenue", reservationStatsService.revenue());
 
         return stats;
     }
@@ -190,39 +429,23 @@ public class ReservationService {
 
     @Transactional(readOnly = true)
     public long countByOrganizer(User organizer) {
-        List<Event> organizerEvents = eventRepository.findByOrganisateurWithDetails(organizer);
-        return organizerEvents.stream()
-                .mapToLong(event -> reservationRepository.countByEvenement(event))
-                .sum();
+        return reservationRepository.countByOrganizer(organizer);
     }
 
     @Transactional(readOnly = true)
     public double calculateRevenueByOrganizer(User organizer) {
-        List<Event> organizerEvents = eventRepository.findByOrganisateurWithDetails(organizer);
-        return organizerEvents.stream()
-                .flatMap(event -> reservationRepository. findByEvenementWithDetails(event).stream())
-                .filter(r -> r.getStatut() != ReservationStatus. ANNULEE)
-                .mapToDouble(Reservation::getMontantTotal)
-                .sum();
+        return reservationRepository.sumRevenueByOrganizer(organizer);
     }
 
-    @Transactional(readOnly = true)
     public long countAll() {
-        return reservationRepository.count();
+        return reservationStatsService.countAll();
     }
 
-    @Transactional(readOnly = true)
     public long countPending() {
-        return reservationRepository.findAllWithDetails().stream()
-                .filter(r -> r.getStatut() == ReservationStatus. EN_ATTENTE)
-                .count();
+        return reservationStatsService.count(ReservationStatus.EN_ATTENTE);
     }
 
-    @Transactional(readOnly = true)
     public double calculateTotalRevenue() {
-        return reservationRepository.findAllWithDetails().stream()
-                .filter(r -> r.getStatut() != ReservationStatus.ANNULEE)
-                .mapToDouble(Reservation:: getMontantTotal)
-                .sum();
+        return reservationStatsService.revenue();
     }
 }
\ No newline at end of file
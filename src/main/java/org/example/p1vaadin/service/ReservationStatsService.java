@@ -0,0 +1,256 @@
+package org.example.p1vaadin.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.p1vaadin.domain.ReservationStatusTally;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.events.ListenerOrder;
+import org.example.p1vaadin.events.ReservationStatusChangedEvent;
+import org.example.p1vaadin.events.ReservationsBulkCancelledEvent;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.example.p1vaadin.repository.ReservationStatusTallyRepository;
+import org.example.p1vaadin.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistiques globales des réservations (nombre et montant par statut), tenues à jour à chaque
+ * changement de statut validé et lues en temps constant.
+ * Les compteurs sont sauvegardés en arrière-plan dans {@code reservation_stats}, repris au démarrage puis
+ * corrigés depuis la table des réservations, à laquelle une réconciliation périodique les compare aussi.
+ * Les montants sont comptés en centimes pour éviter la dérive des additions en virgule flottante.
+ */
+@Service
+public class ReservationStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationStatsService.class);
+    private static final int LOAD_ATTEMPTS = 5;
+    private static final long LOAD_RETRY_MS = 200;
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationStatusTallyRepository tallyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<ReservationStatus, Tally> tallies = new EnumMap<>(ReservationStatus.class);
+    private final AtomicLong generation = new AtomicLong();
+    // Transactions dont un changement de statut est en cours de validation : déjà visible dans la table
+    // (ou sur le point de l'être) mais pas encore compté ici
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public ReservationStatsService(ReservationRepository reservationRepository,
+                                   ReservationStatusTallyRepository tallyRepository,
+                                   TransactionTemplate transactionTemplate) {
+        this.reservationRepository = reservationRepository;
+        this.tallyRepository = tallyRepository;
+        this.transactionTemplate = transactionTemplate;
+        for (ReservationStatus status : ReservationStatus.values()) {
+            tallies.put(status, new Tally());
+        }
+    }
+
+    public long count(ReservationStatus status) {
+        return tallies.get(status).count.sum();
+    }
+
+    public long countAll() {
+        long total = 0;
+        for (Tally tally : tallies.values()) {
+            total += tally.count.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Chiffre d'affaires des réservations non annulées.
+     */
+    public double revenue() {
+        long cents = 0;
+        for (Map.Entry<ReservationStatus, Tally> entry : tallies.entrySet()) {
+            if (entry.getKey() != ReservationStatus.ANNULEE) {
+                cents += entry.getValue().cents.sum();
+            }
+        }
+        return cents / 100.0;
+    }
+
+    /**
+     * Marque la transaction comme en cours de validation jusqu'à sa fin. Le compteur n'est relâché qu'après
+     * les écouteurs AFTER_COMMIT ci-dessous, ordonnés avant les autres actions de fin de transaction.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT,
+            classes = {ReservationStatusChangedEvent.class, ReservationsBulkCancelledEvent.class})
+    public void onReservationsCommitting() {
+        inFlight.incrementAndGet();
+        TransactionHooks.afterCompletion(committed -> inFlight.decrementAndGet());
+    }
+
+    @TransactionalEventListener
+    @Order(ListenerOrder.AGGREGATES)
+    public void onReservationStatusChanged(ReservationStatusChangedEvent event) {
+        long cents = toCents(event.amount());
+        if (event.previousStatus() != null) {
+            add(event.previousStatus(), -1, -cents);
+        }
+        add(event.newStatus(), 1, cents);
+    }
+
+    @TransactionalEventListener
+    @Order(ListenerOrder.AGGREGATES)
+    public void onReservationsBulkCancelled(ReservationsBulkCancelledEvent event) {
+        long pendingCents = toCents(event.pendingAmount());
+        long confirmedCents = toCents(event.confirmedAmount());
+        add(ReservationStatus.EN_ATTENTE, -event.previouslyPending(), -pendingCents);
+        add(ReservationStatus.CONFIRMEE, -event.previouslyConfirmed(), -confirmedCents);
+        add(ReservationStatus.ANNULEE, event.count(), pendingCents + confirmedCents);
+    }
+
+    /**
+     * Reprend les compteurs sauvegardés, puis les corrige depuis la table des réservations : les compteurs
+     * sauvegardés peuvent avoir perdu les derniers écarts (arrêt brutal entre deux écritures). Si des
+     * réservations sont validées pendant chaque tentative de lecture, les compteurs repris restent en place
+     * jusqu'à la prochaine réconciliation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<ReservationStatusTally> saved = transactionTemplate.execute(status -> tallyRepository.findAll());
+        if (saved != null) {
+            saved.forEach(row -> add(row.getStatut(), row.getNombre(), row.getMontantCentimes()));
+        }
+        List<StatsDrift> drifts = correctFromTable();
+        for (int attempt = 1; drifts == null && attempt < LOAD_ATTEMPTS; attempt++) {
+            try {
+                Thread.sleep(LOAD_RETRY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            drifts = correctFromTable();
+        }
+        if (drifts == null) {
+            log.warn("Statistiques sauvegardées reprises sans correction : réservations modifiées pendant la lecture");
+        } else {
+            drifts.forEach(d -> log.warn("Statistiques sauvegardées en retard pour {} : {} -> {} réservations",
+                    d.status(), d.count(), d.actualCount()));
+        }
+        dirty.set(true);
+        flush();
+        log.info("Statistiques des réservations initialisées ({} réservations)", countAll());
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.flush-interval-ms:5000}")
+    @PreDestroy
+    public void flush() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        List<ReservationStatusTally> rows = new ArrayList<>();
+        tallies.forEach((status, tally) -> rows.add(ReservationStatusTally.builder()
+                .statut(status)
+                .nombre(tally.count.sum())
+                .montantCentimes(tally.cents.sum())
+                .build()));
+        try {
+            transactionTemplate.executeWithoutResult(status -> tallyRepository.saveAll(rows));
+        } catch (RuntimeException ex) {
+            dirty.set(true);
+            throw ex;
+        }
+    }
+
+    /**
+     * Compare les compteurs à la table des réservations et corrige les écarts.
+     * Si un changement de statut est en cours de validation ou arrive pendant la lecture, la comparaison
+     * est reportée au passage suivant.
+     */
+    @Scheduled(cron = "${app.stats.reconcile-cron:0 45 3 * * *}")
+    public List<StatsDrift> reconcile() {
+        List<StatsDrift> drifts = correctFromTable();
+        if (drifts == null) {
+            log.info("Réconciliation des statistiques reportée : réservations modifiées pendant la lecture");
+            return List.of();
+        }
+        if (drifts.isEmpty()) {
+            log.info("Statistiques des réservations cohérentes avec la table");
+        } else {
+            drifts.forEach(d -> log.warn("Statistiques corrigées pour {} : {} -> {} réservations, {} -> {} DH",
+                    d.status(), d.count(), d.actualCount(), d.amount(), d.actualAmount()));
+        }
+        return drifts;
+    }
+
+    /**
+     * Corrige les compteurs de l'écart entre la table et un relevé des compteurs, tous deux pris entre deux
+     * lectures identiques de {@code generation} sans transaction en cours de validation : chaque réservation
+     * lue dans la table est alors déjà comptée dans le relevé. La correction s'ajoute aux compteurs, sans
+     * effacer les changements appliqués depuis. Renvoie nul si la lecture doit être reprise.
+     */
+    private List<StatsDrift> correctFromTable() {
+        long before = generation.get();
+        if (inFlight.get() != 0) {
+            return null;
+        }
+        Map<ReservationStatus, long[]> counted = new EnumMap<>(ReservationStatus.class);
+        tallies.forEach((status, tally) -> counted.put(status, new long[]{tally.count.sum(), tally.cents.sum()}));
+        Map<ReservationStatus, long[]> actual = actualTotals();
+        if (inFlight.get() != 0 || generation.get() != before) {
+            return null;
+        }
+
+        List<StatsDrift> drifts = new ArrayList<>();
+        for (ReservationStatus status : ReservationStatus.values()) {
+            long[] expected = actual.getOrDefault(status, new long[2]);
+            long[] current = counted.get(status);
+            if (current[0] != expected[0] || current[1] != expected[1]) {
+                drifts.add(new StatsDrift(status, current[0], expected[0], current[1] / 100.0, expected[1] / 100.0));
+                add(status, expected[0] - current[0], expected[1] - current[1]);
+            }
+        }
+        return drifts;
+    }
+
+    private Map<ReservationStatus, long[]> actualTotals() {
+        Map<ReservationStatus, long[]> totals = new EnumMap<>(ReservationStatus.class);
+        List<Object[]> rows = transactionTemplate.execute(status -> reservationRepository.countAndSumGroupedByStatus());
+        for (Object[] row : rows) {
+            totals.put((ReservationStatus) row[0],
+                    new long[]{((Number) row[1]).longValue(), toCents(((Number) row[2]).doubleValue())});
+        }
+        return totals;
+    }
+
+    private void add(ReservationStatus status, long count, long cents) {
+        Tally tally = tallies.get(status);
+        tally.count.add(count);
+        tally.cents.add(cents);
+        generation.incrementAndGet();
+        dirty.set(true);
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    public record StatsDrift(ReservationStatus status, long count, long actualCount, double amount, double actualAmount) {
+    }
+
+    private static final class Tally {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder cents = new LongAdder();
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.events.ListenerOrder;
+import org.example.p1vaadin.events.ReservationStatusChangedEvent;
+import org.example.p1vaadin.events.ReservationsBulkCancelledEvent;
+import org.example.p1vaadin.repository.EventRepository;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Nombre de réservations par statut pour chaque événement et chaque organisateur, tenus à jour
+ * à chaque changement de statut validé : la répartition d'un organisateur se lit en temps constant,
+ * quelle que soit la taille de son catalogue. Initialisés au démarrage et réconciliés chaque nuit.
+ */
+@Service
+public class ReservationStatusCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationStatusCounters.class);
+
+    private static final int STATUSES = ReservationStatus.values().length;
+
+    private final ReservationRepository reservationRepository;
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<Long, AtomicLongArray> byEvent = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AtomicLongArray> byOrganizer = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> organizerByEvent = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public ReservationStatusCounters(ReservationRepository reservationRepository, EventRepository eventRepository,
+                                     TransactionTemplate transactionTemplate) {
+        this.reservationRepository = reservationRepository;
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public StatusDistribution forEvent(Long eventId) {
+        return StatusDistribution.of(byEvent.get(eventId));
+    }
+
+    public StatusDistribution forOrganizer(Long organizerId) {
+        return StatusDistribution.of(byOrganizer.get(organizerId));
+    }
+
+    /**
+     * Organisateur de l'événement, lu une seule fois puis conservé.
+     */
+    public Long organizerOf(Long eventId) {
+        Long organizerId = organizerByEvent.get(eventId);
+        if (organizerId == null) {
+            List<Object[]> rows = transactionTemplate.execute(status -> eventRepository.findOrganizerIds(List.of(eventId)));
+            if (rows != null && !rows.isEmpty()) {
+                organizerId = (Long) rows.get(0)[1];
+                organizerByEvent.put(eventId, organizerId);
+            }
+        }
+        return organizerId;
+    }
+
+    @TransactionalEventListener
+    @Order(ListenerOrder.AGGREGATES)
+    public void onReservationStatusChanged(ReservationStatusChangedEvent event) {
+        if (event.previousStatus() != null) {
+            add(event.eventId(), event.previousStatus(), -1);
+        }
+        add(event.eventId(), event.newStatus(), 1);
+    }
+
+    @TransactionalEventListener
+    @Order(ListenerOrder.AGGREGATES)
+    public void onReservationsBulkCancelled(ReservationsBulkCancelledEvent event) {
+        add(event.eventId(), ReservationStatus.EN_ATTENTE, -event.previouslyPending());
+        add(event.eventId(), ReservationStatus.CONFIRMEE, -event.previouslyConfirmed());
+        add(event.eventId(), ReservationStatus.ANNULEE, event.count());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<Long, long[]> actual = actualCounts();
+        actual.forEach((eventId, counts) -> correct(eventId, counts));
+        log.info("Compteurs de statuts initialisés pour {} événements", byEvent.size());
+    }
+
+    /**
+     * Compare les compteurs de chaque événement à la table des réservations et corrige les écarts.
+     * Si un changement de statut arrive pendant la lecture, la comparaison est reportée au passage suivant.
+     */
+    @Scheduled(cron = "${app.status-counters.reconcile-cron:0 55 3 * * *}")
+    public int reconcile() {
+        long before = generation.get();
+        Map<Long, long[]> actual = actualCounts();
+        if (generation.get() != before) {
+            log.info("Réconciliation des compteurs de statuts reportée : réservations modifiées pendant la lecture");
+            return 0;
+        }
+
+        int drifts = 0;
+        for (Long eventId : byEvent.keySet()) {
+            if (correct(eventId, actual.getOrDefault(eventId, new long[STATUSES]))) {
+                drifts++;
+            }
+        }
+        if (drifts > 0) {
+            log.warn("Compteurs de statuts corrigés pour {} événements", drifts);
+        }
+        return drifts;
+    }
+
+    private boolean correct(Long eventId, long[] expected) {
+        boolean drift = false;
+        AtomicLongArray counts = byEvent.computeIfAbsent(eventId, id -> new AtomicLongArray(STATUSES));
+        for (ReservationStatus status : ReservationStatus.values()) {
+            long delta = expected[status.ordinal()] - counts.get(status.ordinal());
+            if (delta != 0) {
+                add(eventId, status, delta);
+                drift = true;
+            }
+        }
+        return drift;
+    }
+
+    private Map<Long, long[]> actualCounts() {
+        Map<Long, long[]> counts = new HashMap<>();
+        List<Object[]> rows = transactionTemplate.execute(status -> reservationRepository.countByEventOrganizerAndStatus());
+        for (Object[] row : rows) {
+            Long eventId = (Long) row[0];
+            organizerByEvent.putIfAbsent(eventId, (Long) row[1]);
+            counts.computeIfAbsent(eventId, id -> new long[STATUSES])[((ReservationStatus) row[2]).ordinal()] =
+                    ((Number) row[3]).longValue();
+        }
+        return counts;
+    }
+
+    private void add(Long eventId, ReservationStatus status, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        byEvent.computeIfAbsent(eventId, id -> new AtomicLongArray(STATUSES)).addAndGet(status.ordinal(), delta);
+        Long organizerId = organizerOf(eventId);
+        if (organizerId != null) {
+            byOrganizer.computeIfAbsent(organizerId, id -> new AtomicLongArray(STATUSES)).addAndGet(status.ordinal(), delta);
+        }
+        generation.incrementAndGet();
+    }
+
+    public record StatusDistribution(long pending, long confirmed, long cancelled) {
+
+        static StatusDistribution of(AtomicLongArray counts) {
+            if (counts == null) {
+                return new StatusDistribution(0, 0, 0);
+            }
+            return new StatusDistribution(
+                    counts.get(ReservationStatus.EN_ATTENTE.ordinal()),
+                    counts.get(ReservationStatus.CONFIRMEE.ordinal()),
+                    counts.get(ReservationStatus.ANNULEE.ordinal()));
+        }
+
+        public long total() {
+            return pending + confirmed + cancelled;
+        }
+
+        public long count(ReservationStatus status) {
+            return switch (status) {
+                case EN_ATTENTE -> pending;
+                case CONFIRMEE -> confirmed;
+                case ANNULEE -> cancelled;
+            };
+        }
+
+        /**
+         * Part des réservations dans ce statut, en pourcentage arrondi.
+         */
+        public int share(ReservationStatus status) {
+            long total = total();
+            return total == 0 ? 0 : (int) Math.round(100.0 * count(status) / total);
+        }
+    }
+}
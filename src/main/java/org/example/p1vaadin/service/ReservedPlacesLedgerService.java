@@ -0,0 +1,86 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.repository.EventRepository;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réparation du registre {@code events.reserved_places} : recalcule les places réservées
+ * depuis la table des réservations et corrige les événements dont le registre a dérivé.
+ * Chaque correction relit la somme sous le verrou de la ligne de l'événement, que toute réservation
+ * prend aussi : une réservation validée entre deux lectures ne peut pas faire baisser le registre.
+ */
+@Service
+public class ReservedPlacesLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservedPlacesLedgerService.class);
+
+    private final EventRepository eventRepository;
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReservedPlacesLedgerService(EventRepository eventRepository, ReservationRepository reservationRepository,
+                                       TransactionTemplate transactionTemplate) {
+        this.eventRepository = eventRepository;
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(cron = "${app.ledger.repair-cron:0 30 3 * * *}")
+    public List<LedgerDrift> repair() {
+        Map<Long, Integer> actual = new HashMap<>();
+        for (Object[] row : reservationRepository.sumPlacesReservedGroupedByEvent()) {
+            actual.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+
+        // Les deux lectures ne désignent que des candidats : l'écart est vérifié et corrigé sous verrou
+        List<LedgerDrift> drifts = new ArrayList<>();
+        for (Object[] row : eventRepository.findAllReservedPlaces()) {
+            Long eventId = (Long) row[0];
+            if (((Number) row[1]).intValue() != actual.getOrDefault(eventId, 0)) {
+                LedgerDrift drift = align(eventId);
+                if (drift != null) {
+                    drifts.add(drift);
+                }
+            }
+        }
+
+        if (drifts.isEmpty()) {
+            log.info("Registre des places cohérent avec les réservations");
+        } else {
+            drifts.forEach(d -> log.warn("Registre corrigé pour l'événement {} : {} -> {}", d.eventId(), d.ledger(), d.actual()));
+        }
+        return drifts;
+    }
+
+    /**
+     * Aligne le registre d'un événement sur ses réservations actives, dans une transaction qui tient
+     * le verrou de la ligne de l'événement. Retourne l'écart corrigé, ou {@code null} s'il n'y en avait pas.
+     */
+    public LedgerDrift align(Long eventId) {
+        return transactionTemplate.execute(status -> {
+            Integer ledger = eventRepository.lockReservedPlaces(eventId);
+            if (ledger == null) {
+                return null;
+            }
+            int actual = reservationRepository.sumPlacesReservedForEvent(eventRepository.getReferenceById(eventId));
+            if (ledger == actual) {
+                return null;
+            }
+            eventRepository.setReservedPlaces(eventId, actual);
+            return new LedgerDrift(eventId, ledger, actual);
+        });
+    }
+
+    public record LedgerDrift(Long eventId, int ledger, int actual) {
+    }
+}
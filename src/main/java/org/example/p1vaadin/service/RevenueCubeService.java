@@ -0,0 +1,288 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.enums.EventCategory;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.events.ReservationStatusChangedEvent;
+import org.example.p1vaadin.events.ReservationsBulkCancelledEvent;
+import org.example.p1vaadin.repository.EventRepository;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.example.p1vaadin.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Cube pré-agrégé des réservations : nombre, places et montant (en centimes) par
+ * catégorie × statut × mois de l'événement × ville. Tenu à jour à chaque changement de statut validé ;
+ * une requête de découpage ne parcourt que les cellules (quelques milliers au plus), jamais les réservations.
+ * Les totaux de chaque événement sont aussi conservés, pour déplacer sa contribution lorsque sa catégorie,
+ * sa ville ou sa date change, et pour appliquer une annulation en masse d'un seul coup.
+ */
+@Service
+public class RevenueCubeService {
+
+    private static final Logger log = LoggerFactory.getLogger(RevenueCubeService.class);
+
+    private static final ReservationStatus[] STATUSES = ReservationStatus.values();
+
+    private final ReservationRepository reservationRepository;
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<Cell, Measures> cells = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, EventSlot> events = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public RevenueCubeService(ReservationRepository reservationRepository, EventRepository eventRepository,
+                              TransactionTemplate transactionTemplate) {
+        this.reservationRepository = reservationRepository;
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Agrège les cellules retenues par {@code filter} selon la dimension {@code dimension}.
+     */
+    public <K> Map<K, Totals> aggregate(Predicate<Cell> filter, Function<Cell, K> dimension) {
+        Map<K, long[]> sums = new HashMap<>();
+        cells.forEach((cell, measures) -> {
+            if (filter.test(cell)) {
+                long[] sum = sums.computeIfAbsent(dimension.apply(cell), k -> new long[3]);
+                sum[0] += measures.count.sum();
+                sum[1] += measures.places.sum();
+                sum[2] += measures.cents.sum();
+            }
+        });
+        Map<K, Totals> result = new HashMap<>();
+        sums.forEach((key, sum) -> result.put(key, new Totals(sum[0], sum[1], sum[2] / 100.0)));
+        return result;
+    }
+
+    public Totals total(Predicate<Cell> filter) {
+        return aggregate(filter, cell -> Boolean.TRUE).getOrDefault(Boolean.TRUE, Totals.EMPTY);
+    }
+
+    public List<String> cities() {
+        TreeSet<String> cities = new TreeSet<>();
+        cells.keySet().forEach(cell -> cities.add(cell.city()));
+        return List.copyOf(cities);
+    }
+
+    public List<YearMonth> months() {
+        TreeSet<YearMonth> months = new TreeSet<>();
+        cells.keySet().forEach(cell -> months.add(cell.month()));
+        return List.copyOf(months);
+    }
+
+    /**
+     * Déplace la contribution de l'événement vers ses nouvelles coordonnées une fois la transaction validée.
+     */
+    public void relocate(Event event) {
+        Dims dims = Dims.of(event.getCategorie(), event.getVille(), event.getDateDebut());
+        Long eventId = event.getId();
+        TransactionHooks.afterCommit(() -> {
+            EventSlot slot = events.get(eventId);
+            if (slot == null) {
+                return;
+            }
+            synchronized (slot) {
+                if (slot.dims.equals(dims)) {
+                    return;
+                }
+                for (ReservationStatus status : STATUSES) {
+                    long[] t = slot.totals[status.ordinal()];
+                    cell(slot.dims, status).add(-t[0], -t[1], -t[2]);
+                    cell(dims, status).add(t[0], t[1], t[2]);
+                }
+                slot.dims = dims;
+                generation.incrementAndGet();
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    public void onReservationStatusChanged(ReservationStatusChangedEvent event) {
+        long cents = toCents(event.amount());
+        EventSlot slot = slot(event.eventId());
+        if (slot == null) {
+            return;
+        }
+        synchronized (slot) {
+            if (event.previousStatus() != null) {
+                apply(slot, event.previousStatus(), -1, -event.places(), -cents);
+            }
+            apply(slot, event.newStatus(), 1, event.places(), cents);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onReservationsBulkCancelled(ReservationsBulkCancelledEvent event) {
+        long pendingCents = toCents(event.pendingAmount());
+        long confirmedCents = toCents(event.confirmedAmount());
+        EventSlot slot = slot(event.eventId());
+        if (slot == null) {
+            return;
+        }
+        synchronized (slot) {
+            apply(slot, ReservationStatus.EN_ATTENTE, -event.previouslyPending(), -event.pendingPlaces(), -pendingCents);
+            apply(slot, ReservationStatus.CONFIRMEE, -event.previouslyConfirmed(), -event.confirmedPlaces(),
+                    -confirmedCents);
+            apply(slot, ReservationStatus.ANNULEE, event.count(), event.places(), pendingCents + confirmedCents);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<Long, Dims> dims = new HashMap<>();
+        Map<Long, long[][]> actual = actualTotals(dims);
+        actual.forEach((eventId, totals) -> {
+            EventSlot slot = events.computeIfAbsent(eventId, id -> new EventSlot(dims.get(id)));
+            synchronized (slot) {
+                correct(slot, totals);
+            }
+        });
+        log.info("Cube des revenus initialisé ({} cellules, {} événements)", cells.size(), events.size());
+    }
+
+    /**
+     * Compare les totaux de chaque événement à la table des réservations et corrige les écarts.
+     * Si un changement arrive pendant la lecture, la comparaison est reportée au passage suivant.
+     */
+    @Scheduled(cron = "${app.cube.reconcile-cron:0 50 3 * * *}")
+    public int reconcile() {
+        long before = generation.get();
+        Map<Long, long[][]> actual = actualTotals(new HashMap<>());
+        if (generation.get() != before) {
+            log.info("Réconciliation du cube reportée : réservations modifiées pendant la lecture");
+            return 0;
+        }
+
+        int drifts = 0;
+        for (Map.Entry<Long, EventSlot> entry : events.entrySet()) {
+            EventSlot slot = entry.getValue();
+            long[][] expected = actual.getOrDefault(entry.getKey(), new long[STATUSES.length][3]);
+            synchronized (slot) {
+                if (correct(slot, expected)) {
+                    drifts++;
+                }
+            }
+        }
+        if (drifts > 0) {
+            log.warn("Cube des revenus corrigé pour {} événements", drifts);
+        }
+        return drifts;
+    }
+
+    private boolean correct(EventSlot slot, long[][] expected) {
+        boolean drift = false;
+        for (ReservationStatus status : STATUSES) {
+            long[] t = slot.totals[status.ordinal()];
+            long[] e = expected[status.ordinal()];
+            if (t[0] != e[0] || t[1] != e[1] || t[2] != e[2]) {
+                apply(slot, status, e[0] - t[0], e[1] - t[1], e[2] - t[2]);
+                drift = true;
+            }
+        }
+        return drift;
+    }
+
+    private Map<Long, long[][]> actualTotals(Map<Long, Dims> dims) {
+        Map<Long, long[][]> totals = new HashMap<>();
+        List<Object[]> rows = transactionTemplate.execute(status -> reservationRepository.countAndSumByEventAndStatus());
+        for (Object[] row : rows) {
+            Long eventId = (Long) row[0];
+            dims.putIfAbsent(eventId, Dims.of((EventCategory) row[1], (String) row[2], (LocalDateTime) row[3]));
+            long[][] event = totals.computeIfAbsent(eventId, id -> new long[STATUSES.length][3]);
+            event[((ReservationStatus) row[4]).ordinal()] = new long[]{
+                    ((Number) row[5]).longValue(),
+                    ((Number) row[6]).longValue(),
+                    toCents(((Number) row[7]).doubleValue())};
+        }
+        return totals;
+    }
+
+    // Appelé sous le verrou de l'événement
+    private void apply(EventSlot slot, ReservationStatus status, long count, long places, long cents) {
+        long[] t = slot.totals[status.ordinal()];
+        t[0] += count;
+        t[1] += places;
+        t[2] += cents;
+        cell(slot.dims, status).add(count, places, cents);
+        generation.incrementAndGet();
+    }
+
+    private Measures cell(Dims dims, ReservationStatus status) {
+        return cells.computeIfAbsent(new Cell(dims.category(), status, dims.month(), dims.city()), c -> new Measures());
+    }
+
+    private EventSlot slot(Long eventId) {
+        EventSlot slot = events.get(eventId);
+        if (slot != null) {
+            return slot;
+        }
+        Dims dims = transactionTemplate.execute(status -> eventRepository.findById(eventId)
+                .map(e -> Dims.of(e.getCategorie(), e.getVille(), e.getDateDebut()))
+                .orElse(null));
+        if (dims == null) {
+            return null;
+        }
+        return events.computeIfAbsent(eventId, id -> new EventSlot(dims));
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    public record Cell(EventCategory category, ReservationStatus status, YearMonth month, String city) {
+    }
+
+    public record Totals(long count, long places, double amount) {
+
+        static final Totals EMPTY = new Totals(0, 0, 0);
+    }
+
+    private record Dims(EventCategory category, YearMonth month, String city) {
+
+        static Dims of(EventCategory category, String city, LocalDateTime start) {
+            return new Dims(category, YearMonth.from(start), city);
+        }
+    }
+
+    private static final class Measures {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder places = new LongAdder();
+        private final LongAdder cents = new LongAdder();
+
+        private void add(long count, long places, long cents) {
+            this.count.add(count);
+            this.places.add(places);
+            this.cents.add(cents);
+        }
+    }
+
+    private static final class EventSlot {
+        private Dims dims;
+        private final long[][] totals = new long[STATUSES.length][3];
+
+        private EventSlot(Dims dims) {
+            this.dims = dims;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package org.example.p1vaadin.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.p1vaadin.domain.DailyRollup;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.events.ListenerOrder;
+import org.example.p1vaadin.events.ReservationStatusChangedEvent;
+import org.example.p1vaadin.events.ReservationsBulkCancelledEvent;
+import org.example.p1vaadin.repository.DailyRollupRepository;
+import org.example.p1vaadin.repository.EventRepository;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Agrégats journaliers de l'activité de réservation par événement (et par organisateur).
+ * Chaque changement de statut validé est ajouté en mémoire au jour où il a lieu, puis les écarts
+ * accumulés sont écrits en arrière-plan dans {@code daily_rollups}. Les séries mensuelles sont lues
+ * dans cette table, sans parcourir les réservations, et complétées des écarts pas encore écrits.
+ * Une annulation est comptée le jour où elle a lieu : le montant remboursé est déduit du mois courant.
+ */
+@Service
+public class RevenueRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(RevenueRollupService.class);
+
+    private final DailyRollupRepository rollupRepository;
+    private final ReservationRepository reservationRepository;
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<DailyRollup.Key, Delta> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> organizerByEvent = new ConcurrentHashMap<>();
+    private final AtomicBoolean loaded = new AtomicBoolean();
+    // Une écriture (écarts retirés de pending puis validés en base) exclut les lectures des séries :
+    // sans cela, une lecture pourrait manquer les écarts en cours d'écriture, ou les compter deux fois
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    public RevenueRollupService(DailyRollupRepository rollupRepository, ReservationRepository reservationRepository,
+                                EventRepository eventRepository, TransactionTemplate transactionTemplate) {
+        this.rollupRepository = rollupRepository;
+        this.reservationRepository = reservationRepository;
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Revenus nets, places et réservations nettes d'un organisateur pour chaque mois de
+     * {@code from} à {@code to} inclus ; les mois sans activité valent zéro.
+     */
+    public List<MonthlyRevenue> monthlyForOrganizer(User organizer, YearMonth from, YearMonth to) {
+        flushLock.readLock().lock();
+        try {
+            List<Object[]> rows = transactionTemplate.execute(status -> {
+                resolveOrganizers(pending.keySet());
+                return rollupRepository.sumByMonthForOrganizer(organizer.getId(), from.atDay(1), to.plusMonths(1).atDay(1));
+            });
+            return toSeries(rows, unflushed(key -> organizer.getId().equals(organizerByEvent.get(key.getEventId()))), from, to);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    public List<MonthlyRevenue> monthlyForEvent(Long eventId, YearMonth from, YearMonth to) {
+        flushLock.readLock().lock();
+        try {
+            List<Object[]> rows = transactionTemplate.execute(status -> rollupRepository.sumByMonthForEvent(
+                    eventId, from.atDay(1), to.plusMonths(1).atDay(1)));
+            return toSeries(rows, unflushed(key -> eventId.equals(key.getEventId())), from, to);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    @Order(ListenerOrder.AGGREGATES)
+    public void onReservationStatusChanged(ReservationStatusChangedEvent event) {
+        long cents = toCents(event.amount());
+        if (event.isCreation()) {
+            LocalDate day = event.reservedAt() != null ? event.reservedAt().toLocalDate() : LocalDate.now();
+            delta(day, event.eventId()).booked(event.places(), cents);
+        }
+        if (event.newStatus() == ReservationStatus.CONFIRMEE) {
+            delta(LocalDate.now(), event.eventId()).confirmed();
+        } else if (event.newStatus() == ReservationStatus.ANNULEE) {
+            delta(LocalDate.now(), event.eventId()).cancelled(1, event.places(), cents);
+        }
+    }
+
+    @TransactionalEventListener
+    @Order(ListenerOrder.AGGREGATES)
+    public void onReservationsBulkCancelled(ReservationsBulkCancelledEvent event) {
+        delta(LocalDate.now(), event.eventId()).cancelled(event.count(), event.places(),
+                toCents(event.pendingAmount()) + toCents(event.confirmedAmount()));
+    }
+
+    /**
+     * Construit les agrégats à partir des réservations si la table est vide (premier démarrage).
+     * Faute de date d'annulation, les réservations déjà annulées le sont au jour de leur réservation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Long existing = transactionTemplate.execute(status -> rollupRepository.count());
+        if (existing != null && existing > 0) {
+            loaded.set(true);
+            return;
+        }
+        List<DailyRollup> rows = new ArrayList<>();
+        for (Object[] row : transactionTemplate.execute(status -> reservationRepository.summarizeByDayAndEvent())) {
+            rows.add(DailyRollup.builder()
+                    .id(new DailyRollup.Key((LocalDate) row[0], (Long) row[1]))
+                    .organizerId((Long) row[2])
+                    .reservations(((Number) row[3]).longValue())
+                    .places(((Number) row[4]).longValue())
+                    .montantCentimes(toCents(((Number) row[5]).doubleValue()))
+                    .confirmations(((Number) row[6]).longValue())
+                    .annulations(((Number) row[7]).longValue())
+                    .placesAnnulees(((Number) row[8]).longValue())
+                    .rembourseCentimes(toCents(((Number) row[9]).doubleValue()))
+                    .build());
+        }
+        transactionTemplate.executeWithoutResult(status -> rollupRepository.saveAll(rows));
+        loaded.set(true);
+        log.info("Agrégats journaliers initialisés ({} jours-événements)", rows.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.rollups.flush-interval-ms:5000}")
+    @PreDestroy
+    public void flush() {
+        if (!loaded.get()) {
+            return; // les écarts attendent la construction initiale de la table
+        }
+        flushLock.writeLock().lock();
+        try {
+            Map<DailyRollup.Key, Delta> drained = new HashMap<>();
+            pending.forEach((key, delta) -> {
+                Delta taken = delta.drain();
+                if (!taken.isEmpty()) {
+                    drained.put(key, taken);
+                }
+            });
+            LocalDate yesterday = LocalDate.now().minusDays(1);
+            pending.entrySet().removeIf(e -> e.getKey().getJour().isBefore(yesterday) && e.getValue().isEmpty());
+            if (drained.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(drained));
+            } catch (RuntimeException ex) {
+                drained.forEach((key, delta) -> pending.computeIfAbsent(key, k -> new Delta()).merge(delta));
+                throw ex;
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    private void write(Map<DailyRollup.Key, Delta> drained) {
+        resolveOrganizers(drained.keySet());
+        Map<DailyRollup.Key, DailyRollup> rows = new HashMap<>();
+        rollupRepository.findAllById(drained.keySet()).forEach(row -> rows.put(row.getId(), row));
+
+        drained.forEach((key, delta) -> {
+            DailyRollup row = rows.get(key);
+            if (row == null) {
+                Long organizerId = organizerByEvent.get(key.getEventId());
+                if (organizerId == null) {
+                    return; // événement supprimé entre-temps
+                }
+                row = DailyRollup.builder().id(key).organizerId(organizerId).build();
+                rows.put(key, row);
+            }
+            row.setReservations(row.getReservations() + delta.reservations);
+            row.setPlaces(row.getPlaces() + delta.places);
+            row.setConfirmations(row.getConfirmations() + delta.confirmations);
+            row.setAnnulations(row.getAnnulations() + delta.annulations);
+            row.setPlacesAnnulees(row.getPlacesAnnulees() + delta.placesAnnulees);
+            row.setMontantCentimes(row.getMontantCentimes() + delta.montantCentimes);
+            row.setRembourseCentimes(row.getRembourseCentimes() + delta.rembourseCentimes);
+        });
+        rollupRepository.saveAll(rows.values());
+    }
+
+    private void resolveOrganizers(Set<DailyRollup.Key> keys) {
+        Set<Long> missing = new HashSet<>();
+        for (DailyRollup.Key key : keys) {
+            if (!organizerByEvent.containsKey(key.getEventId())) {
+                missing.add(key.getEventId());
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Object[] row : eventRepository.findOrganizerIds(missing)) {
+                organizerByEvent.put((Long) row[0], (Long) row[1]);
+            }
+        }
+    }
+
+    // Écarts pas encore écrits des clés retenues, cumulés par mois ; appelé sous le verrou de lecture
+    private Map<YearMonth, Delta> unflushed(Predicate<DailyRollup.Key> filter) {
+        Map<YearMonth, Delta> byMonth = new HashMap<>();
+        pending.forEach((key, delta) -> {
+            if (filter.test(key)) {
+                byMonth.computeIfAbsent(YearMonth.from(key.getJour()), m -> new Delta()).merge(delta.copy());
+            }
+        });
+        return byMonth;
+    }
+
+    private Delta delta(LocalDate day, Long eventId) {
+        return pending.computeIfAbsent(new DailyRollup.Key(day, eventId), k -> new Delta());
+    }
+
+    private static List<MonthlyRevenue> toSeries(List<Object[]> rows, Map<YearMonth, Delta> unflushed,
+                                                 YearMonth from, YearMonth to) {
+        Map<YearMonth, Object[]> byMonth = new HashMap<>();
+        for (Object[] row : rows) {
+            byMonth.put(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()), row);
+        }
+        List<MonthlyRevenue> series = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            Object[] row = byMonth.get(month);
+            long reservations = row == null ? 0 : ((Number) row[2]).longValue();
+            long places = row == null ? 0 : ((Number) row[3]).longValue();
+            long cents = row == null ? 0 : ((Number) row[4]).longValue();
+            Delta delta = unflushed.get(month);
+            if (delta != null) {
+                reservations += delta.reservations - delta.annulations;
+                places += delta.places - delta.placesAnnulees;
+                cents += delta.montantCentimes - delta.rembourseCentimes;
+            }
+            series.add(new MonthlyRevenue(month, reservations, places, cents / 100.0));
+        }
+        return series;
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    public record MonthlyRevenue(YearMonth month, long reservations, long places, double revenue) {
+    }
+
+    private static final class Delta {
+        private long reservations;
+        private long places;
+        private long confirmations;
+        private long annulations;
+        private long placesAnnulees;
+        private long montantCentimes;
+        private long rembourseCentimes;
+
+        synchronized void booked(int places, long cents) {
+            this.reservations++;
+            this.places += places;
+            this.montantCentimes += cents;
+        }
+
+        synchronized void confirmed() {
+            this.confirmations++;
+        }
+
+        synchronized void cancelled(int count, int places, long cents) {
+            this.annulations += count;
+            this.placesAnnulees += places;
+            this.rembourseCentimes += cents;
+        }
+
+        synchronized void merge(Delta other) {
+            reservations += other.reservations;
+            places += other.places;
+            confirmations += other.confirmations;
+            annulations += other.annulations;
+            placesAnnulees += other.placesAnnulees;
+            montantCentimes += other.montantCentimes;
+            rembourseCentimes += other.rembourseCentimes;
+        }
+
+        synchronized Delta copy() {
+            Delta copy = new Delta();
+            copy.merge(this);
+            return copy;
+        }
+
+        synchronized Delta drain() {
+            Delta taken = new Delta();
+            taken.merge(this);
+            reservations = places = confirmations = annulations = placesAnnulees = montantCentimes = rembourseCentimes = 0;
+            return taken;
+        }
+
+        synchronized boolean isEmpty() {
+            return reservations == 0 && confirmations == 0 && annulations == 0;
+        }
+    }
+}
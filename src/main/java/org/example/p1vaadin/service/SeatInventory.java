@@ -0,0 +1,159 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.exception.BadRequestException;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.example.p1vaadin.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Inventaire des places par événement, tenu en mémoire avec des compteurs atomiques.
+ * Chaque événement a son propre compteur : deux réservations sur des événements différents
+ * ne se bloquent jamais, et une réservation sur un même événement se fait par CAS, sans verrou.
+ * Le compteur est initialisé depuis les réservations actives (somme des places non annulées, sous un
+ * verrou par tranche d'id) puis réconcilié périodiquement avec elles : la table des réservations fait foi,
+ * le registre {@code events.reserved_places} est vérifié à part par {@link ReservedPlacesLedgerService}.
+ */
+@Service
+public class SeatInventory {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatInventory.class);
+
+    private static final int STRIPES = 64;
+
+    private final ReservationRepository reservationRepository;
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final Object[] stripes = new Object[STRIPES];
+
+    public SeatInventory(ReservationRepository reservationRepository) {
+        this.reservationRepository = reservationRepository;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * Retient {@code places} places dans la transaction courante.
+     * Les places sont rendues automatiquement si la transaction est annulée.
+     */
+    public void reserve(Event event, int places) {
+        Counter counter = counter(event);
+        int capacity = event.getCapaciteMax();
+        while (true) {
+            int current = counter.reserved.get();
+            int available = capacity - current;
+            if (places > available) {
+                throw new BadRequestException("Il ne reste que " + Math.max(available, 0) + " places disponibles");
+            }
+            if (counter.reserved.compareAndSet(current, current + places)) {
+                break;
+            }
+        }
+        counter.inFlight.addAndGet(places);
+        TransactionHooks.afterCompletion(committed -> {
+            counter.inFlight.addAndGet(-places);
+            if (!committed) {
+                counter.reserved.addAndGet(-places);
+            }
+        });
+    }
+
+    /**
+     * Rend {@code places} places une fois la transaction courante validée.
+     */
+    public void release(Long eventId, int places) {
+        TransactionHooks.afterCommit(() -> {
+            Counter counter = counters.get(eventId);
+            if (counter != null) {
+                counter.reserved.addAndGet(-places);
+            }
+        });
+    }
+
+    public int available(Event event) {
+        return Math.max(event.getCapaciteMax() - counter(event).reserved.get(), 0);
+    }
+
+    public void evict(Long eventId) {
+        counters.remove(eventId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        loadReservedPlaces().forEach((eventId, reserved) ->
+                counters.putIfAbsent(eventId, new Counter(reserved)));
+        log.info("Inventaire des places initialisé pour {} événements", counters.size());
+    }
+
+    /**
+     * Compare les compteurs validés avec les places des réservations actives et corrige les écarts.
+     * Un compteur modifié pendant la lecture est ignoré jusqu'au passage suivant.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.inventory.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        Map<Long, Integer> before = new HashMap<>();
+        counters.forEach((eventId, counter) -> before.put(eventId, counter.committed()));
+
+        Map<Long, Integer> actual = loadReservedPlaces();
+
+        before.forEach((eventId, committed) -> {
+            Counter counter = counters.get(eventId);
+            if (counter == null || counter.committed() != committed) {
+                return;
+            }
+            int expected = actual.getOrDefault(eventId, 0);
+            if (expected != committed) {
+                log.warn("Écart d'inventaire pour l'événement {} : mémoire={}, base={}", eventId, committed, expected);
+                counter.reserved.addAndGet(expected - committed);
+            }
+        });
+    }
+
+    private Counter counter(Event event) {
+        Counter counter = counters.get(event.getId());
+        if (counter != null) {
+            return counter;
+        }
+        synchronized (stripes[Math.floorMod(event.getId().hashCode(), STRIPES)]) {
+            counter = counters.get(event.getId());
+            if (counter == null) {
+                Integer reserved = reservationRepository.sumPlacesReservedForEvent(event);
+                counter = new Counter(reserved != null ? reserved : 0);
+                counters.put(event.getId(), counter);
+            }
+            return counter;
+        }
+    }
+
+    private Map<Long, Integer> loadReservedPlaces() {
+        Map<Long, Integer> reserved = new HashMap<>();
+        for (Object[] row : reservationRepository.sumPlacesReservedGroupedByEvent()) {
+            reserved.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return reserved;
+    }
+
+    private static final class Counter {
+        private final AtomicInteger reserved;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private Counter(int reserved) {
+            this.reserved = new AtomicInteger(reserved);
+        }
+
+        private int committed() {
+            return reserved.get() - inFlight.get();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.SeatSection;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Occupation d'un plan de salle : un bit par siège, rangée par rangée, et un compteur de sièges
+ * libres par rangée pour sauter les rangées pleines sans les parcourir.
+ * La recherche d'un bloc parcourt les rangées mot par mot ({@link BitSet#nextClearBit}) ;
+ * pour 50 000 sièges cela représente moins de 800 mots de 64 bits.
+ * Non synchronisée : l'appelant verrouille l'instance.
+ */
+final class SeatMap {
+
+    static final SeatMap NONE = new SeatMap(List.of());
+
+    private final Section[] sections;
+
+    SeatMap(List<SeatSection> sections) {
+        this.sections = sections.stream().map(Section::new).toArray(Section[]::new);
+    }
+
+    boolean isEmpty() {
+        return sections.length == 0;
+    }
+
+    int capacity() {
+        int capacity = 0;
+        for (Section section : sections) {
+            capacity += section.rows * section.seatsPerRow;
+        }
+        return capacity;
+    }
+
+    int available() {
+        int available = 0;
+        for (Section section : sections) {
+            for (int free : section.freeInRow) {
+                available += free;
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Meilleur bloc de {@code places} sièges côte à côte : première section par ordre, rangée la plus
+     * proche de la scène, puis position la plus centrée dans la rangée. {@code null} si aucun bloc.
+     */
+    Block findBestBlock(int places) {
+        for (Section section : sections) {
+            if (places > section.seatsPerRow) {
+                continue;
+            }
+            for (int row = 0; row < section.rows; row++) {
+                if (section.freeInRow[row] < places) {
+                    continue;
+                }
+                int first = section.bestStartInRow(row, places);
+                if (first >= 0) {
+                    return new Block(section.id, row, first, places);
+                }
+            }
+        }
+        return null;
+    }
+
+    boolean isFree(Block block) {
+        Section section = section(block.sectionId());
+        if (section == null || !section.contains(block)) {
+            return false;
+        }
+        int from = section.index(block.row(), block.first());
+        int next = section.occupied.nextSetBit(from);
+        return next < 0 || next >= from + block.count();
+    }
+
+    void occupy(Block block) {
+        Section section = section(block.sectionId());
+        if (section == null || !section.contains(block)) {
+            return;
+        }
+        int from = section.index(block.row(), block.first());
+        int alreadyOccupied = section.occupied.get(from, from + block.count()).cardinality();
+        section.occupied.set(from, from + block.count());
+        section.freeInRow[block.row()] -= block.count() - alreadyOccupied;
+    }
+
+    void free(Block block) {
+        Section section = section(block.sectionId());
+        if (section == null || !section.contains(block)) {
+            return;
+        }
+        int from = section.index(block.row(), block.first());
+        int occupied = section.occupied.get(from, from + block.count()).cardinality();
+        section.occupied.clear(from, from + block.count());
+        section.freeInRow[block.row()] += occupied;
+    }
+
+    String describe(Block block) {
+        Section section = section(block.sectionId());
+        String nom = section != null ? section.nom : "Section " + block.sectionId();
+        int first = block.first() + 1;
+        int last = block.first() + block.count();
+        return nom + ", rang " + (block.row() + 1)
+                + (first == last ? ", siège " + first : ", sièges " + first + " à " + last);
+    }
+
+    private Section section(long sectionId) {
+        for (Section section : sections) {
+            if (section.id == sectionId) {
+                return section;
+            }
+        }
+        return null;
+    }
+
+    private static final class Section {
+        private final long id;
+        private final String nom;
+        private final int rows;
+        private final int seatsPerRow;
+        private final BitSet occupied;
+        private final int[] freeInRow;
+
+        private Section(SeatSection section) {
+            this.id = section.getId();
+            this.nom = section.getNom();
+            this.rows = section.getRangees();
+            this.seatsPerRow = section.getSiegesParRangee();
+            this.occupied = new BitSet(rows * seatsPerRow);
+            this.freeInRow = new int[rows];
+            Arrays.fill(freeInRow, seatsPerRow);
+        }
+
+        private int index(int row, int seat) {
+            return row * seatsPerRow + seat;
+        }
+
+        private boolean contains(Block block) {
+            return block.row() >= 0 && block.row() < rows
+                    && block.first() >= 0 && block.first() + block.count() <= seatsPerRow;
+        }
+
+        /**
+         * Début du bloc libre le plus centré de la rangée, ou -1.
+         */
+        private int bestStartInRow(int row, int places) {
+            int base = index(row, 0);
+            int end = base + seatsPerRow;
+            int ideal = (seatsPerRow - places) / 2;
+            int best = -1;
+            int bestDistance = Integer.MAX_VALUE;
+
+            int start = occupied.nextClearBit(base);
+            while (start + places <= end) {
+                int stop = occupied.nextSetBit(start);
+                if (stop < 0 || stop > end) {
+                    stop = end;
+                }
+                if (stop - start >= places) {
+                    // Position la plus proche du centre à l'intérieur de ce segment libre
+                    int candidate = Math.min(Math.max(ideal, start - base), stop - base - places);
+                    int distance = Math.abs(candidate - ideal);
+                    if (distance < bestDistance) {
+                        best = candidate;
+                        bestDistance = distance;
+                    }
+                }
+                if (stop >= end) {
+                    break;
+                }
+                start = occupied.nextClearBit(stop);
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Bloc de sièges contigus d'une rangée, stocké sous la forme {@code section:rang:premier:nombre}.
+     */
+    record Block(long sectionId, int row, int first, int count) {
+
+        String encode() {
+            return sectionId + ":" + row + ":" + first + ":" + count;
+        }
+
+        static Block decode(String value) {
+            String[] parts = value.split(":");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Attribution de sièges invalide : " + value);
+            }
+            return new Block(Long.parseLong(parts[0]), Integer.parseInt(parts[1]),
+                    Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.SeatSection;
+import org.example.p1vaadin.exception.BadRequestException;
+import org.example.p1vaadin.repository.EventRepository;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.example.p1vaadin.repository.SeatSectionRepository;
+import org.example.p1vaadin.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Placement numéroté : attribue à chaque réservation un bloc de sièges contigus.
+ * L'occupation de chaque plan de salle est tenue en mémoire ({@link SeatMap}), chargée au premier
+ * accès depuis les réservations actives puis mise à jour à chaque attribution ; un siège pris
+ * dans une transaction annulée est rendu, un siège libéré ne l'est qu'après validation.
+ */
+@Service
+@Transactional
+public class SeatMapService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatMapService.class);
+
+    private static final int STRIPES = 64;
+
+    private final SeatSectionRepository seatSectionRepository;
+    private final ReservationRepository reservationRepository;
+    private final EventRepository eventRepository;
+    private final ConcurrentHashMap<Long, SeatMap> maps = new ConcurrentHashMap<>();
+    private final Object[] stripes = new Object[STRIPES];
+
+    public SeatMapService(SeatSectionRepository seatSectionRepository, ReservationRepository reservationRepository,
+                          EventRepository eventRepository) {
+        this.seatSectionRepository = seatSectionRepository;
+        this.reservationRepository = reservationRepository;
+        this.eventRepository = eventRepository;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * Attribue le meilleur bloc libre de {@code places} sièges et retourne son code,
+     * ou {@code null} si l'événement est en placement libre.
+     */
+    public String allocate(Event event, int places) {
+        SeatMap map = map(event.getId());
+        if (map.isEmpty()) {
+            return null;
+        }
+        SeatMap.Block block;
+        synchronized (map) {
+            block = map.findBestBlock(places);
+            if (block == null) {
+                throw new BadRequestException("Aucun bloc de " + places + " sièges côte à côte n'est disponible");
+            }
+            map.occupy(block);
+        }
+        TransactionHooks.afterRollback(() -> {
+            synchronized (map) {
+                map.free(block);
+            }
+        });
+        return block.encode();
+    }
+
+    /**
+     * Libère les sièges une fois la transaction courante validée.
+     */
+    public void release(Long eventId, String sieges) {
+        if (sieges == null) {
+            return;
+        }
+        SeatMap.Block block = SeatMap.Block.decode(sieges);
+        TransactionHooks.afterCommit(() -> {
+            SeatMap map = maps.get(eventId);
+            if (map != null) {
+                synchronized (map) {
+                    map.free(block);
+                }
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public boolean hasSeatMap(Long eventId) {
+        return !map(eventId).isEmpty();
+    }
+
+    @Transactional(readOnly = true)
+    public String describe(Long eventId, String sieges) {
+        if (sieges == null) {
+            return "Placement libre";
+        }
+        SeatMap map = map(eventId);
+        synchronized (map) {
+            return map.describe(SeatMap.Block.decode(sieges));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<SeatSection> findSections(Long eventId) {
+        return seatSectionRepository.findByEventId(eventId);
+    }
+
+    /**
+     * Remplace le plan de salle d'un événement encore sans réservation ; la capacité de
+     * l'événement devient le nombre total de sièges.
+     */
+    public void defineSections(Event event, List<SeatSection> sections) {
+        Integer reserved = eventRepository.findReservedPlaces(event.getId());
+        if (reserved != null && reserved > 0) {
+            throw new BadRequestException("Le plan de salle ne peut plus être modifié après les premières réservations");
+        }
+
+        int capacity = sections.stream().mapToInt(SeatSection::getCapacite).sum();
+        if (!sections.isEmpty() && eventRepository.updateCapacity(event.getId(), capacity) == 0) {
+            throw new BadRequestException("Le plan de salle ne peut plus être modifié après les premières réservations");
+        }
+
+        removeSections(event.getId());
+        sections.forEach(s -> s.setEvenement(event));
+        seatSectionRepository.saveAll(sections);
+    }
+
+    public void removeSections(Long eventId) {
+        seatSectionRepository.deleteByEventId(eventId);
+        TransactionHooks.afterCommit(() -> maps.remove(eventId));
+    }
+
+    private SeatMap map(Long eventId) {
+        SeatMap map = maps.get(eventId);
+        if (map != null) {
+            return map;
+        }
+        synchronized (stripes[Math.floorMod(eventId.hashCode(), STRIPES)]) {
+            map = maps.get(eventId);
+            if (map == null) {
+                map = load(eventId);
+                maps.put(eventId, map);
+            }
+            return map;
+        }
+    }
+
+    private SeatMap load(Long eventId) {
+        List<SeatSection> sections = seatSectionRepository.findByEventId(eventId);
+        if (sections.isEmpty()) {
+            return SeatMap.NONE;
+        }
+        SeatMap map = new SeatMap(sections);
+        for (String sieges : reservationRepository.findSeatAssignments(eventId)) {
+            SeatMap.Block block = SeatMap.Block.decode(sieges);
+            if (!map.isFree(block)) {
+                log.warn("Sièges {} attribués plusieurs fois pour l'événement {}", sieges, eventId);
+            }
+            map.occupy(block);
+        }
+        return map;
+    }
+}
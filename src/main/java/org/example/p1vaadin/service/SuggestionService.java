@@ -0,0 +1,212 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.enums.EventStatus;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.events.EventChangedEvent;
+import org.example.p1vaadin.events.ReservationStatusChangedEvent;
+import org.example.p1vaadin.events.ReservationsBulkCancelledEvent;
+import org.example.p1vaadin.repository.EventRepository;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.example.p1vaadin.util.SuggestionTrie;
+import org.example.p1vaadin.util.TextNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Suggestions des filtres de recherche : villes d'une part, lieux et mots des titres d'autre part, tirés
+ * des événements publiés. Chaque événement pèse 1 + son nombre de réservations actives, et un terme pèse
+ * la somme des événements qui le portent : les plus fréquentés sortent en premier. Les arbres sont tenus
+ * en mémoire et mis à jour après chaque changement validé d'un événement ou d'une réservation ;
+ * une suggestion ne lit jamais la base.
+ */
+@Service
+public class SuggestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestionService.class);
+
+    private static final Pattern WORDS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TERM_LENGTH = 3;
+
+    private final EventRepository eventRepository;
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SuggestionTrie cities = new SuggestionTrie();
+    private final SuggestionTrie keywords = new SuggestionTrie();
+    private final Map<Long, Terms> published = new HashMap<>();
+    private final Map<Long, Long> activeReservations = new HashMap<>();
+
+    public SuggestionService(EventRepository eventRepository, ReservationRepository reservationRepository,
+                             TransactionTemplate transactionTemplate) {
+        this.eventRepository = eventRepository;
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public List<String> cities(String input, int limit) {
+        return suggest(cities, TextNormalizer.fold(input).strip(), limit);
+    }
+
+    /**
+     * Lieux et mots de titre ; pour une saisie de plusieurs mots, seul le dernier est complété.
+     */
+    public List<String> keywords(String input, int limit) {
+        String folded = String.join(" ", TextNormalizer.tokens(input));
+        List<String> result = suggest(keywords, folded, limit);
+        int lastSpace = input == null ? -1 : input.strip().lastIndexOf(' ');
+        if (result.size() < limit && lastSpace > 0) {
+            String head = input.strip().substring(0, lastSpace);
+            for (String word : suggest(keywords, folded.substring(folded.lastIndexOf(' ') + 1), limit - result.size())) {
+                result.add(head + " " + word);
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener
+    public void onReservationStatusChanged(ReservationStatusChangedEvent event) {
+        boolean before = event.previousStatus() != null && event.previousStatus() != ReservationStatus.ANNULEE;
+        boolean after = event.newStatus() != ReservationStatus.ANNULEE;
+        if (before != after) {
+            addActive(event.eventId(), after ? 1 : -1);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onReservationsBulkCancelled(ReservationsBulkCancelledEvent event) {
+        addActive(event.eventId(), -event.count());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent event) {
+        Event loaded = event.change() == EventChangedEvent.Change.DELETED ? null
+                : transactionTemplate.execute(status -> eventRepository.findById(event.eventId())).orElse(null);
+        lock.writeLock().lock();
+        try {
+            withdraw(event.eventId());
+            if (loaded != null && loaded.getStatut() == EventStatus.PUBLIE) {
+                contribute(loaded);
+            }
+            if (loaded == null) {
+                activeReservations.remove(event.eventId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<Long, Long> active = new HashMap<>();
+        List<Event> events = transactionTemplate.execute(status -> {
+            for (Object[] row : reservationRepository.countByEventOrganizerAndStatus()) {
+                if (row[2] != ReservationStatus.ANNULEE) {
+                    active.merge((Long) row[0], ((Number) row[3]).longValue(), Long::sum);
+                }
+            }
+            return eventRepository.findByStatut(EventStatus.PUBLIE);
+        });
+        lock.writeLock().lock();
+        try {
+            active.forEach(activeReservations::putIfAbsent);
+            for (Event event : events) {
+                withdraw(event.getId());
+                contribute(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Suggestions initialisées ({} villes, {} termes)", cities.size(), keywords.size());
+    }
+
+    private List<String> suggest(SuggestionTrie trie, String key, int limit) {
+        if (key.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // Tolérance aux fautes croissante avec la longueur : un préfixe court en admettrait trop
+        int maxEdits = key.length() < 4 ? 0 : key.length() < 8 ? 1 : 2;
+        lock.readLock().lock();
+        try {
+            return trie.suggest(key, limit, maxEdits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addActive(Long eventId, long delta) {
+        lock.writeLock().lock();
+        try {
+            activeReservations.merge(eventId, delta, Long::sum);
+            Terms terms = published.get(eventId);
+            if (terms != null) {
+                terms.apply(cities, keywords, delta);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Appelé sous le verrou d'écriture
+    private void contribute(Event event) {
+        Terms terms = Terms.of(event);
+        long weight = 1 + Math.max(0, activeReservations.getOrDefault(event.getId(), 0L));
+        terms.apply(cities, keywords, weight);
+        published.put(event.getId(), terms);
+    }
+
+    // Appelé sous le verrou d'écriture
+    private void withdraw(Long eventId) {
+        Terms terms = published.remove(eventId);
+        if (terms != null) {
+            long weight = 1 + Math.max(0, activeReservations.getOrDefault(eventId, 0L));
+            terms.apply(cities, keywords, -weight);
+        }
+    }
+
+    /**
+     * Termes portés par un événement, clé normalisée vers forme affichée.
+     */
+    private record Terms(Map<String, String> cities, Map<String, String> keywords) {
+
+        static Terms of(Event event) {
+            Map<String, String> cities = new LinkedHashMap<>();
+            Map<String, String> keywords = new LinkedHashMap<>();
+            putPhrase(cities, event.getVille());
+            putPhrase(keywords, event.getLieu());
+            for (String word : WORDS.split(event.getTitre())) {
+                String key = TextNormalizer.fold(word);
+                if (key.length() >= MIN_TERM_LENGTH) {
+                    keywords.putIfAbsent(key, word.toLowerCase(Locale.FRENCH));
+                }
+            }
+            return new Terms(cities, keywords);
+        }
+
+        private static void putPhrase(Map<String, String> terms, String phrase) {
+            String key = String.join(" ", TextNormalizer.tokens(phrase));
+            if (key.length() >= MIN_TERM_LENGTH) {
+                terms.putIfAbsent(key, phrase.strip());
+            }
+        }
+
+        void apply(SuggestionTrie cityTrie, SuggestionTrie keywordTrie, long delta) {
+            cities.forEach((key, display) -> cityTrie.adjust(key, display, delta));
+            keywords.forEach((key, display) -> keywordTrie.adjust(key, display, delta));
+        }
+    }
+}
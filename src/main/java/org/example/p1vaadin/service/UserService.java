@@ -2,9 +2,11 @@ package org.example.p1vaadin.service;
 
 import org. example.p1vaadin.domain.User;
 import org.example.p1vaadin.domain.enums.Role;
+import org.example.p1vaadin.events.UserChangedEvent;
 import org.example.p1vaadin.exception.*;
 import org.example.p1vaadin.repository. ReservationRepository;
 import org. example.p1vaadin.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org. springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,11 +24,14 @@ public class UserService {
     private final UserRepository userRepository;
     private final ReservationRepository reservationRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserService(UserRepository userRepository, ReservationRepository reservationRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, ReservationRepository reservationRepository, PasswordEncoder passwordEncoder,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.reservationRepository = reservationRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     public User register(User user) {
@@ -39,7 +44,9 @@ public class UserService {
         if (user.getRole() == null) {
             user.setRole(Role.CLIENT);
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getId(), true));
+        return saved;
     }
 
     public Optional<User> authenticate(String email, String rawPassword) {
@@ -54,6 +61,7 @@ public class UserService {
         user.setNom(payload.getNom());
         user.setPrenom(payload.getPrenom());
         user.setTelephone(payload.getTelephone());
+        eventPublisher.publishEvent(new UserChangedEvent(userId, false));
         return userRepository.save(user);
     }
 
@@ -72,6 +80,7 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé"));
         user.setActif(active);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(userId, false));
     }
 
     public void changeRole(Long userId, Role newRole) {
@@ -79,6 +88,7 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé"));
         user.setRole(newRole);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(userId, false));
     }
 
     @Transactional(readOnly = true)
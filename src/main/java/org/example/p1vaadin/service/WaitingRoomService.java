@@ -0,0 +1,296 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.exception.BadRequestException;
+import org.example.p1vaadin.exception.ForbiddenException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * File d'attente virtuelle pour les ouvertures de billetterie très demandées.
+ * Chaque utilisateur reçoit un ticket numéroté ; les tickets sont admis dans l'ordre, au débit
+ * configuré par événement (seau à jetons, avec une rafale maximale après une période calme).
+ * Tout est tenu en mémoire : consulter sa position ne coûte aucune requête en base.
+ * <p>
+ * Les tickets sont rattachés à l'utilisateur et non à sa session : les réservations vérifient
+ * l'admission par {@link #checkAdmitted}, quelle que soit la vue d'où elles viennent. Un ticket en attente
+ * dont le détenteur n'a plus consulté sa position depuis {@code app.waiting-room.abandon-after} est retiré
+ * de la file, et son tour est passé sans consommer de jeton d'admission.
+ */
+@Service
+public class WaitingRoomService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitingRoomService.class);
+
+    private final int defaultRatePerMinute;
+    private final int burst;
+    private final Duration admissionWindow;
+    private final Duration abandonAfter;
+    private final ConcurrentHashMap<Long, Room> rooms = new ConcurrentHashMap<>();
+
+    public WaitingRoomService(@Value("${app.waiting-room.rate-per-minute:120}") int defaultRatePerMinute,
+                              @Value("${app.waiting-room.burst:20}") int burst,
+                              @Value("${app.waiting-room.admission-window:PT10M}") Duration admissionWindow,
+                              @Value("${app.waiting-room.abandon-after:PT2M}") Duration abandonAfter) {
+        this.defaultRatePerMinute = defaultRatePerMinute;
+        this.burst = burst;
+        this.admissionWindow = admissionWindow;
+        this.abandonAfter = abandonAfter;
+    }
+
+    public void open(Event event) {
+        open(event, defaultRatePerMinute);
+    }
+
+    public void open(Event event, int ratePerMinute) {
+        if (ratePerMinute < 1) {
+            throw new BadRequestException("Le débit d'admission doit être d'au moins 1 visiteur par minute");
+        }
+        rooms.compute(event.getId(), (id, room) -> {
+            if (room != null) {
+                room.setRate(ratePerMinute);
+                return room;
+            }
+            return new Room(id, event.getTitre(), ratePerMinute, burst);
+        });
+        log.info("File d'attente ouverte pour l'événement {} ({} admissions/min)", event.getId(), ratePerMinute);
+    }
+
+    public void close(Long eventId) {
+        if (rooms.remove(eventId) != null) {
+            log.info("File d'attente fermée pour l'événement {}", eventId);
+        }
+    }
+
+    public boolean isOpen(Long eventId) {
+        return rooms.containsKey(eventId);
+    }
+
+    /**
+     * Ticket de l'utilisateur pour cet événement : celui qu'il détient encore, sinon le suivant en fin de file.
+     * Retourne {@code null} si l'événement n'a pas de file d'attente.
+     */
+    public Ticket join(Long eventId, Long userId) {
+        Room room = rooms.get(eventId);
+        if (room == null) {
+            return null;
+        }
+        Ticket ticket = room.tickets.compute(userId, (id, held) ->
+                held != null && !status(held).expired() ? held : new Ticket(eventId, id, room, room.issued.incrementAndGet()));
+        ticket.lastSeen = System.nanoTime();
+        return ticket;
+    }
+
+    /**
+     * L'utilisateur peut-il réserver cet événement : pas de file ouverte, ou ticket admis et encore valable ?
+     */
+    public boolean hasAccess(Long eventId, Long userId) {
+        Room room = rooms.get(eventId);
+        if (room == null) {
+            return true;
+        }
+        Ticket ticket = room.tickets.get(userId);
+        return ticket != null && status(ticket).admitted();
+    }
+
+    /**
+     * Refuse la réservation d'un utilisateur qui n'a pas été admis par la file d'attente de l'événement.
+     */
+    public void checkAdmitted(Event event, User user) {
+        if (!hasAccess(event.getId(), user.getId())) {
+            throw notAdmitted(event);
+        }
+    }
+
+    public ForbiddenException notAdmitted(Event event) {
+        return new ForbiddenException("Forte affluence sur « " + event.getTitre()
+                + " » : passez par la file d'attente pour réserver");
+    }
+
+    /**
+     * Position actuelle du ticket ; le ticket reste valable {@code app.waiting-room.admission-window}
+     * après son admission, au-delà le visiteur doit reprendre un ticket.
+     */
+    public Status status(Ticket ticket) {
+        Room room = rooms.get(ticket.eventId());
+        if (room == null) {
+            return new Status(true, false, 0, Duration.ZERO, null);
+        }
+        if (room != ticket.room() || room.tickets.get(ticket.userId()) != ticket) {
+            // File rouverte, ou ticket retiré comme abandonné
+            return new Status(false, true, 0, Duration.ZERO, room.titre);
+        }
+
+        long now = System.nanoTime();
+        ticket.lastSeen = now;
+        long admitted = room.admittedUpTo(now);
+        if (ticket.number() <= admitted) {
+            if (ticket.admittedAt == 0) {
+                ticket.admittedAt = now;
+            }
+            boolean expired = now - ticket.admittedAt > admissionWindow.toNanos();
+            return new Status(!expired, expired, 0, Duration.ZERO, room.titre);
+        }
+
+        // Majorant : les tickets abandonnés devant celui-ci seront passés sans attente
+        long position = ticket.number() - admitted;
+        Duration wait = Duration.ofSeconds((long) Math.ceil(position * 60.0 / room.ratePerMinute));
+        return new Status(false, false, position, wait, room.titre);
+    }
+
+    public List<RoomStats> stats() {
+        Collection<Room> current = rooms.values();
+        long now = System.nanoTime();
+        return current.stream()
+                .map(room -> {
+                    long admitted = room.admittedUpTo(now);
+                    return new RoomStats(room.eventId, room.titre, room.ratePerMinute,
+                            room.issued.get(), admitted, room.issued.get() - admitted - room.abandonedCount());
+                })
+                .toList();
+    }
+
+    public Duration getAdmissionWindow() {
+        return admissionWindow;
+    }
+
+    /**
+     * Retire les tickets abandonnés : en attente sans consultation depuis {@code app.waiting-room.abandon-after}
+     * (leur tour sera passé sans jeton), ou admis dont la fenêtre d'admission est échue.
+     */
+    @Scheduled(fixedDelayString = "${app.waiting-room.sweep-interval-ms:30000}")
+    public void releaseAbandoned() {
+        long now = System.nanoTime();
+        for (Room room : rooms.values()) {
+            long admitted = room.admittedUpTo(now);
+            int released = 0;
+            for (Ticket ticket : room.tickets.values()) {
+                boolean waiting = ticket.number() > admitted;
+                boolean gone = waiting
+                        ? now - ticket.lastSeen > abandonAfter.toNanos()
+                        : now - (ticket.admittedAt != 0 ? ticket.admittedAt : ticket.lastSeen) > admissionWindow.toNanos();
+                if (gone && room.tickets.remove(ticket.userId(), ticket)) {
+                    if (waiting) {
+                        room.abandon(ticket.number());
+                        released++;
+                    }
+                }
+            }
+            if (released > 0) {
+                log.info("File d'attente de l'événement {} : {} ticket(s) abandonné(s) retiré(s)", room.eventId, released);
+            }
+        }
+    }
+
+    /**
+     * Ticket détenu par un utilisateur. La date d'admission est fixée à la première consultation
+     * qui le trouve admis ; la date de dernière consultation permet de repérer les tickets abandonnés.
+     */
+    public static final class Ticket {
+        private final Long eventId;
+        private final Long userId;
+        private final Room room;
+        private final long number;
+        private volatile long admittedAt;
+        private volatile long lastSeen = System.nanoTime();
+
+        private Ticket(Long eventId, Long userId, Room room, long number) {
+            this.eventId = eventId;
+            this.userId = userId;
+            this.room = room;
+            this.number = number;
+        }
+
+        public Long eventId() {
+            return eventId;
+        }
+
+        public long number() {
+            return number;
+        }
+
+        private Long userId() {
+            return userId;
+        }
+
+        private Room room() {
+            return room;
+        }
+    }
+
+    public record Status(boolean admitted, boolean expired, long position, Duration estimatedWait, String titre) {
+    }
+
+    public record RoomStats(Long eventId, String titre, int ratePerMinute, long issued, long admitted, long waiting) {
+    }
+
+    private static final class Room {
+        private final Long eventId;
+        private final String titre;
+        private final int burst;
+        private final AtomicLong issued = new AtomicLong();
+        private final ConcurrentHashMap<Long, Ticket> tickets = new ConcurrentHashMap<>();
+        private final TreeSet<Long> abandoned = new TreeSet<>();
+        private volatile int ratePerMinute;
+        private long admitted;
+        private double allowance;
+        private long lastRefill = System.nanoTime();
+
+        private Room(Long eventId, String titre, int ratePerMinute, int burst) {
+            this.eventId = eventId;
+            this.titre = titre;
+            this.ratePerMinute = ratePerMinute;
+            this.burst = burst;
+            this.allowance = burst;
+        }
+
+        private synchronized void setRate(int ratePerMinute) {
+            admittedUpTo(System.nanoTime());
+            this.ratePerMinute = ratePerMinute;
+        }
+
+        private synchronized int abandonedCount() {
+            return abandoned.size();
+        }
+
+        private synchronized void abandon(long number) {
+            if (number > admitted) {
+                abandoned.add(number);
+            }
+        }
+
+        /**
+         * Avance la limite d'admission : les jetons accumulés depuis le dernier appel admettent les
+         * tickets suivants, les tickets abandonnés étant passés sans jeton ; sans personne à admettre,
+         * la réserve plafonne à {@code burst}.
+         */
+        private synchronized long admittedUpTo(long now) {
+            allowance += (now - lastRefill) * ratePerMinute / 60e9;
+            lastRefill = now;
+            long pending = issued.get();
+            while (admitted < pending) {
+                if (abandoned.remove(admitted + 1)) {
+                    admitted++;
+                } else if (allowance >= 1) {
+                    admitted++;
+                    allowance--;
+                } else {
+                    break;
+                }
+            }
+            allowance = Math.min(allowance, burst);
+            return admitted;
+        }
+    }
+}
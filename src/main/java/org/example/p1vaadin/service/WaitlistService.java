@@ -0,0 +1,220 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.Reservation;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.domain.WaitlistEntry;
+import org.example.p1vaadin.domain.enums.EventStatus;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.domain.enums.WaitlistStatus;
+import org.example.p1vaadin.events.ReservationStatusChangedEvent;
+import org.example.p1vaadin.exception.*;
+import org.example.p1vaadin.repository.EventRepository;
+import org.example.p1vaadin.repository.NotificationRepository;
+import org.example.p1vaadin.repository.WaitlistRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Liste d'attente par événement, servie dans l'ordre d'arrivée.
+ * Quand des places se libèrent, la promotion est lancée en arrière-plan après validation de
+ * l'annulation : les demandes pour un même événement sont regroupées en une seule passe,
+ * qui crée les réservations par lots dans une transaction par lot. Un lot est dimensionné sur
+ * l'inventaire en mémoire, celui-là même qui retient les places ; s'il échoue parce qu'une réservation
+ * concurrente a pris les places entre-temps, il est recalculé. Chaque inscrit promu est prévenu
+ * qu'une réservation en attente l'attend, à confirmer avant {@code app.reservation.hold-ttl}.
+ */
+@Service
+@Transactional
+public class WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+    private static final int SCAN_PAGE = 500;
+    private static final int PROMOTION_BATCH = 200;
+    private static final int MAX_CONFLICTS = 3;
+
+    private final WaitlistRepository waitlistRepository;
+    private final EventRepository eventRepository;
+    private final NotificationRepository notificationRepository;
+    private final ReservationService reservationService;
+    private final SeatInventory seatInventory;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final Duration holdTtl;
+    private final Set<Long> scheduledPromotions = ConcurrentHashMap.newKeySet();
+
+    public WaitlistService(WaitlistRepository waitlistRepository, EventRepository eventRepository,
+                           NotificationRepository notificationRepository, ReservationService reservationService,
+                           SeatInventory seatInventory, TransactionTemplate transactionTemplate,
+                           @Qualifier("backgroundTaskExecutor") Executor executor,
+                           @Value("${app.reservation.hold-ttl:PT15M}") Duration holdTtl) {
+        this.waitlistRepository = waitlistRepository;
+        this.eventRepository = eventRepository;
+        this.notificationRepository = notificationRepository;
+        this.reservationService = reservationService;
+        this.seatInventory = seatInventory;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.holdTtl = holdTtl;
+    }
+
+    public WaitlistEntry join(Long eventId, int nombrePlaces, User currentUser) {
+        if (nombrePlaces < 1 || nombrePlaces > 10) {
+            throw new BadRequestException("Le nombre de places doit être entre 1 et 10");
+        }
+
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Événement non trouvé"));
+
+        if (event.getStatut() != EventStatus.PUBLIE || event.getDateDebut().isBefore(LocalDateTime.now())) {
+            throw new BadRequestException("Cet événement n'est pas disponible à la réservation");
+        }
+
+        if (waitlistRepository.existsByUtilisateurAndEvenementAndStatut(currentUser, event, WaitlistStatus.EN_ATTENTE)) {
+            throw new ConflictException("Vous êtes déjà inscrit sur la liste d'attente de cet événement");
+        }
+
+        return waitlistRepository.save(WaitlistEntry.builder()
+                .utilisateur(currentUser)
+                .evenement(event)
+                .nombrePlaces(nombrePlaces)
+                .statut(WaitlistStatus.EN_ATTENTE)
+                .build());
+    }
+
+    public void leave(Long entryId, User currentUser) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inscription non trouvée"));
+
+        if (!entry.getUtilisateur().getId().equals(currentUser.getId())) {
+            throw new ForbiddenException("Vous ne pouvez pas modifier cette inscription");
+        }
+
+        if (entry.getStatut() == WaitlistStatus.EN_ATTENTE) {
+            entry.setStatut(WaitlistStatus.ANNULEE);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long positionOf(WaitlistEntry entry) {
+        return waitlistRepository.positionOf(entry.getEvenement().getId(), entry.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public long countWaiting(Event event) {
+        return waitlistRepository.countByEvenementAndStatut(event, WaitlistStatus.EN_ATTENTE);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistEntry> findByUser(User user) {
+        return waitlistRepository.findByUtilisateurWithDetails(user);
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onReservationStatusChanged(ReservationStatusChangedEvent event) {
+        if (event.newStatus() == ReservationStatus.ANNULEE) {
+            requestPromotion(event.eventId());
+        }
+    }
+
+    /**
+     * Programme une passe de promotion ; sans effet si une passe est déjà en file pour cet événement.
+     */
+    public void requestPromotion(Long eventId) {
+        if (scheduledPromotions.add(eventId)) {
+            executor.execute(() -> {
+                scheduledPromotions.remove(eventId);
+                try {
+                    int promoted = 0;
+                    int conflicts = 0;
+                    int batch;
+                    do {
+                        try {
+                            batch = transactionTemplate.execute(status -> promoteBatch(eventId));
+                        } catch (BadRequestException ex) {
+                            // Places prises par une réservation concurrente entre le calcul du lot et la retenue
+                            if (++conflicts > MAX_CONFLICTS) {
+                                throw ex;
+                            }
+                            batch = 1;
+                            continue;
+                        }
+                        promoted += batch;
+                    } while (batch > 0);
+                    if (promoted > 0) {
+                        log.info("{} inscriptions promues depuis la liste d'attente de l'événement {}", promoted, eventId);
+                    }
+                } catch (Exception ex) {
+                    log.warn("Échec de la promotion de la liste d'attente de l'événement {} : {}", eventId, ex.getMessage());
+                }
+            });
+        }
+    }
+
+    private int promoteBatch(Long eventId) {
+        Event event = eventRepository.findById(eventId).orElse(null);
+        if (event == null || event.getStatut() != EventStatus.PUBLIE || event.getDateDebut().isBefore(LocalDateTime.now())) {
+            return 0;
+        }
+
+        // Même source que la retenue de createAll : un lot ainsi dimensionné ne dépasse pas l'inventaire
+        int remaining = seatInventory.available(event);
+        List<WaitlistEntry> promoted = new ArrayList<>();
+        long afterId = 0;
+        while (remaining > 0 && promoted.size() < PROMOTION_BATCH) {
+            List<WaitlistEntry> page = waitlistRepository.findWaitingAfter(eventId, afterId, PageRequest.of(0, SCAN_PAGE));
+            if (page.isEmpty()) {
+                break;
+            }
+            for (WaitlistEntry entry : page) {
+                if (entry.getNombrePlaces() <= remaining) {
+                    promoted.add(entry);
+                    remaining -= entry.getNombrePlaces();
+                    if (remaining == 0 || promoted.size() == PROMOTION_BATCH) {
+                        break;
+                    }
+                }
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+
+        if (promoted.isEmpty()) {
+            return 0;
+        }
+
+        List<Reservation> drafts = promoted.stream()
+                .map(entry -> Reservation.builder()
+                        .utilisateur(entry.getUtilisateur())
+                        .nombrePlaces(entry.getNombrePlaces())
+                        .commentaire("Promue depuis la liste d'attente")
+                        .build())
+                .toList();
+        List<Reservation> reservations = reservationService.createAll(event, drafts);
+
+        for (int i = 0; i < promoted.size(); i++) {
+            promoted.get(i).setStatut(WaitlistStatus.PROMUE);
+            promoted.get(i).setReservationId(reservations.get(i).getId());
+        }
+        notificationRepository.enqueueWaitlistPromoted(reservations.stream().map(Reservation::getId).toList(),
+                event.getTitre(), holdTtl.toMinutes());
+        return promoted.size();
+    }
+}
@@ -1,16 +1,131 @@
 package org.example.p1vaadin.util;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
-import java.security.SecureRandom;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
 
+/**
+ * Génère les codes de réservation ("EVT-" + 8 caractères base32 Crockford, 2^40 valeurs).
+ * Chaque code provient d'un compteur unique, réservé par blocs auprès d'une séquence en base,
+ * puis passé dans un réseau de Feistel à clé secrète : la permutation est bijective, donc deux
+ * compteurs distincts donnent toujours deux codes distincts, sans nouvel essai ni aléa partagé.
+ * Les clés de tour sont dérivées par HMAC-SHA256 du secret {@code app.reservation-code.secret}, fourni
+ * hors du dépôt ; la séquence {@code reservation_code_blocks} est créée par {@code schema.sql}.
+ */
 @Component
 public class CodeGenerator {
 
-    private static final SecureRandom random = new SecureRandom();
+    static final int BLOCK_SIZE = 1024;
+
+    private static final String PREFIX = "EVT-";
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int CODE_LENGTH = 8;
+    private static final int HALF_BITS = 20;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final long KEYSPACE = 1L << (2 * HALF_BITS);
+    private static final int ROUNDS = 4;
+    private static final int MIN_SECRET_LENGTH = 16;
+
+    private final LongSupplier blockSource;
+    private final long[] roundKeys;
+    private final AtomicReference<Block> current = new AtomicReference<>(Block.EXHAUSTED);
+
+    @Autowired
+    public CodeGenerator(JdbcTemplate jdbcTemplate,
+                         @Value("${app.reservation-code.secret}") String secret) {
+        this(sequenceBlockSource(jdbcTemplate), secret);
+    }
+
+    CodeGenerator(LongSupplier blockSource, String secret) {
+        this.blockSource = blockSource;
+        this.roundKeys = deriveRoundKeys(secret);
+    }
 
     public String generateReservationCode() {
-        int number = 10000 + random.nextInt(90000);
-        return "EVT-" + number;
+        long value = permute(nextValue());
+        char[] code = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            code[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return PREFIX + new String(code);
+    }
+
+    long nextValue() {
+        while (true) {
+            Block block = current.get();
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return value;
+            }
+            synchronized (this) {
+                if (current.get() == block) {
+                    current.set(Block.of(blockSource.getAsLong()));
+                }
+            }
+        }
+    }
+
+    long permute(long value) {
+        long left = value >>> HALF_BITS;
+        long right = value & HALF_MASK;
+        for (long key : roundKeys) {
+            long next = left ^ (mix(right ^ key) & HALF_MASK);
+            left = right;
+            right = next;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Une clé de 64 bits par tour : les 8 premiers octets du HMAC du numéro de tour
+    private static long[] deriveRoundKeys(String secret) {
+        if (secret == null || secret.strip().length() < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException("app.reservation-code.secret doit compter au moins "
+                    + MIN_SECRET_LENGTH + " caractères");
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            long[] keys = new long[ROUNDS];
+            for (int i = 0; i < ROUNDS; i++) {
+                keys[i] = ByteBuffer.wrap(mac.doFinal(("reservation-code-round-" + i).getBytes(StandardCharsets.UTF_8))).getLong();
+            }
+            return keys;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Dérivation des clés des codes de réservation impossible", ex);
+        }
+    }
+
+    private static LongSupplier sequenceBlockSource(JdbcTemplate jdbcTemplate) {
+        return () -> jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR reservation_code_blocks", Long.class);
+    }
+
+    private record Block(AtomicLong next, long end) {
+
+        static final Block EXHAUSTED = new Block(new AtomicLong(), 0);
+
+        static Block of(long blockNumber) {
+            long start = blockNumber * BLOCK_SIZE;
+            if (blockNumber < 0 || start + BLOCK_SIZE > KEYSPACE) {
+                throw new IllegalStateException("Espace des codes de réservation épuisé");
+            }
+            return new Block(new AtomicLong(start), start + BLOCK_SIZE);
+        }
     }
-}
\ No newline at end of file
+}
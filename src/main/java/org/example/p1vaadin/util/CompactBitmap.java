@@ -0,0 +1,111 @@
+package org.example.p1vaadin.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Ensemble d'entiers positifs dont la représentation suit la densité : tableau trié tant qu'il est petit,
+ * ensemble de bits au-delà. Un mot rare d'un index de plusieurs centaines de milliers de documents occupe
+ * ainsi quelques octets au lieu d'un ensemble de bits dimensionné par le plus grand numéro de document.
+ * Non synchronisé.
+ */
+public class CompactBitmap {
+
+    static final int ARRAY_LIMIT = 2048;
+
+    private int[] values = new int[4];
+    private int size;
+    private BitSet bits;
+
+    public void add(int value) {
+        if (bits != null) {
+            bits.set(value);
+            return;
+        }
+        int pos = Arrays.binarySearch(values, 0, size, value);
+        if (pos >= 0) {
+            return;
+        }
+        if (size == ARRAY_LIMIT) {
+            bits = new BitSet();
+            for (int i = 0; i < size; i++) {
+                bits.set(values[i]);
+            }
+            bits.set(value);
+            values = null;
+            return;
+        }
+        int insert = -pos - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        System.arraycopy(values, insert, values, insert + 1, size - insert);
+        values[insert] = value;
+        size++;
+    }
+
+    public void remove(int value) {
+        if (bits != null) {
+            bits.clear(value);
+            return;
+        }
+        int pos = Arrays.binarySearch(values, 0, size, value);
+        if (pos >= 0) {
+            System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+            size--;
+        }
+    }
+
+    public boolean isEmpty() {
+        return bits != null ? bits.isEmpty() : size == 0;
+    }
+
+    public int cardinality() {
+        return bits != null ? bits.cardinality() : size;
+    }
+
+    /**
+     * Ajoute les éléments de cet ensemble à {@code target}.
+     */
+    public void orInto(BitSet target) {
+        if (bits != null) {
+            target.or(bits);
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            target.set(values[i]);
+        }
+    }
+
+    /**
+     * Nombre d'éléments communs avec l'ensemble de bits {@code words} (au format de {@link BitSet#toLongArray()}),
+     * sans construire l'intersection.
+     */
+    public int andCardinality(long[] words) {
+        if (bits != null) {
+            return andCardinality(bits.toLongArray(), words);
+        }
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int word = values[i] >>> 6;
+            if (word >= words.length) {
+                break;
+            }
+            if ((words[word] & (1L << values[i])) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Nombre de bits à un dans les deux ensembles, mot par mot.
+     */
+    public static int andCardinality(long[] a, long[] b) {
+        int count = 0;
+        for (int i = 0, n = Math.min(a.length, b.length); i < n; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+}
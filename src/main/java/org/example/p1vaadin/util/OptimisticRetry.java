@@ -0,0 +1,108 @@
+package org.example.p1vaadin.util;
+
+import org.example.p1vaadin.exception.ConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Exécute une opération dans sa propre transaction et la rejoue quand une écriture concurrente
+ * a modifié la même ligne (conflit de {@code @Version}). Chaque nouvel essai relit l'état en base :
+ * l'opération doit donc revérifier ses préconditions et pouvoir être rejouée sans effet de bord.
+ * Attente entre deux essais : tirage uniforme entre 0 et {@code base * 2^essai}, plafonné.
+ */
+@Component
+public class OptimisticRetry {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final ConcurrentHashMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public OptimisticRetry(TransactionTemplate transactionTemplate,
+                           @Value("${app.retry.max-attempts:4}") int maxAttempts,
+                           @Value("${app.retry.base-backoff-ms:20}") long baseBackoffMs,
+                           @Value("${app.retry.max-backoff-ms:500}") long maxBackoffMs) {
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        Counters stats = counters.computeIfAbsent(operation, k -> new Counters());
+        stats.calls.increment();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException ex) {
+                stats.conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    stats.exhausted.increment();
+                    log.warn("Conflit persistant sur {} après {} essais", operation, attempt);
+                    throw new ConflictException("Les données ont été modifiées par un autre utilisateur, veuillez réessayer");
+                }
+                stats.retries.increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    public List<RetryMetrics> metrics() {
+        return counters.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted((a, b) -> a.operation().compareTo(b.operation()))
+                .toList();
+    }
+
+    /**
+     * Publie les compteurs dans les logs quand des conflits ont eu lieu.
+     */
+    @Scheduled(fixedDelayString = "${app.retry.metrics-log-interval-ms:300000}",
+            initialDelayString = "${app.retry.metrics-log-interval-ms:300000}")
+    public void logMetrics() {
+        for (RetryMetrics m : metrics()) {
+            if (m.conflicts() > 0) {
+                log.info("Concurrence optimiste {} : appels={}, conflits={}, nouveaux essais={}, abandons={}",
+                        m.operation(), m.calls(), m.conflicts(), m.retries(), m.exhausted());
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Opération interrompue, veuillez réessayer");
+        }
+    }
+
+    public record RetryMetrics(String operation, long calls, long conflicts, long retries, long exhausted) {
+    }
+
+    private static final class Counters {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+
+        private RetryMetrics snapshot(String operation) {
+            return new RetryMetrics(operation, calls.sum(), conflicts.sum(), retries.sum(), exhausted.sum());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.p1vaadin.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Tampon circulaire borné des éléments les plus récents, du plus récent au plus ancien.
+ * Un ajout en tête évince le plus ancien quand le tampon est plein ; un ajout en queue
+ * (complément lu en base) n'a lieu que s'il reste de la place. Toutes les opérations
+ * sont en O(capacité) au pire, et la capacité reste de l'ordre de ce qui est affiché.
+ */
+public class RecentRing<T> {
+
+    private final Object[] items;
+    private int head;
+    private int size;
+
+    public RecentRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacité doit être positive");
+        }
+        this.items = new Object[capacity];
+    }
+
+    public synchronized void push(T item) {
+        head = (head - 1 + items.length) % items.length;
+        items[head] = item;
+        if (size < items.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Ajoute un élément plus ancien que tous les autres ; sans effet si le tampon est plein.
+     */
+    public synchronized boolean append(T item) {
+        if (size == items.length) {
+            return false;
+        }
+        items[(head + size) % items.length] = item;
+        size++;
+        return true;
+    }
+
+    public synchronized void replaceAll(UnaryOperator<T> operator) {
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % items.length;
+            items[index] = operator.apply(get(index));
+        }
+    }
+
+    public synchronized boolean removeIf(Predicate<T> filter) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            T item = get((head + i) % items.length);
+            if (!filter.test(item)) {
+                items[(head + kept) % items.length] = item;
+                kept++;
+            }
+        }
+        for (int i = kept; i < size; i++) {
+            items[(head + i) % items.length] = null;
+        }
+        boolean removed = kept != size;
+        size = kept;
+        return removed;
+    }
+
+    public synchronized boolean anyMatch(Predicate<T> filter) {
+        for (int i = 0; i < size; i++) {
+            if (filter.test(get((head + i) % items.length))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Les {@code limit} éléments les plus récents, du plus récent au plus ancien.
+     */
+    public synchronized List<T> latest(int limit) {
+        int count = Math.min(limit, size);
+        List<T> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(get((head + i) % items.length));
+        }
+        return result;
+    }
+
+    public synchronized T oldest() {
+        return size == 0 ? null : get((head + size - 1) % items.length);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T get(int index) {
+        return (T) items[index];
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.p1vaadin.util;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache de valeurs calculées, à durée de vie courte et à calcul unique : quand plusieurs appelants
+ * demandent en même temps une clé absente ou expirée, un seul exécute le calcul et les autres
+ * attendent son résultat. Une invalidation retire l'entrée ; un calcul en cours au même moment
+ * sert ses appelants mais n'est pas réutilisé par les suivants.
+ */
+public class SnapshotCache<K, V> {
+
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    public SnapshotCache(Duration ttl) {
+        this(ttl, System::nanoTime);
+    }
+
+    SnapshotCache(Duration ttl, LongSupplier clock) {
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        long now = clock.getAsLong();
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.expired(now)) {
+            Entry<V> fresh = new Entry<>(now + ttlNanos);
+            entry = entries.compute(key, (k, current) -> current != null && !current.expired(now) ? current : fresh);
+            if (entry == fresh) {
+                try {
+                    fresh.value.complete(loader.get());
+                } catch (RuntimeException | Error ex) {
+                    entries.remove(key, fresh);
+                    fresh.value.completeExceptionally(ex);
+                    throw ex;
+                }
+            }
+        }
+        try {
+            return entry.value.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateIf(Predicate<K> keys) {
+        entries.keySet().removeIf(keys);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Retire les entrées expirées (les clés par utilisateur ne sont sinon jamais libérées).
+     */
+    public void purgeExpired() {
+        long now = clock.getAsLong();
+        entries.values().removeIf(entry -> entry.expired(now));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry<V> {
+        private final CompletableFuture<V> value = new CompletableFuture<>();
+        private final long expiresAt;
+
+        private Entry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean expired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package org.example.p1vaadin.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Arbre préfixe de termes pondérés, pour l'autocomplétion. Chaque nœud connaît le plus grand poids de son
+ * sous-arbre : les k meilleurs termes d'un préfixe sortent par un parcours du meilleur d'abord, sans visiter
+ * le reste du sous-arbre. La recherche tolère des fautes de frappe (distance d'édition sur un préfixe du terme).
+ * Les clés sont attendues déjà normalisées ; chaque terme garde une forme d'affichage. Non synchronisé.
+ */
+public class SuggestionTrie {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node();
+    private int terms;
+
+    /**
+     * Ajoute {@code delta} au poids du terme (le crée au besoin) ; un terme dont le poids tombe à zéro disparaît.
+     */
+    public void adjust(String key, String display, long delta) {
+        if (key.isEmpty() || delta == 0) {
+            return;
+        }
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            Node child = path[i].child(key.charAt(i));
+            if (child == null) {
+                if (delta < 0) {
+                    return;
+                }
+                child = path[i].addChild(key.charAt(i));
+            }
+            path[i + 1] = child;
+        }
+
+        Node node = path[key.length()];
+        boolean existed = node.weight > 0;
+        node.weight = Math.max(0, node.weight + delta);
+        if (node.weight > 0) {
+            if (node.display == null) {
+                node.display = display;
+            }
+            if (!existed) {
+                terms++;
+            }
+        } else {
+            node.display = null;
+            if (existed) {
+                terms--;
+            }
+        }
+
+        for (int i = key.length(); i >= 0; i--) {
+            Node current = path[i];
+            current.max = current.weight;
+            for (Node child : current.children) {
+                current.max = Math.max(current.max, child.max);
+            }
+            if (i > 0 && current.max == 0) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+            }
+        }
+    }
+
+    public int size() {
+        return terms;
+    }
+
+    /**
+     * Jusqu'à {@code limit} termes commençant par {@code prefix}, du plus lourd au plus léger, puis ceux dont
+     * un préfixe est à au plus {@code maxEdits} opérations (insertion, suppression, substitution) de {@code prefix},
+     * par distance croissante puis poids décroissant.
+     */
+    public List<String> suggest(String prefix, int limit, int maxEdits) {
+        List<String> result = new ArrayList<>(limit);
+        Set<Node> emitted = new HashSet<>();
+        if (maxEdits == 0) {
+            Node node = find(prefix);
+            if (node != null) {
+                collect(List.of(node), limit, result, emitted);
+            }
+            return result;
+        }
+
+        List<List<Node>> byDistance = new ArrayList<>();
+        for (int d = 0; d <= maxEdits; d++) {
+            byDistance.add(new ArrayList<>());
+        }
+        int[] firstRow = new int[prefix.length() + 1];
+        for (int j = 0; j <= prefix.length(); j++) {
+            firstRow[j] = j;
+        }
+        if (firstRow[prefix.length()] <= maxEdits) {
+            byDistance.get(firstRow[prefix.length()]).add(root);
+        }
+        for (int c = 0; c < root.labels.length; c++) {
+            fuzzy(root.children[c], root.labels[c], prefix, firstRow, maxEdits, byDistance);
+        }
+        for (List<Node> roots : byDistance) {
+            if (result.size() >= limit) {
+                break;
+            }
+            collect(roots, limit, result, emitted);
+        }
+        return result;
+    }
+
+    // Parcours en profondeur avec une ligne de la matrice de Levenshtein par niveau
+    private void fuzzy(Node node, char label, String prefix, int[] previous, int maxEdits, List<List<Node>> byDistance) {
+        int[] row = new int[previous.length];
+        row[0] = previous[0] + 1;
+        int best = row[0];
+        for (int j = 1; j < row.length; j++) {
+            int cost = prefix.charAt(j - 1) == label ? 0 : 1;
+            row[j] = Math.min(Math.min(row[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            best = Math.min(best, row[j]);
+        }
+        int distance = row[row.length - 1];
+        boolean matched = distance <= maxEdits;
+        if (matched) {
+            byDistance.get(distance).add(node);
+        }
+        // Un descendant ne fait jamais mieux que le minimum de la ligne : on ne descend que s'il peut
+        // encore correspondre, ou correspondre de plus près que ce nœud
+        if (best > maxEdits || (matched && best >= distance)) {
+            return;
+        }
+        for (int c = 0; c < node.labels.length; c++) {
+            fuzzy(node.children[c], node.labels[c], prefix, row, maxEdits, byDistance);
+        }
+    }
+
+    // Meilleur d'abord sur les sous-arbres donnés : un nœud est ouvert selon le poids maximal de son sous-arbre
+    private void collect(List<Node> roots, int limit, List<String> result, Set<Node> emitted) {
+        PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingLong(Entry::score).reversed());
+        for (Node node : roots) {
+            queue.add(new Entry(node, node.max, false));
+        }
+        while (!queue.isEmpty() && result.size() < limit) {
+            Entry entry = queue.poll();
+            Node node = entry.node();
+            if (entry.terminal()) {
+                if (emitted.add(node)) {
+                    result.add(node.display);
+                }
+                continue;
+            }
+            if (node.weight > 0) {
+                queue.add(new Entry(node, node.weight, true));
+            }
+            for (Node child : node.children) {
+                queue.add(new Entry(child, child.max, false));
+            }
+        }
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    private record Entry(Node node, long score, boolean terminal) {
+    }
+
+    private static final class Node {
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private long weight;
+        private long max;
+        private String display;
+
+        private Node child(char label) {
+            int pos = Arrays.binarySearch(labels, label);
+            return pos >= 0 ? children[pos] : null;
+        }
+
+        private Node addChild(char label) {
+            int pos = -Arrays.binarySearch(labels, label) - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, pos);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            newLabels[pos] = label;
+            newChildren[pos] = new Node();
+            System.arraycopy(labels, pos, newLabels, pos + 1, labels.length - pos);
+            System.arraycopy(children, pos, newChildren, pos + 1, children.length - pos);
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[pos];
+        }
+
+        private void removeChild(char label) {
+            int pos = Arrays.binarySearch(labels, label);
+            if (pos < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, pos);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            System.arraycopy(labels, pos + 1, newLabels, pos, labels.length - pos - 1);
+            System.arraycopy(children, pos + 1, newChildren, pos, children.length - pos - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+    }
+}
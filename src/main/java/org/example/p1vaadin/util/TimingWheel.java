@@ -0,0 +1,122 @@
+package org.example.p1vaadin.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Roue temporelle hachée : chaque clé est rangée dans le seau de son tick d'échéance.
+ * L'ajout et l'annulation sont en O(1) ; un tick ne parcourt que son seau, et chaque entrée
+ * n'y est revue qu'une fois par tour de roue.
+ */
+public class TimingWheel<K> {
+
+    private final long tickMillis;
+    private final Node<K>[] buckets;
+    private final int mask;
+    private final Map<K, Node<K>> index = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelSize, long nowMillis) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("La taille de la roue doit être une puissance de 2");
+        }
+        this.tickMillis = tickMillis;
+        this.buckets = new Node[wheelSize];
+        this.mask = wheelSize - 1;
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Programme (ou reprogramme) l'échéance de {@code key}. Une échéance passée expire au prochain tick.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        Node<K> node = new Node<>(key, tick);
+        link(node);
+        index.put(key, node);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Node<K> node = index.remove(key);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    /**
+     * Avance la roue jusqu'à {@code nowMillis} et retourne les clés arrivées à échéance.
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+        if (target - currentTick >= buckets.length) {
+            for (int i = 0; i < buckets.length; i++) {
+                drain(i, target, expired);
+            }
+        } else {
+            while (currentTick < target) {
+                currentTick++;
+                drain((int) (currentTick & mask), currentTick, expired);
+            }
+        }
+        currentTick = Math.max(currentTick, target);
+        return expired;
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    private void drain(int bucket, long upToTick, List<K> expired) {
+        Node<K> node = buckets[bucket];
+        while (node != null) {
+            Node<K> next = node.next;
+            if (node.tick <= upToTick) {
+                unlink(node);
+                index.remove(node.key);
+                expired.add(node.key);
+            }
+            node = next;
+        }
+    }
+
+    private void link(Node<K> node) {
+        int bucket = (int) (node.tick & mask);
+        node.next = buckets[bucket];
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        buckets[bucket] = node;
+    }
+
+    private void unlink(Node<K> node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            buckets[(int) (node.tick & mask)] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+
+    private static final class Node<K> {
+        private final K key;
+        private final long tick;
+        private Node<K> prev;
+        private Node<K> next;
+
+        private Node(K key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+    }
+}
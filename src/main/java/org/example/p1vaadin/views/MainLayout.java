@@ -280,6 +280,7 @@ public class MainLayout extends AppLayout {
             nav.add(createMenuSection("Mon Espace",
                     createNavLink(VaadinIcon.DASHBOARD, "Dashboard", DashboardView.class),
                     createNavLink(VaadinIcon.TICKET, "Mes Réservations", MyReservationsView.class),
+                    createNavLink(VaadinIcon.CART, "Mon Panier", CartView.class),
                     createNavLink(VaadinIcon.USER, "Profil", ProfileView.class)
             ));
 
@@ -1,5 +1,6 @@
 package org.example.p1vaadin.views.admin;
 
+import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.html.*;
 import com.vaadin.flow.component.icon.Icon;
 import com.vaadin.flow.component.icon.VaadinIcon;
@@ -9,31 +10,41 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import jakarta.annotation.security.RolesAllowed;
-import org.example.p1vaadin.domain.Event;
-import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.domain.enums.EventCategory;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
 import org.example.p1vaadin.domain.enums.Role;
-import org.example.p1vaadin.service.EventService;
-import org.example.p1vaadin.service.ReservationService;
-import org.example.p1vaadin.service.UserService;
+import org.example.p1vaadin.service.DashboardSnapshotService;
+import org.example.p1vaadin.service.DashboardSnapshotService.Activity;
+import org.example.p1vaadin.service.DashboardSnapshotService.AdminSnapshot;
+import org.example.p1vaadin.service.RevenueCubeService;
+import org.example.p1vaadin.service.RevenueCubeService.Cell;
+import org.example.p1vaadin.service.RevenueCubeService.Totals;
 import org.example.p1vaadin.views.MainLayout;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
 
 @Route(value = "admin-dashboard", layout = MainLayout.class)
 @PageTitle("Dashboard Admin | Event Booking")
 @RolesAllowed("ADMIN")
 public class AdminDashboardView extends VerticalLayout {
 
-    private final UserService userService;
-    private final EventService eventService;
-    private final ReservationService reservationService;
+    private final DashboardSnapshotService dashboardSnapshotService;
+    private final RevenueCubeService revenueCubeService;
+    private final ComboBox<String> revenueCity = new ComboBox<>();
+    private final ComboBox<YearMonth> revenueMonth = new ComboBox<>();
+    private final Span revenueTotal = new Span();
+    private final VerticalLayout revenueBars = new VerticalLayout();
+    private static final String[] CATEGORY_COLORS = {"#3b82f6", "#8b5cf6", "#f59e0b", "#10b981", "#64748b"};
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.FRENCH);
     private static final String FONT_FAMILY = "-apple-system, BlinkMacSystemFont, 'Segoe UI', 'Inter', sans-serif";
 
-    public AdminDashboardView(UserService userService, EventService eventService, ReservationService reservationService) {
-        this.userService = userService;
-        this.eventService = eventService;
-        this.reservationService = reservationService;
+    public AdminDashboardView(DashboardSnapshotService dashboardSnapshotService, RevenueCubeService revenueCubeService) {
+        this.dashboardSnapshotService = dashboardSnapshotService;
+        this.revenueCubeService = revenueCubeService;
 
         setSizeFull();
         setPadding(false);
@@ -42,6 +53,8 @@ public class AdminDashboardView extends VerticalLayout {
                 .set("background", "var(--bg-gradient)")
                 .set("font-family", FONT_FAMILY);
 
+        AdminSnapshot snapshot = dashboardSnapshotService.admin();
+
         Div container = new Div();
         container.getStyle()
                 .set("max-width", "1600px")
@@ -50,16 +63,16 @@ public class AdminDashboardView extends VerticalLayout {
                 .set("padding", "40px 24px");
 
         container.add(
-                createPremiumHeader(),
-                createKPISection(),
-                createAnalyticsSection(),
-                createManagementSection()
+                createPremiumHeader(snapshot),
+                createKPISection(snapshot),
+                createAnalyticsSection(snapshot),
+                createManagementSection(snapshot)
         );
 
         add(container);
     }
 
-    private Div createPremiumHeader() {
+    private Div createPremiumHeader(AdminSnapshot snapshot) {
         Div header = new Div();
         header.getStyle()
                 .set("background", "linear-gradient(135deg, var(--primary-color) 0%, #6366f1 100%)")
@@ -136,8 +149,8 @@ public class AdminDashboardView extends VerticalLayout {
         quickStats.setSpacing(false);
         quickStats.getStyle().set("gap", "24px");
 
-        long totalUsers = userService.countAll();
-        long totalEvents = eventService.countAll();
+        long totalUsers = snapshot.totalUsers();
+        long totalEvents = snapshot.totalEvents();
 
         quickStats.add(
                 createHeaderStat(String.valueOf(totalUsers), "Utilisateurs", VaadinIcon.USERS),
@@ -191,7 +204,7 @@ public class AdminDashboardView extends VerticalLayout {
         return stat;
     }
 
-    private FlexLayout createKPISection() {
+    private FlexLayout createKPISection(AdminSnapshot snapshot) {
         FlexLayout grid = new FlexLayout();
         grid.setWidthFull();
         grid.setFlexWrap(FlexLayout.FlexWrap.WRAP);
@@ -199,10 +212,10 @@ public class AdminDashboardView extends VerticalLayout {
                 .set("gap", "20px")
                 .set("margin-bottom", "32px");
 
-        long totalReservations = reservationService.countAll();
-        double totalRevenue = reservationService.calculateTotalRevenue();
-        long activeEvents = eventService.countPublished();
-        long pendingReservations = reservationService.countPending();
+        long totalReservations = snapshot.totalReservations();
+        double totalRevenue = snapshot.revenue();
+        long activeEvents = snapshot.publishedEvents();
+        long pendingReservations = snapshot.pendingReservations();
 
         grid.add(
                 createKPICard("Réservations", String.valueOf(totalReservations), VaadinIcon.TICKET, "var(--primary-color)", "+24%"),
@@ -306,16 +319,16 @@ public class AdminDashboardView extends VerticalLayout {
         return card;
     }
 
-    private HorizontalLayout createAnalyticsSection() {
+    private HorizontalLayout createAnalyticsSection(AdminSnapshot snapshot) {
         HorizontalLayout section = new HorizontalLayout();
         section.setWidthFull();
         section.setSpacing(false);
         section.getStyle().set("gap", "24px").set("margin-bottom", "32px").set("flex-wrap", "wrap");
-        section.add(createUserDistribution(), createRevenueAnalysis());
+        section.add(createUserDistribution(snapshot), createRevenueAnalysis());
         return section;
     }
 
-    private Div createUserDistribution() {
+    private Div createUserDistribution(AdminSnapshot snapshot) {
         Div card = new Div();
         card.getStyle()
                 .set("flex", "1")
@@ -335,7 +348,7 @@ public class AdminDashboardView extends VerticalLayout {
         H3 title = new H3("Distribution des Utilisateurs");
         title.getStyle().set("font-size", "1.25rem").set("font-weight", "700").set("color", "var(--text-primary)").set("margin", "0");
 
-        Span total = new Span(userService.countAll() + " total");
+        Span total = new Span(snapshot.totalUsers() + " total");
         total.getStyle().set("font-size", "0.875rem").set("font-weight", "600").set("color", "var(--text-secondary)").set("padding", "6px 12px").set("background", "var(--bg-secondary)").set("border-radius", "8px");
         titleBar.add(title, total);
 
@@ -344,10 +357,10 @@ public class AdminDashboardView extends VerticalLayout {
         distribution.setSpacing(false);
         distribution.getStyle().set("gap", "20px");
 
-        long totalUsers = userService.countAll();
-        long clients = userService.countByRole(Role.CLIENT);
-        long organizers = userService.countByRole(Role.ORGANIZER);
-        long admins = userService.countByRole(Role.ADMIN);
+        long totalUsers = snapshot.totalUsers();
+        long clients = snapshot.users(Role.CLIENT);
+        long organizers = snapshot.users(Role.ORGANIZER);
+        long admins = snapshot.users(Role.ADMIN);
 
         distribution.add(
                 createUserDistBar("Clients", clients, totalUsers, "#3b82f6"),
@@ -439,26 +452,52 @@ public class AdminDashboardView extends VerticalLayout {
         H3 title = new H3("Analyse des Revenus");
         title.getStyle().set("font-size", "1.25rem").set("font-weight", "700").set("color", "var(--text-primary)").set("margin", "0");
 
-        Span revenue = new Span(String.format("%.0f DH", reservationService.calculateTotalRevenue()));
-        revenue.getStyle().set("font-size", "0.875rem").set("font-weight", "600").set("color", "var(--success-color, #10b981)").set("padding", "6px 12px").set("background", "var(--success-bg, #d1fae5)").set("border-radius", "8px");
-        titleBar.add(title, revenue);
+        revenueTotal.getStyle().set("font-size", "0.875rem").set("font-weight", "600").set("color", "var(--success-color, #10b981)").set("padding", "6px 12px").set("background", "var(--success-bg, #d1fae5)").set("border-radius", "8px");
+        titleBar.add(title, revenueTotal);
 
-        VerticalLayout bars = new VerticalLayout();
-        bars.setPadding(false);
-        bars.setSpacing(false);
-        bars.getStyle().set("gap", "16px");
+        revenueCity.setPlaceholder("Toutes les villes");
+        revenueCity.setItems(revenueCubeService.cities());
+        revenueCity.setClearButtonVisible(true);
+        revenueCity.addValueChangeListener(e -> refreshRevenueAnalysis());
 
-        String[] categories = {"Concerts", "Théâtre", "Conférences", "Sports", "Autres"};
-        int[] values = {85, 72, 68, 55, 45};
-        String[] colors = {"#3b82f6", "#8b5cf6", "#f59e0b", "#10b981", "#64748b"};
+        revenueMonth.setPlaceholder("Tous les mois");
+        revenueMonth.setItems(revenueCubeService.months());
+        revenueMonth.setItemLabelGenerator(MONTH_FORMAT::format);
+        revenueMonth.setClearButtonVisible(true);
+        revenueMonth.addValueChangeListener(e -> refreshRevenueAnalysis());
 
-        for (int i = 0; i < categories.length; i++) {
-            bars.add(createRevenueBar(categories[i], values[i], colors[i]));
-        }
-        card.add(titleBar, bars);
+        HorizontalLayout filters = new HorizontalLayout(revenueCity, revenueMonth);
+        filters.getStyle().set("margin-bottom", "20px");
+
+        revenueBars.setPadding(false);
+        revenueBars.setSpacing(false);
+        revenueBars.getStyle().set("gap", "16px");
+        refreshRevenueAnalysis();
+
+        card.add(titleBar, filters, revenueBars);
         return card;
     }
 
+    // Revenus hors annulations par catégorie, lus dans le cube pour la ville et le mois choisis
+    private void refreshRevenueAnalysis() {
+        String city = revenueCity.getValue();
+        YearMonth month = revenueMonth.getValue();
+        Predicate<Cell> filter = cell -> cell.status() != ReservationStatus.ANNULEE
+                && (city == null || city.equals(cell.city()))
+                && (month == null || month.equals(cell.month()));
+        Map<EventCategory, Totals> byCategory = revenueCubeService.aggregate(filter, Cell::category);
+        double total = byCategory.values().stream().mapToDouble(Totals::amount).sum();
+
+        revenueTotal.setText(String.format("%.0f DH", total));
+        revenueBars.removeAll();
+        for (EventCategory category : EventCategory.values()) {
+            double amount = byCategory.containsKey(category) ? byCategory.get(category).amount() : 0;
+            int share = total > 0 ? (int) Math.round(100 * amount / total) : 0;
+            revenueBars.add(createRevenueBar(category.getLabel(), share,
+                    CATEGORY_COLORS[category.ordinal() % CATEGORY_COLORS.length]));
+        }
+    }
+
     private HorizontalLayout createRevenueBar(String category, int value, String color) {
         HorizontalLayout bar = new HorizontalLayout();
         bar.setWidthFull();
@@ -494,16 +533,16 @@ public class AdminDashboardView extends VerticalLayout {
         return bar;
     }
 
-    private HorizontalLayout createManagementSection() {
+    private HorizontalLayout createManagementSection(AdminSnapshot snapshot) {
         HorizontalLayout section = new HorizontalLayout();
         section.setWidthFull();
         section.setSpacing(false);
         section.getStyle().set("gap", "24px").set("flex-wrap", "wrap");
-        section.add(createRecentActivity(), createQuickAccess());
+        section.add(createRecentActivity(snapshot), createQuickAccess());
         return section;
     }
 
-    private Div createRecentActivity() {
+    private Div createRecentActivity(AdminSnapshot snapshot) {
         Div card = new Div();
         card.getStyle().set("flex", "2").set("min-width", "500px").set("background", "var(--card-bg)").set("border", "1px solid var(--border-color)").set("border-radius", "16px").set("padding", "28px").set("box-shadow", "var(--shadow-sm)");
         HorizontalLayout titleBar = new HorizontalLayout();
@@ -524,14 +563,12 @@ public class AdminDashboardView extends VerticalLayout {
         activities.setSpacing(false);
         activities.getStyle().set("gap", "12px");
 
-        List<User> recentUsers = userService.findAll().stream().sorted((u1, u2) -> u2.getDateInscription().compareTo(u1.getDateInscription())).limit(3).collect(Collectors.toList());
-        List<Event> recentEvents = eventService.findAll().stream().sorted((e1, e2) -> e2.getDateCreation().compareTo(e1.getDateCreation())).limit(2).collect(Collectors.toList());
-
-        for (User user : recentUsers) {
-            activities.add(createActivityItem("Nouvel utilisateur inscrit", user.getFullName() + " vient de créer un compte", VaadinIcon.USER_CHECK, "var(--success-color, #10b981)", "Il y a quelques instants"));
-        }
-        for (Event event : recentEvents) {
-            activities.add(createActivityItem("Événement publié", event.getTitre() + " par " + event.getOrganisateur().getFullName(), VaadinIcon.CALENDAR, "var(--warning-color, #f59e0b)", "Récemment"));
+        for (Activity activity : snapshot.recentActivity()) {
+            if (activity.kind() == Activity.Kind.USER) {
+                activities.add(createActivityItem("Nouvel utilisateur inscrit", activity.description() + " vient de créer un compte", VaadinIcon.USER_CHECK, "var(--success-color, #10b981)", "Il y a quelques instants"));
+            } else {
+                activities.add(createActivityItem("Événement publié", activity.description(), VaadinIcon.CALENDAR, "var(--warning-color, #f59e0b)", "Récemment"));
+            }
         }
         card.add(titleBar, activities);
         return card;
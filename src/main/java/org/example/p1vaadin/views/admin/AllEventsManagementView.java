@@ -17,6 +17,7 @@ import org.example.p1vaadin.domain.User;
 import org.example.p1vaadin.domain.enums.EventStatus;
 import org.example.p1vaadin.security.UserPrincipal;
 import org.example.p1vaadin.service.EventService;
+import org.example.p1vaadin.service.WaitingRoomService;
 import org.example.p1vaadin.views.MainLayout;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -29,11 +30,13 @@ import java.util.List;
 public class AllEventsManagementView extends VerticalLayout {
 
     private final EventService eventService;
+    private final WaitingRoomService waitingRoomService;
     private final Grid<Event> grid = new Grid<>(Event.class, false);
     private final DateTimeFormatter formatter = DateTimeFormatter. ofPattern("dd/MM/yyyy HH:mm");
 
-    public AllEventsManagementView(EventService eventService) {
+    public AllEventsManagementView(EventService eventService, WaitingRoomService waitingRoomService) {
         this.eventService = eventService;
+        this.waitingRoomService = waitingRoomService;
 
         setSizeFull();
         setPadding(true);
@@ -67,7 +70,19 @@ public class AllEventsManagementView extends VerticalLayout {
                 actions.add(publishBtn);
             }
 
+            if (event.getStatut() == EventStatus.PUBLIE) {
+                boolean open = waitingRoomService.isOpen(event.getId());
+                Button queueBtn = new Button(open ? "Fermer la file" : "Ouvrir la file", e -> toggleWaitingRoom(event));
+                queueBtn.addThemeVariants(ButtonVariant.LUMO_SMALL, open ? ButtonVariant.LUMO_CONTRAST : ButtonVariant.LUMO_PRIMARY);
+                queueBtn.setTooltipText("File d'attente virtuelle pour une ouverture de billetterie");
+                actions.add(queueBtn);
+            }
+
             if (event.getStatut() != EventStatus.ANNULE && event.getStatut() != EventStatus.TERMINE) {
+                Button seatingBtn = new Button("Plan de salle", e -> getUI().ifPresent(ui -> ui.navigate("organizer/event/" + event.getId() + "/seating")));
+                seatingBtn.addThemeVariants(ButtonVariant.LUMO_SMALL);
+                actions.add(seatingBtn);
+
                 Button cancelBtn = new Button("Annuler", e -> cancelEvent(event));
                 cancelBtn.addThemeVariants(ButtonVariant. LUMO_SMALL, ButtonVariant.LUMO_ERROR);
                 actions.add(cancelBtn);
@@ -92,6 +107,19 @@ public class AllEventsManagementView extends VerticalLayout {
         }
     }
 
+    private void toggleWaitingRoom(Event event) {
+        if (waitingRoomService.isOpen(event.getId())) {
+            waitingRoomService.close(event.getId());
+            Notification.show("File d'attente fermée", 3000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+        } else {
+            waitingRoomService.open(event);
+            Notification.show("File d'attente ouverte", 3000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+        }
+        refreshGrid();
+    }
+
     private void cancelEvent(Event event) {
         try {
             eventService.cancel(event.getId(), getCurrentUser());
@@ -0,0 +1,73 @@
+package org.example.p1vaadin.views.client;
+
+import com.vaadin.flow.server.VaadinSession;
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.service.CartLine;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Panier de l'utilisateur, conservé dans la session Vaadin jusqu'à la validation.
+ */
+public class Cart {
+
+    private final Map<Long, Item> items = new LinkedHashMap<>();
+
+    public static Cart current() {
+        VaadinSession session = VaadinSession.getCurrent();
+        Cart cart = session.getAttribute(Cart.class);
+        if (cart == null) {
+            cart = new Cart();
+            session.setAttribute(Cart.class, cart);
+        }
+        return cart;
+    }
+
+    public void add(Event event, int places) {
+        items.merge(event.getId(),
+                new Item(event.getId(), event.getTitre(), event.getPrixUnitaire(), places),
+                (current, added) -> current.withPlaces(current.places() + added.places()));
+    }
+
+    public void update(Long eventId, int places) {
+        items.computeIfPresent(eventId, (id, item) -> item.withPlaces(places));
+    }
+
+    public void remove(Long eventId) {
+        items.remove(eventId);
+    }
+
+    public void clear() {
+        items.clear();
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    public List<Item> getItems() {
+        return new ArrayList<>(items.values());
+    }
+
+    public double getTotal() {
+        return items.values().stream().mapToDouble(Item::montant).sum();
+    }
+
+    public List<CartLine> toLines() {
+        return items.values().stream().map(i -> new CartLine(i.eventId(), i.places())).toList();
+    }
+
+    public record Item(Long eventId, String titre, Double prixUnitaire, int places) {
+
+        Item withPlaces(int places) {
+            return new Item(eventId, titre, prixUnitaire, places);
+        }
+
+        public double montant() {
+            return places * prixUnitaire;
+        }
+    }
+}
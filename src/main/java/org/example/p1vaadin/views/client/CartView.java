@@ -0,0 +1,133 @@
+package org.example.p1vaadin.views.client;
+
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.notification.NotificationVariant;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.IntegerField;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+import jakarta.annotation.security.PermitAll;
+import org.example.p1vaadin.domain.Reservation;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.security.UserPrincipal;
+import org.example.p1vaadin.service.HoldExpiryService;
+import org.example.p1vaadin.service.ReservationService;
+import org.example.p1vaadin.views.MainLayout;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+@Route(value = "cart", layout = MainLayout.class)
+@PageTitle("Mon Panier | Event Booking")
+@PermitAll
+public class CartView extends VerticalLayout {
+
+    private final ReservationService reservationService;
+    private final HoldExpiryService holdExpiryService;
+    private final Cart cart = Cart.current();
+    private final Grid<Cart.Item> grid = new Grid<>();
+    private final Paragraph total = new Paragraph();
+    private final Button checkoutBtn = new Button("✅ Réserver tout le panier", e -> checkout());
+
+    public CartView(ReservationService reservationService, HoldExpiryService holdExpiryService) {
+        this.reservationService = reservationService;
+        this.holdExpiryService = holdExpiryService;
+
+        setSizeFull();
+        setPadding(true);
+
+        add(new H2("🛒 Mon Panier"));
+
+        createGrid();
+
+        checkoutBtn.addThemeVariants(ButtonVariant.LUMO_PRIMARY, ButtonVariant.LUMO_LARGE);
+        Button clearBtn = new Button("Vider le panier", e -> {
+            cart.clear();
+            refreshGrid();
+        });
+        clearBtn.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+
+        add(total, new HorizontalLayout(checkoutBtn, clearBtn));
+        refreshGrid();
+    }
+
+    private void createGrid() {
+        grid.addColumn(Cart.Item::titre).setHeader("Événement").setAutoWidth(true);
+        grid.addColumn(i -> i.prixUnitaire() + " DH").setHeader("Prix unitaire").setAutoWidth(true);
+
+        grid.addComponentColumn(i -> {
+            IntegerField placesField = new IntegerField();
+            placesField.setMin(1);
+            placesField.setMax(10);
+            placesField.setValue(i.places());
+            placesField.setStepButtonsVisible(true);
+            placesField.addValueChangeListener(e -> {
+                if (e.getValue() != null && e.getValue() >= 1 && e.getValue() <= 10) {
+                    cart.update(i.eventId(), e.getValue());
+                    refreshGrid();
+                }
+            });
+            return placesField;
+        }).setHeader("Places");
+
+        grid.addColumn(i -> i.montant() + " DH").setHeader("Montant").setAutoWidth(true);
+
+        grid.addComponentColumn(i -> {
+            Button removeBtn = new Button("Retirer", e -> {
+                cart.remove(i.eventId());
+                refreshGrid();
+            });
+            removeBtn.addThemeVariants(ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_ERROR);
+            return removeBtn;
+        }).setHeader("Actions");
+
+        grid.setAllRowsVisible(true);
+        add(grid);
+    }
+
+    private void checkout() {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            Notification.show("Veuillez vous connecter", 3000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+            return;
+        }
+
+        try {
+            List<Reservation> reservations = reservationService.checkout(cart.toLines(), currentUser);
+            cart.clear();
+
+            Notification.show("✅ " + reservations.size() + " réservation(s) créée(s) — confirmez-les dans Mes Réservations avant "
+                            + holdExpiryService.getHoldTtl().toMinutes() + " minutes",
+                            5000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+
+            getUI().ifPresent(ui -> ui.navigate("my-reservations"));
+        } catch (Exception ex) {
+            Notification.show(ex.getMessage(), 3000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+        }
+    }
+
+    private void refreshGrid() {
+        grid.setItems(cart.getItems());
+        total.setText("💵 Montant total: " + cart.getTotal() + " DH");
+        checkoutBtn.setEnabled(!cart.isEmpty());
+    }
+
+    private User getCurrentUser() {
+        try {
+            Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            if (principal instanceof UserPrincipal up) {
+                return up.getUser();
+            }
+        } catch (Exception ignored) {}
+        return null;
+    }
+}
@@ -9,29 +9,29 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import jakarta.annotation.security.RolesAllowed;
-import org.example.p1vaadin.domain.Reservation;
 import org.example.p1vaadin.domain.User;
 import org.example.p1vaadin.domain.enums.ReservationStatus;
 import org.example.p1vaadin.security.UserPrincipal;
-import org.example.p1vaadin.service.ReservationService;
+import org.example.p1vaadin.service.DashboardSnapshotService;
+import org.example.p1vaadin.service.DashboardSnapshotService.ClientSnapshot;
+import org.example.p1vaadin.service.RecentActivityService.RecentReservation;
 import org.example.p1vaadin.views.MainLayout;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Route(value = "dashboard", layout = MainLayout.class)
 @PageTitle("Dashboard | Event Booking")
 @RolesAllowed({"CLIENT", "ORGANIZER", "ADMIN"})
 public class DashboardView extends VerticalLayout {
 
-    private final ReservationService reservationService;
+    private final DashboardSnapshotService dashboardSnapshotService;
     private static final String FONT_FAMILY = "-apple-system, BlinkMacSystemFont, 'Segoe UI', 'Inter', sans-serif";
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd MMM yyyy");
 
-    public DashboardView(ReservationService reservationService) {
-        this.reservationService = reservationService;
+    public DashboardView(DashboardSnapshotService dashboardSnapshotService) {
+        this.dashboardSnapshotService = dashboardSnapshotService;
 
         setSizeFull();
         setPadding(false);
@@ -41,6 +41,7 @@ public class DashboardView extends VerticalLayout {
                 .set("font-family", FONT_FAMILY);
 
         User currentUser = getCurrentUser();
+        ClientSnapshot snapshot = dashboardSnapshotService.client(currentUser);
 
         Div container = new Div();
         container.getStyle()
@@ -51,8 +52,8 @@ public class DashboardView extends VerticalLayout {
 
         container.add(
                 createWelcomeSection(currentUser),
-                createStatsGrid(currentUser),
-                createContentGrid(currentUser)
+                createStatsGrid(snapshot),
+                createContentGrid(snapshot)
         );
 
         add(container);
@@ -118,7 +119,7 @@ public class DashboardView extends VerticalLayout {
         return section;
     }
 
-    private FlexLayout createStatsGrid(User user) {
+    private FlexLayout createStatsGrid(ClientSnapshot snapshot) {
         FlexLayout grid = new FlexLayout();
         grid.setWidthFull();
         grid.setFlexWrap(FlexLayout.FlexWrap.WRAP);
@@ -126,9 +127,9 @@ public class DashboardView extends VerticalLayout {
                 .set("gap", "24px")
                 .set("margin-bottom", "32px");
 
-        long totalReservations = reservationService.countByUser(user);
-        long confirmedReservations = reservationService.countConfirmedByUser(user);
-        long pendingReservations = reservationService.countPendingByUser(user);
+        long totalReservations = snapshot.total();
+        long confirmedReservations = snapshot.count(ReservationStatus.CONFIRMEE);
+        long pendingReservations = snapshot.count(ReservationStatus.EN_ATTENTE);
 
         grid.add(
                 createStatCard("Total", String.valueOf(totalReservations),
@@ -223,7 +224,7 @@ public class DashboardView extends VerticalLayout {
         return card;
     }
 
-    private HorizontalLayout createContentGrid(User user) {
+    private HorizontalLayout createContentGrid(ClientSnapshot snapshot) {
         HorizontalLayout grid = new HorizontalLayout();
         grid.setWidthFull();
         grid.setSpacing(false);
@@ -231,11 +232,11 @@ public class DashboardView extends VerticalLayout {
                 .set("gap", "24px")
                 .set("flex-wrap", "wrap");
 
-        grid.add(createRecentReservations(user), createQuickActions());
+        grid.add(createRecentReservations(snapshot.recentReservations()), createQuickActions());
         return grid;
     }
 
-    private Div createRecentReservations(User user) {
+    private Div createRecentReservations(List<RecentReservation> recentReservations) {
         Div card = new Div();
         card.getStyle()
                 .set("flex", "2")
@@ -275,10 +276,6 @@ public class DashboardView extends VerticalLayout {
                 .set("gap", "12px")
                 .set("margin-top", "24px");
 
-        List<Reservation> recentReservations = reservationService.findByUser(user).stream()
-                .sorted((r1, r2) -> r2.getDateReservation().compareTo(r1.getDateReservation()))
-                .limit(5)
-                .collect(Collectors.toList());
 
         if (recentReservations.isEmpty()) {
             Div empty = new Div();
@@ -299,7 +296,7 @@ public class DashboardView extends VerticalLayout {
             empty.add(emptyIcon, emptyText);
             list.add(empty);
         } else {
-            for (Reservation reservation : recentReservations) {
+            for (RecentReservation reservation : recentReservations) {
                 list.add(createReservationItem(reservation));
             }
         }
@@ -308,7 +305,7 @@ public class DashboardView extends VerticalLayout {
         return card;
     }
 
-    private Div createReservationItem(Reservation reservation) {
+    private Div createReservationItem(RecentReservation reservation) {
         Div item = new Div();
         item.getStyle()
                 .set("padding", "16px")
@@ -325,7 +322,7 @@ public class DashboardView extends VerticalLayout {
         item.addClickListener(e ->
                 getUI().ifPresent(ui -> ui.navigate("my-reservations")));
 
-        H4 eventTitle = new H4(reservation.getEvenement().getTitre());
+        H4 eventTitle = new H4(reservation.eventTitle());
         eventTitle.getStyle()
                 .set("font-size", "1rem")
                 .set("font-weight", "600")
@@ -338,24 +335,24 @@ public class DashboardView extends VerticalLayout {
                 .set("gap", "16px")
                 .set("flex-wrap", "wrap");
 
-        Span date = new Span("📅 " + reservation.getEvenement().getDateDebut().format(dateFormatter));
+        Span date = new Span("📅 " + reservation.eventStart().format(dateFormatter));
         date.getStyle()
                 .set("font-size", "0.875rem")
                 .set("color", "var(--text-secondary)");
 
-        Span places = new Span("🎫 " + reservation.getNombrePlaces() + " place(s)");
+        Span places = new Span("🎫 " + reservation.places() + " place(s)");
         places.getStyle()
                 .set("font-size", "0.875rem")
                 .set("color", "var(--text-secondary)");
 
-        Span status = new Span(getStatusIcon(reservation.getStatut()) + " " + reservation.getStatut().getLabel());
+        Span status = new Span(getStatusIcon(reservation.statut()) + " " + reservation.statut().getLabel());
         status.getStyle()
                 .set("font-size", "0.8125rem")
                 .set("font-weight", "700")
                 .set("padding", "4px 10px")
                 .set("border-radius", "6px")
-                .set("background", getStatusBgColor(reservation.getStatut()))
-                .set("color", getStatusColor(reservation.getStatut()));
+                .set("background", getStatusBgColor(reservation.statut()))
+                .set("color", getStatusColor(reservation.statut()));
 
         meta.add(date, places, status);
 
@@ -7,6 +7,7 @@ import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
@@ -16,6 +17,7 @@ import org.example.p1vaadin.domain.User;
 import org.example.p1vaadin.domain.enums.ReservationStatus;
 import org.example.p1vaadin.security.UserPrincipal;
 import org.example.p1vaadin.service.ReservationService;
+import org.example.p1vaadin.service.SeatMapService;
 import org.example.p1vaadin.views.MainLayout;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -28,11 +30,13 @@ import java.util.List;
 public class MyReservationsView extends VerticalLayout {
 
     private final ReservationService reservationService;
+    private final SeatMapService seatMapService;
     private final Grid<Reservation> grid = new Grid<>(Reservation.class, false);
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
-    public MyReservationsView(ReservationService reservationService) {
+    public MyReservationsView(ReservationService reservationService, SeatMapService seatMapService) {
         this.reservationService = reservationService;
+        this.seatMapService = seatMapService;
 
         setSizeFull();
         setPadding(true);
@@ -48,6 +52,7 @@ public class MyReservationsView extends VerticalLayout {
         grid.addColumn(r -> r.getEvenement().getTitre()).setHeader("Événement").setAutoWidth(true);
         grid.addColumn(r -> r.getEvenement().getDateDebut().format(formatter)).setHeader("Date").setAutoWidth(true);
         grid.addColumn(Reservation::getNombrePlaces).setHeader("Places").setAutoWidth(true);
+        grid.addColumn(r -> seatMapService.describe(r.getEvenement().getId(), r.getSieges())).setHeader("Sièges").setAutoWidth(true);
         grid.addColumn(r -> r. getMontantTotal() + " DH").setHeader("Montant").setAutoWidth(true);
 
         grid.addComponentColumn(r -> {
@@ -58,9 +63,16 @@ public class MyReservationsView extends VerticalLayout {
 
         grid.addComponentColumn(r -> {
             if (r.getStatut() != ReservationStatus.ANNULEE) {
+                HorizontalLayout actions = new HorizontalLayout();
+                if (r.getStatut() == ReservationStatus.EN_ATTENTE) {
+                    Button confirmBtn = new Button("Confirmer", e -> confirmReservation(r));
+                    confirmBtn.addThemeVariants(ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_SUCCESS);
+                    actions.add(confirmBtn);
+                }
                 Button cancelBtn = new Button("Annuler", e -> cancelReservation(r));
                 cancelBtn. addThemeVariants(ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_ERROR);
-                return cancelBtn;
+                actions.add(cancelBtn);
+                return actions;
             }
             return new Span("-");
         }).setHeader("Actions");
@@ -69,6 +81,18 @@ public class MyReservationsView extends VerticalLayout {
         add(grid);
     }
 
+    private void confirmReservation(Reservation reservation) {
+        try {
+            reservationService.confirm(reservation.getId(), getCurrentUser());
+            Notification.show("Réservation confirmée", 3000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+            refreshGrid();
+        } catch (Exception ex) {
+            Notification.show(ex.getMessage(), 3000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+        }
+    }
+
     private void cancelReservation(Reservation reservation) {
         try {
             User currentUser = getCurrentUser();
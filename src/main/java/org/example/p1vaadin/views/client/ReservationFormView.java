@@ -14,28 +14,38 @@ import org.example. p1vaadin.domain.Event;
 import org.example.p1vaadin.domain.Reservation;
 import org.example.p1vaadin.domain.User;
 import org.example.p1vaadin.security.UserPrincipal;
+import org.example.p1vaadin.service.BookingDispatcher;
 import org.example.p1vaadin.service. EventService;
-import org.example.p1vaadin.service. ReservationService;
+import org.example.p1vaadin.service.HoldExpiryService;
+import org.example.p1vaadin.service.WaitingRoomService;
 import org.example.p1vaadin. views.MainLayout;
 import org.example.p1vaadin.views.publics.EventDetailView;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.util.UUID;
+
 @Route(value = "reserve", layout = MainLayout.class)
 @PageTitle("Réserver | Event Booking")
 @PermitAll
 public class ReservationFormView extends VerticalLayout implements HasUrlParameter<Long> {
 
     private final EventService eventService;
-    private final ReservationService reservationService;
+    private final BookingDispatcher bookingDispatcher;
+    private final HoldExpiryService holdExpiryService;
+    private final WaitingRoomService waitingRoomService;
 
     private Event event;
+    private String idempotencyKey;
     private final IntegerField placesField = new IntegerField("Nombre de places");
     private final Paragraph totalPrice = new Paragraph();
     private final TextArea commentaire = new TextArea("Commentaire (optionnel)");
 
-    public ReservationFormView(EventService eventService, ReservationService reservationService) {
+    public ReservationFormView(EventService eventService, BookingDispatcher bookingDispatcher,
+                               HoldExpiryService holdExpiryService, WaitingRoomService waitingRoomService) {
         this.eventService = eventService;
-        this.reservationService = reservationService;
+        this.bookingDispatcher = bookingDispatcher;
+        this.holdExpiryService = holdExpiryService;
+        this.waitingRoomService = waitingRoomService;
 
         setPadding(true);
         setSpacing(true);
@@ -53,6 +63,14 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
             return;
         }
 
+        // Pendant une ouverture en file d'attente, seul un ticket admis donne accès au formulaire
+        // (la réservation elle-même est refusée par le service sans admission)
+        User currentUser = getCurrentUser();
+        if (currentUser != null && !waitingRoomService.hasAccess(eventId, currentUser.getId())) {
+            beforeEvent.forwardTo(WaitingRoomView.class, eventId);
+            return;
+        }
+
         try {
             event = eventService. findById(eventId);
             System.out.println("Événement trouvé: " + event.getTitre());
@@ -74,6 +92,7 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
 
     private void buildForm() {
         removeAll();
+        idempotencyKey = UUID.randomUUID().toString();
 
         add(new H2("🎫 Réserver:  " + event.getTitre()));
 
@@ -123,14 +142,17 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
         }
 
         try {
-            Reservation reservation = reservationService.create(
+            Reservation reservation = bookingDispatcher.book(
                     event.getId(),
                     placesField.getValue(),
                     commentaire.getValue(),
-                    currentUser
+                    currentUser,
+                    idempotencyKey
             );
 
-            Notification.show("✅ Réservation créée!  Code:  " + reservation.getCodeReservation(), 5000, Notification.Position.MIDDLE)
+            Notification.show("✅ Réservation créée!  Code:  " + reservation.getCodeReservation()
+                            + " — confirmez-la dans Mes Réservations avant " + holdExpiryService.getHoldTtl().toMinutes() + " minutes",
+                            5000, Notification.Position.MIDDLE)
                     .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
 
             getUI().ifPresent(ui -> ui. navigate("my-reservations"));
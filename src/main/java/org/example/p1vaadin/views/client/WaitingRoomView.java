@@ -0,0 +1,139 @@
+package org.example.p1vaadin.views.client;
+
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.router.*;
+import com.vaadin.flow.shared.Registration;
+import jakarta.annotation.security.PermitAll;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.security.UserPrincipal;
+import org.example.p1vaadin.service.WaitingRoomService;
+import org.example.p1vaadin.views.MainLayout;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+/**
+ * Salle d'attente d'une ouverture de billetterie. La page se rafraîchit par interrogation
+ * périodique et n'interroge que l'état en mémoire de la file ; l'intervalle s'allonge avec l'attente
+ * estimée, pour qu'une file de plusieurs milliers de visiteurs ne produise pas un aller-retour
+ * toutes les trois secondes chacun. Chaque visiteur garde néanmoins sa session Vaadin ouverte
+ * pendant l'attente. Le ticket est tenu par {@link WaitingRoomService}, au nom de l'utilisateur.
+ */
+@Route(value = "waiting-room", layout = MainLayout.class)
+@PageTitle("File d'attente | Event Booking")
+@PermitAll
+public class WaitingRoomView extends VerticalLayout implements HasUrlParameter<Long> {
+
+    private static final int MIN_POLL_INTERVAL_MS = 3000;
+    private static final int MAX_POLL_INTERVAL_MS = 30000;
+
+    private final WaitingRoomService waitingRoomService;
+
+    private Long eventId;
+    private Long userId;
+    private int pollInterval = MIN_POLL_INTERVAL_MS;
+    private Registration pollRegistration;
+    private final H2 title = new H2();
+    private final Paragraph position = new Paragraph();
+    private final Paragraph estimate = new Paragraph();
+    private final ProgressBar progress = new ProgressBar();
+
+    public WaitingRoomView(WaitingRoomService waitingRoomService) {
+        this.waitingRoomService = waitingRoomService;
+
+        setPadding(true);
+        setSpacing(true);
+        setMaxWidth("500px");
+        getStyle().set("margin", "0 auto");
+
+        progress.setIndeterminate(true);
+        add(title, new Paragraph("⏳ Forte affluence : les visiteurs accèdent à la réservation dans leur ordre d'arrivée. "
+                + "Gardez cette page ouverte, vous serez redirigé automatiquement."), position, estimate, progress);
+    }
+
+    @Override
+    public void setParameter(BeforeEvent beforeEvent, @OptionalParameter Long eventId) {
+        this.eventId = eventId;
+        User currentUser = getCurrentUser();
+        if (eventId == null || currentUser == null || !waitingRoomService.isOpen(eventId)) {
+            beforeEvent.forwardTo(ReservationFormView.class, eventId);
+            return;
+        }
+        userId = currentUser.getId();
+        if (refresh()) {
+            beforeEvent.forwardTo(ReservationFormView.class, eventId);
+        }
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        attachEvent.getUI().setPollInterval(pollInterval);
+        pollRegistration = attachEvent.getUI().addPollListener(e -> {
+            if (refresh()) {
+                getUI().ifPresent(ui -> ui.navigate(ReservationFormView.class, eventId));
+            }
+        });
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        detachEvent.getUI().setPollInterval(-1);
+        if (pollRegistration != null) {
+            pollRegistration.remove();
+            pollRegistration = null;
+        }
+    }
+
+    /**
+     * Met à jour la position affichée ; retourne {@code true} quand le visiteur est admis.
+     */
+    private boolean refresh() {
+        // Ticket détenu, ou nouveau ticket en fin de file si l'admission a expiré ou si la file a été rouverte
+        WaitingRoomService.Ticket ticket = waitingRoomService.join(eventId, userId);
+        if (ticket == null) {
+            return true;
+        }
+
+        WaitingRoomService.Status status = waitingRoomService.status(ticket);
+        if (status.expired()) {
+            // Ticket périmé entre-temps : le suivant est pris en fin de file
+            return refresh();
+        }
+        if (status.admitted()) {
+            return true;
+        }
+
+        title.setText("🎫 " + status.titre());
+        position.setText("Votre position dans la file : " + status.position());
+        long minutes = status.estimatedWait().toMinutes();
+        estimate.setText(minutes < 1
+                ? "Attente estimée : moins d'une minute"
+                : "Attente estimée : environ " + minutes + " minute(s)");
+        updatePollInterval(status.estimatedWait());
+        return false;
+    }
+
+    // Un dixième de l'attente estimée, entre 3 et 30 secondes
+    private void updatePollInterval(Duration wait) {
+        int interval = Math.clamp(wait.toMillis() / 10, MIN_POLL_INTERVAL_MS, MAX_POLL_INTERVAL_MS);
+        if (interval != pollInterval) {
+            pollInterval = interval;
+            getUI().ifPresent(ui -> ui.setPollInterval(interval));
+        }
+    }
+
+    private User getCurrentUser() {
+        try {
+            Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            if (principal instanceof UserPrincipal up) {
+                return up.getUser();
+            }
+        } catch (Exception ignored) {}
+        return null;
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.p1vaadin.views.organizer;
+
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.notification.NotificationVariant;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.IntegerField;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.router.BeforeEnterEvent;
+import com.vaadin.flow.router.BeforeEnterObserver;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+import jakarta.annotation.security.RolesAllowed;
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.SeatSection;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.security.UserPrincipal;
+import org.example.p1vaadin.service.EventService;
+import org.example.p1vaadin.views.MainLayout;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plan de salle d'un événement : sections de rangées de même longueur, proposées dans l'ordre de la liste.
+ * Sans section, l'événement est en placement libre.
+ */
+@Route(value = "organizer/event/:id/seating", layout = MainLayout.class)
+@PageTitle("Plan de salle | Event Booking")
+@RolesAllowed({"ORGANIZER", "ADMIN"})
+public class EventSeatingView extends VerticalLayout implements BeforeEnterObserver {
+
+    private final EventService eventService;
+    private final Grid<SeatSection> grid = new Grid<>(SeatSection.class, false);
+    private final Paragraph capacity = new Paragraph();
+    private final List<SeatSection> sections = new ArrayList<>();
+    private Event event;
+
+    public EventSeatingView(EventService eventService) {
+        this.eventService = eventService;
+
+        setSizeFull();
+        setPadding(true);
+    }
+
+    @Override
+    public void beforeEnter(BeforeEnterEvent beforeEnterEvent) {
+        String idParam = beforeEnterEvent.getRouteParameters().get("id").orElse("0");
+        try {
+            event = eventService.findById(Long.parseLong(idParam));
+            sections.clear();
+            sections.addAll(eventService.findSeatSections(event.getId()));
+            buildLayout();
+        } catch (Exception ex) {
+            removeAll();
+            add(new H2("Événement non trouvé"));
+            add(new Button("Retour", e -> getUI().ifPresent(ui -> ui.navigate("organizer/events"))));
+        }
+    }
+
+    private void buildLayout() {
+        removeAll();
+        add(new H2("🪑 Plan de salle : " + event.getTitre()));
+        add(new Paragraph("La capacité de l'événement devient le nombre total de sièges. "
+                + "Le plan ne peut plus être modifié après les premières réservations."));
+
+        grid.removeAllColumns();
+        grid.addColumn(SeatSection::getNom).setHeader("Section").setAutoWidth(true);
+        grid.addColumn(SeatSection::getRangees).setHeader("Rangées").setAutoWidth(true);
+        grid.addColumn(SeatSection::getSiegesParRangee).setHeader("Sièges par rangée").setAutoWidth(true);
+        grid.addColumn(SeatSection::getCapacite).setHeader("Sièges").setAutoWidth(true);
+        grid.addComponentColumn(section -> {
+            Button removeBtn = new Button("Retirer", e -> {
+                sections.remove(section);
+                refreshGrid();
+            });
+            removeBtn.addThemeVariants(ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_ERROR);
+            return removeBtn;
+        }).setHeader("Actions");
+        grid.setAllRowsVisible(true);
+
+        TextField nom = new TextField("Section");
+        nom.setPlaceholder("Parterre, Balcon...");
+        IntegerField rangees = new IntegerField("Rangées");
+        rangees.setMin(1);
+        IntegerField siegesParRangee = new IntegerField("Sièges par rangée");
+        siegesParRangee.setMin(1);
+        Button addBtn = new Button("+ Ajouter", e -> {
+            if (nom.isEmpty() || rangees.getValue() == null || siegesParRangee.getValue() == null) {
+                Notification.show("Renseignez la section, les rangées et les sièges par rangée", 3000, Notification.Position.MIDDLE)
+                        .addThemeVariants(NotificationVariant.LUMO_ERROR);
+                return;
+            }
+            sections.add(SeatSection.builder().nom(nom.getValue()).rangees(rangees.getValue())
+                    .siegesParRangee(siegesParRangee.getValue()).build());
+            nom.clear();
+            rangees.clear();
+            siegesParRangee.clear();
+            refreshGrid();
+        });
+        HorizontalLayout form = new HorizontalLayout(nom, rangees, siegesParRangee, addBtn);
+        form.setAlignItems(Alignment.BASELINE);
+
+        Button saveBtn = new Button("Enregistrer le plan", e -> save());
+        saveBtn.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+        Button backBtn = new Button("Retour", e -> getUI().ifPresent(ui -> ui.navigate("organizer/events")));
+
+        add(form, grid, capacity, new HorizontalLayout(saveBtn, backBtn));
+        refreshGrid();
+    }
+
+    private void save() {
+        try {
+            eventService.defineSeatSections(event.getId(), List.copyOf(sections), getCurrentUser());
+            Notification.show(sections.isEmpty() ? "Placement libre enregistré" : "Plan de salle enregistré",
+                            3000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+            getUI().ifPresent(ui -> ui.navigate("organizer/events"));
+        } catch (Exception ex) {
+            Notification.show(ex.getMessage(), 3000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+        }
+    }
+
+    private void refreshGrid() {
+        grid.setItems(sections);
+        int seats = sections.stream().mapToInt(SeatSection::getCapacite).sum();
+        capacity.setText(sections.isEmpty() ? "🎟️ Placement libre" : "🎟️ " + seats + " sièges numérotés");
+    }
+
+    private User getCurrentUser() {
+        try {
+            Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            if (principal instanceof UserPrincipal up) {
+                return up.getUser();
+            }
+        } catch (Exception ignored) {}
+        return null;
+    }
+}
@@ -17,6 +17,8 @@ import org.example.p1vaadin.domain.User;
 import org.example.p1vaadin.domain.enums.EventStatus;
 import org.example.p1vaadin.security.UserPrincipal;
 import org.example.p1vaadin.service.EventService;
+import org.example.p1vaadin.service.ReservationStatusCounters;
+import org.example.p1vaadin.service.ReservationStatusCounters.StatusDistribution;
 import org.example.p1vaadin.views.MainLayout;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -29,11 +31,13 @@ import java.util.List;
 public class MyEventsView extends VerticalLayout {
 
     private final EventService eventService;
+    private final ReservationStatusCounters statusCounters;
     private final Grid<Event> grid = new Grid<>(Event.class, false);
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
-    public MyEventsView(EventService eventService) {
+    public MyEventsView(EventService eventService, ReservationStatusCounters statusCounters) {
         this.eventService = eventService;
+        this.statusCounters = statusCounters;
 
         setSizeFull();
         setPadding(true);
@@ -68,6 +72,10 @@ public class MyEventsView extends VerticalLayout {
         }).setHeader("Statut");
 
         grid.addColumn(e -> eventService.getAvailableSeats(e.getId()) + " / " + e.getCapaciteMax()).setHeader("Places").setAutoWidth(true);
+        grid.addColumn(e -> {
+            StatusDistribution d = statusCounters.forEvent(e.getId());
+            return d.confirmed() + " confirmées / " + d.pending() + " en attente";
+        }).setHeader("Réservations").setAutoWidth(true);
 
         grid.addComponentColumn(event -> {
             HorizontalLayout actions = new HorizontalLayout();
@@ -85,6 +93,12 @@ public class MyEventsView extends VerticalLayout {
                 actions.add(cancelBtn);
             }
 
+            if (event.getStatut() != EventStatus.ANNULE && event.getStatut() != EventStatus.TERMINE) {
+                Button seatingBtn = new Button("Plan de salle", e -> getUI().ifPresent(ui -> ui.navigate("organizer/event/" + event.getId() + "/seating")));
+                seatingBtn.addThemeVariants(ButtonVariant.LUMO_SMALL);
+                actions.add(seatingBtn);
+            }
+
             Button reservationsBtn = new Button("Résas", e -> getUI().ifPresent(ui -> ui.navigate("organizer/event/" + event.getId() + "/reservations")));
             reservationsBtn.addThemeVariants(ButtonVariant.LUMO_SMALL);
             actions.add(reservationsBtn);
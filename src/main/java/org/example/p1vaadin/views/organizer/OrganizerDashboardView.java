@@ -9,31 +9,33 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import jakarta.annotation.security.RolesAllowed;
-import org.example.p1vaadin.domain.Event;
 import org.example.p1vaadin.domain.User;
 import org.example.p1vaadin.domain.enums.EventStatus;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
 import org.example.p1vaadin.security.UserPrincipal;
-import org.example.p1vaadin.service.EventService;
-import org.example.p1vaadin.service.ReservationService;
+import org.example.p1vaadin.service.DashboardSnapshotService;
+import org.example.p1vaadin.service.DashboardSnapshotService.OrganizerSnapshot;
+import org.example.p1vaadin.service.OrganizerAnalyticsService.OrganizerStats;
+import org.example.p1vaadin.service.RecentActivityService.RecentEvent;
+import org.example.p1vaadin.service.ReservationStatusCounters.StatusDistribution;
+import org.example.p1vaadin.service.RevenueRollupService.MonthlyRevenue;
 import org.example.p1vaadin.views.MainLayout;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Route(value = "organizer-dashboard", layout = MainLayout.class)
 @PageTitle("Dashboard Organisateur | Event Booking")
 @RolesAllowed({"ORGANIZER", "ADMIN"})
 public class OrganizerDashboardView extends VerticalLayout {
 
-    private final EventService eventService;
-    private final ReservationService reservationService;
+    private final DashboardSnapshotService dashboardSnapshotService;
 
     private static final String FONT_FAMILY = "-apple-system, BlinkMacSystemFont, 'Segoe UI', 'Inter', sans-serif";
+    private static final String[] MONTHS = {"Jan", "Fév", "Mar", "Avr", "Mai", "Juin", "Juil", "Août", "Sep", "Oct", "Nov", "Déc"};
 
-    public OrganizerDashboardView(EventService eventService, ReservationService reservationService) {
-        this.eventService = eventService;
-        this.reservationService = reservationService;
+    public OrganizerDashboardView(DashboardSnapshotService dashboardSnapshotService) {
+        this.dashboardSnapshotService = dashboardSnapshotService;
 
         setSizeFull();
         setPadding(false);
@@ -43,6 +45,7 @@ public class OrganizerDashboardView extends VerticalLayout {
                 .set("font-family", FONT_FAMILY);
 
         User currentUser = getCurrentUser();
+        OrganizerSnapshot snapshot = dashboardSnapshotService.organizer(currentUser);
 
         Div container = new Div();
         container.getStyle()
@@ -53,9 +56,9 @@ public class OrganizerDashboardView extends VerticalLayout {
 
         container.add(
                 createHeader(currentUser),
-                createKPIGrid(currentUser),
-                createChartsSection(currentUser),
-                createEventsTable(currentUser)
+                createKPIGrid(snapshot.stats()),
+                createChartsSection(snapshot),
+                createEventsTable(snapshot.recentEvents())
         );
 
         add(container);
@@ -96,7 +99,7 @@ public class OrganizerDashboardView extends VerticalLayout {
         return header;
     }
 
-    private FlexLayout createKPIGrid(User user) {
+    private FlexLayout createKPIGrid(OrganizerStats stats) {
         FlexLayout grid = new FlexLayout();
         grid.setWidthFull();
         grid.setFlexWrap(FlexLayout.FlexWrap.WRAP);
@@ -104,10 +107,10 @@ public class OrganizerDashboardView extends VerticalLayout {
                 .set("gap", "20px")
                 .set("margin-bottom", "32px");
 
-        long totalEvents = eventService.countByOrganizer(user);
-        long publishedEvents = eventService.countPublishedByOrganizer(user);
-        long totalReservations = reservationService.countByOrganizer(user);
-        double totalRevenue = reservationService.calculateRevenueByOrganizer(user);
+        long totalEvents = stats.totalEvents();
+        long publishedEvents = stats.events(EventStatus.PUBLIE);
+        long totalReservations = stats.totalReservations();
+        double totalRevenue = stats.revenue();
 
         grid.add(
                 createKPICard("Événements", String.valueOf(totalEvents), VaadinIcon.CALENDAR, "var(--primary-color)", "+12%"),
@@ -183,7 +186,7 @@ public class OrganizerDashboardView extends VerticalLayout {
         return card;
     }
 
-    private HorizontalLayout createChartsSection(User user) {
+    private HorizontalLayout createChartsSection(OrganizerSnapshot snapshot) {
         HorizontalLayout section = new HorizontalLayout();
         section.setWidthFull();
         section.setSpacing(false);
@@ -192,11 +195,11 @@ public class OrganizerDashboardView extends VerticalLayout {
                 .set("margin-bottom", "32px")
                 .set("flex-wrap", "wrap");
 
-        section.add(createRevenueChart(user), createReservationsChart(user));
+        section.add(createRevenueChart(snapshot.revenueByMonth()), createReservationsChart(snapshot.distribution()));
         return section;
     }
 
-    private Div createRevenueChart(User user) {
+    private Div createRevenueChart(List<MonthlyRevenue> series) {
         Div card = new Div();
         card.getStyle()
                 .set("flex", "1")
@@ -219,18 +222,19 @@ public class OrganizerDashboardView extends VerticalLayout {
         bars.setSpacing(false);
         bars.getStyle().set("gap", "12px");
 
-        String[] months = {"Jan", "Fév", "Mar", "Avr", "Mai", "Juin"};
-        int[] values = {45, 62, 58, 75, 88, 95};
+        double max = series.stream().mapToDouble(MonthlyRevenue::revenue).max().orElse(0);
 
-        for (int i = 0; i < months.length; i++) {
-            bars.add(createBarItem(months[i], values[i], "var(--warning-color, #f59e0b)"));
+        for (MonthlyRevenue month : series) {
+            int width = max > 0 ? (int) Math.round(100 * Math.max(month.revenue(), 0) / max) : 0;
+            bars.add(createBarItem(MONTHS[month.month().getMonthValue() - 1], width,
+                    String.format("%.0f DH", month.revenue()), "var(--warning-color, #f59e0b)"));
         }
 
         card.add(title, bars);
         return card;
     }
 
-    private HorizontalLayout createBarItem(String label, int value, String color) {
+    private HorizontalLayout createBarItem(String label, int value, String text, String color) {
         HorizontalLayout bar = new HorizontalLayout();
         bar.setWidthFull();
         bar.setAlignItems(Alignment.CENTER);
@@ -263,9 +267,9 @@ public class OrganizerDashboardView extends VerticalLayout {
 
         barContainer.add(barFill);
 
-        Span valueSpan = new Span(value + "%");
+        Span valueSpan = new Span(text);
         valueSpan.getStyle()
-                .set("width", "50px")
+                .set("width", "90px")
                 .set("text-align", "right")
                 .set("font-size", "0.875rem")
                 .set("font-weight", "700")
@@ -275,7 +279,7 @@ public class OrganizerDashboardView extends VerticalLayout {
         return bar;
     }
 
-    private Div createReservationsChart(User user) {
+    private Div createReservationsChart(StatusDistribution distribution) {
         Div card = new Div();
         card.getStyle()
                 .set("flex", "1")
@@ -298,10 +302,10 @@ public class OrganizerDashboardView extends VerticalLayout {
         segments.setSpacing(false);
         segments.getStyle().set("gap", "12px");
 
-        long total = reservationService.countByOrganizer(user);
-        segments.add(createSegmentItem("Confirmées", 65, "var(--success-color, #10b981)", total));
-        segments.add(createSegmentItem("En Attente", 25, "var(--warning-color, #f59e0b)", total));
-        segments.add(createSegmentItem("Annulées", 10, "var(--error-color, #ef4444)", total));
+        long total = distribution.total();
+        segments.add(createSegmentItem("Confirmées", distribution.share(ReservationStatus.CONFIRMEE), "var(--success-color, #10b981)", total));
+        segments.add(createSegmentItem("En Attente", distribution.share(ReservationStatus.EN_ATTENTE), "var(--warning-color, #f59e0b)", total));
+        segments.add(createSegmentItem("Annulées", distribution.share(ReservationStatus.ANNULEE), "var(--error-color, #ef4444)", total));
 
         card.add(title, segments);
         return card;
@@ -358,7 +362,7 @@ public class OrganizerDashboardView extends VerticalLayout {
         return item;
     }
 
-    private Div createEventsTable(User user) {
+    private Div createEventsTable(List<RecentEvent> events) {
         Div card = new Div();
         card.getStyle()
                 .set("background", "var(--card-bg)")
@@ -394,11 +398,6 @@ public class OrganizerDashboardView extends VerticalLayout {
         table.setSpacing(false);
         table.getStyle().set("gap", "8px");
 
-        List<Event> events = eventService.findByOrganisateur(user).stream()
-                .sorted((e1, e2) -> e2.getDateCreation().compareTo(e1.getDateCreation()))
-                .limit(5)
-                .collect(Collectors.toList());
-
         if (events.isEmpty()) {
             Div empty = new Div("Aucun événement");
             empty.getStyle()
@@ -407,7 +406,7 @@ public class OrganizerDashboardView extends VerticalLayout {
                     .set("color", "var(--text-secondary)");
             table.add(empty);
         } else {
-            for (Event event : events) {
+            for (RecentEvent event : events) {
                 table.add(createEventRow(event));
             }
         }
@@ -416,7 +415,7 @@ public class OrganizerDashboardView extends VerticalLayout {
         return card;
     }
 
-    private Div createEventRow(Event event) {
+    private Div createEventRow(RecentEvent event) {
         Div row = new Div();
         row.getStyle()
                 .set("padding", "16px")
@@ -442,27 +441,27 @@ public class OrganizerDashboardView extends VerticalLayout {
         info.setSpacing(false);
         info.getStyle().set("gap", "4px");
 
-        Span eventName = new Span(event.getTitre());
+        Span eventName = new Span(event.titre());
         eventName.getStyle()
                 .set("font-weight", "600")
                 .set("color", "var(--text-primary)")
                 .set("font-size", "0.9375rem");
 
-        Span eventMeta = new Span(event.getVille() + " • " + event.getCapaciteMax() + " places");
+        Span eventMeta = new Span(event.ville() + " • " + event.capacite() + " places");
         eventMeta.getStyle()
                 .set("font-size", "0.8125rem")
                 .set("color", "var(--text-secondary)");
 
         info.add(eventName, eventMeta);
 
-        Span statusBadge = new Span(event.getStatut().getLabel());
+        Span statusBadge = new Span(event.statut().getLabel());
         statusBadge.getStyle()
                 .set("padding", "4px 12px")
                 .set("border-radius", "6px")
                 .set("font-size", "0.75rem")
                 .set("font-weight", "700")
-                .set("background", getEventStatusBg(event.getStatut()))
-                .set("color", getEventStatusColor(event.getStatut()));
+                .set("background", getEventStatusBg(event.statut()))
+                .set("color", getEventStatusColor(event.statut()));
 
         content.add(info, statusBadge);
         row.add(content);
@@ -5,14 +5,23 @@ import com.vaadin.flow.component.button. ButtonVariant;
 import com. vaadin.flow.component.html.*;
 import com.vaadin.flow.component.icon.Icon;
 import com.vaadin.flow.component.icon. VaadinIcon;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component. orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.IntegerField;
 import com.vaadin.flow.router.*;
 import com.vaadin.flow.server. auth.AnonymousAllowed;
 import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.domain.WaitlistEntry;
 import org.example.p1vaadin.domain.enums.EventStatus;
+import org.example.p1vaadin.security.UserPrincipal;
 import org.example.p1vaadin. service.EventService;
+import org.example.p1vaadin.service.WaitlistService;
 import org. example.p1vaadin.views.MainLayout;
+import org.example.p1vaadin.views.client.Cart;
 import org. example.p1vaadin.views.client.ReservationFormView;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.time.format.DateTimeFormatter;
 import java.util. Locale;
@@ -23,12 +32,14 @@ import java.util. Locale;
 public class EventDetailView extends VerticalLayout implements HasUrlParameter<Long> {
 
     private final EventService eventService;
+    private final WaitlistService waitlistService;
     private final DateTimeFormatter formatter = DateTimeFormatter. ofPattern("EEEE dd MMMM yyyy 'à' HH:mm", Locale.FRENCH);
 
     private static final String FONT_FAMILY = "-apple-system, BlinkMacSystemFont, 'Segoe UI', 'Inter', sans-serif";
 
-    public EventDetailView(EventService eventService) {
+    public EventDetailView(EventService eventService, WaitlistService waitlistService) {
         this.eventService = eventService;
+        this.waitlistService = waitlistService;
 
         setSizeFull();
         setPadding(false);
@@ -326,7 +337,100 @@ public class EventDetailView extends VerticalLayout implements HasUrlParameter<L
                 .set("align-items", "center")
                 .set("justify-content", "center");
 
-        card.add(reserveBtn, hint);
+        card.add(reserveBtn);
+        if (canReserve) {
+            Button cartBtn = new Button("Ajouter au panier");
+            cartBtn.setIcon(new Icon(VaadinIcon.CART));
+            cartBtn.addThemeVariants(ButtonVariant.LUMO_CONTRAST);
+            cartBtn.getStyle()
+                    .set("width", "100%")
+                    .set("border-radius", "12px")
+                    .set("font-weight", "600")
+                    .set("margin-top", "12px");
+            cartBtn.addClickListener(e -> {
+                Cart.current().add(event, 1);
+                Notification.show("« " + event.getTitre() + " » ajouté au panier", 3000, Notification.Position.BOTTOM_END)
+                        .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+            });
+            card.add(cartBtn);
+        }
+        if (availableSeats == 0 && event.getStatut() == EventStatus.PUBLIE) {
+            card.add(createWaitlistSection(event));
+        }
+        card.add(hint);
         return card;
     }
+
+    private Div createWaitlistSection(Event event) {
+        Div section = new Div();
+        section.getStyle()
+                .set("margin-top", "24px")
+                .set("padding-top", "24px")
+                .set("border-top", "1px solid var(--border-color)");
+
+        H3 title = new H3("Liste d'attente");
+        title.getStyle()
+                .set("font-size", "1.125rem")
+                .set("font-weight", "700")
+                .set("color", "var(--text-primary)")
+                .set("margin", "0 0 8px 0");
+
+        Paragraph info = new Paragraph(waitlistService.countWaiting(event)
+                + " personne(s) en attente. Une réservation vous sera attribuée automatiquement dès que des places se libèrent.");
+        info.getStyle()
+                .set("font-size", "0.9375rem")
+                .set("color", "var(--text-secondary)")
+                .set("margin", "0 0 16px 0");
+
+        IntegerField placesField = new IntegerField("Nombre de places");
+        placesField.setMin(1);
+        placesField.setMax(10);
+        placesField.setValue(1);
+        placesField.setStepButtonsVisible(true);
+
+        Button joinBtn = new Button("Rejoindre la liste d'attente");
+        joinBtn.setIcon(new Icon(VaadinIcon.CLOCK));
+        joinBtn.addThemeVariants(ButtonVariant.LUMO_CONTRAST);
+        joinBtn.getStyle()
+                .set("border-radius", "10px")
+                .set("font-weight", "600")
+                .set("margin-left", "12px");
+        joinBtn.addClickListener(e -> joinWaitlist(event, placesField.getValue()));
+
+        Div form = new Div(placesField, joinBtn);
+        form.getStyle()
+                .set("display", "flex")
+                .set("align-items", "baseline");
+
+        section.add(title, info, form);
+        return section;
+    }
+
+    private void joinWaitlist(Event event, Integer places) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            getUI().ifPresent(ui -> ui.navigate("login"));
+            return;
+        }
+
+        try {
+            WaitlistEntry entry = waitlistService.join(event.getId(), places != null ? places : 1, currentUser);
+            Notification.show("Inscrit sur la liste d'attente (position " + waitlistService.positionOf(entry) + ")",
+                            4000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+        } catch (Exception ex) {
+            Notification.show(ex.getMessage(), 3000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+        }
+    }
+
+    private User getCurrentUser() {
+        try {
+            Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            if (principal instanceof UserPrincipal up) {
+                return up.getUser();
+            }
+        } catch (Exception ignored) {}
+        return null;
+    }
 }
\ No newline at end of file
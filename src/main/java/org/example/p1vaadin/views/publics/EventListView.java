@@ -12,17 +12,25 @@ import com.vaadin.flow. component.icon.VaadinIcon;
 import com.vaadin. flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.NumberField;
-import com. vaadin.flow.component.textfield.TextField;
 import com. vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow. server.auth.AnonymousAllowed;
 import org.example. p1vaadin.domain.Event;
 import org.example.p1vaadin.domain.enums.EventCategory;
+import org.example.p1vaadin.domain.enums.EventSortOrder;
+import org.example.p1vaadin.domain.enums.PriceBand;
+import org.example.p1vaadin.service.EventSearchIndex;
+import org.example.p1vaadin.service.EventCursor;
+import org.example.p1vaadin.service.EventPage;
 import org. example.p1vaadin.service.EventService;
+import org.example.p1vaadin.service.SuggestionService;
 import org. example.p1vaadin.views.MainLayout;
 
 import java. time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Route(value = "events", layout = MainLayout.class)
 @PageTitle("Événements | Event Booking")
@@ -30,19 +38,35 @@ import java.util.List;
 public class EventListView extends VerticalLayout {
 
     private final EventService eventService;
+    private final SuggestionService suggestionService;
     private final Grid<Event> grid = new Grid<>(Event.class, false);
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd MMM yyyy");
 
     private final ComboBox<EventCategory> categoryFilter = new ComboBox<>("Catégorie");
-    private final TextField villeFilter = new TextField("Ville");
-    private final TextField keywordFilter = new TextField("Rechercher");
+    private final ComboBox<String> villeFilter = new ComboBox<>("Ville");
+    private final ComboBox<String> keywordFilter = new ComboBox<>("Rechercher");
     private final NumberField minPriceFilter = new NumberField("Prix min");
     private final NumberField maxPriceFilter = new NumberField("Prix max");
+    private final ComboBox<EventSortOrder> sortOrder = new ComboBox<>("Trier par");
+    private final Div facetsSection = new Div();
+    private boolean updatingFilters;
+
+    // Pagination par curseur : curseurs des pages précédentes (nul pour la première), page courante
+    private final List<EventCursor> previousCursors = new ArrayList<>();
+    private EventCursor currentCursor;
+    private EventPage currentPage;
+    private final Button previousBtn = new Button("Précédent");
+    private final Button nextBtn = new Button("Suivant");
+    private final Span pageLabel = new Span();
 
     private static final String FONT_FAMILY = "-apple-system, BlinkMacSystemFont, 'Segoe UI', 'Inter', sans-serif";
+    private static final int SUGGESTIONS = 8;
+    private static final int CITY_FACETS = 8;
+    private static final int PAGE_SIZE = 20;
 
-    public EventListView(EventService eventService) {
+    public EventListView(EventService eventService, SuggestionService suggestionService) {
         this.eventService = eventService;
+        this.suggestionService = suggestionService;
 
         setSizeFull();
         setPadding(false);
@@ -60,6 +84,7 @@ public class EventListView extends VerticalLayout {
 
         container. add(createHeader());
         container.add(createFiltersSection());
+        container.add(createFacetsSection());
         container.add(createGridSection());
 
         add(container);
@@ -106,11 +131,20 @@ public class EventListView extends VerticalLayout {
         categoryFilter.setPlaceholder("Toutes");
         styleField(categoryFilter);
 
+        // Suggestions servies depuis la mémoire à chaque frappe ; une saisie libre reste possible
+        villeFilter.setItems(query -> suggestionService.cities(query.getFilter().orElse(""),
+                Math.min(SUGGESTIONS, query.getOffset() + query.getLimit())).stream().skip(query.getOffset()));
+        villeFilter.setAllowCustomValue(true);
+        villeFilter.addCustomValueSetListener(e -> villeFilter.setValue(e.getDetail()));
         villeFilter.setClearButtonVisible(true);
         villeFilter.setPlaceholder("Toutes les villes");
         villeFilter.setPrefixComponent(new Icon(VaadinIcon. LOCATION_ARROW));
         styleField(villeFilter);
 
+        keywordFilter.setItems(query -> suggestionService.keywords(query.getFilter().orElse(""),
+                Math.min(SUGGESTIONS, query.getOffset() + query.getLimit())).stream().skip(query.getOffset()));
+        keywordFilter.setAllowCustomValue(true);
+        keywordFilter.addCustomValueSetListener(e -> keywordFilter.setValue(e.getDetail()));
         keywordFilter. setClearButtonVisible(true);
         keywordFilter.setPlaceholder("Titre de l'événement.. .");
         keywordFilter.setPrefixComponent(new Icon(VaadinIcon.SEARCH));
@@ -130,6 +164,11 @@ public class EventListView extends VerticalLayout {
         maxPriceFilter.setSuffixComponent(maxSuffix);
         styleField(maxPriceFilter);
 
+        sortOrder.setItems(EventSortOrder.values());
+        sortOrder.setItemLabelGenerator(EventSortOrder::getLabel);
+        sortOrder.setValue(EventSortOrder.DATE);
+        styleField(sortOrder);
+
         // Buttons
         Button searchBtn = new Button("Rechercher");
         searchBtn.setIcon(new Icon(VaadinIcon.SEARCH));
@@ -148,13 +187,26 @@ public class EventListView extends VerticalLayout {
                 .set("border-radius", "10px")
                 .set("font-weight", "600")
                 .set("color", "var(--text-secondary)");
-        resetBtn.addClickListener(e -> {
+        resetBtn.addClickListener(e -> updateFilters(() -> {
             categoryFilter.clear();
             villeFilter.clear();
             keywordFilter.clear();
             minPriceFilter.clear();
             maxPriceFilter.clear();
-            refreshGrid();
+        }));
+
+        // Résultats et facettes suivent chaque changement de filtre
+        categoryFilter.addValueChangeListener(e -> refreshOnChange());
+        villeFilter.addValueChangeListener(e -> refreshOnChange());
+        keywordFilter.addValueChangeListener(e -> refreshOnChange());
+        minPriceFilter.addValueChangeListener(e -> refreshOnChange());
+        maxPriceFilter.addValueChangeListener(e -> refreshOnChange());
+        sortOrder.addValueChangeListener(e -> {
+            if (e.getValue() == null) {
+                sortOrder.setValue(EventSortOrder.DATE);
+            } else {
+                refreshOnChange();
+            }
         });
 
         // Layout
@@ -163,7 +215,7 @@ public class EventListView extends VerticalLayout {
         row1.setFlexGrow(1, keywordFilter);
         row1.getStyle().set("gap", "16px").set("margin-bottom", "16px");
 
-        HorizontalLayout row2 = new HorizontalLayout(minPriceFilter, maxPriceFilter, searchBtn, resetBtn);
+        HorizontalLayout row2 = new HorizontalLayout(minPriceFilter, maxPriceFilter, sortOrder, searchBtn, resetBtn);
         row2.setAlignItems(Alignment.END);
         row2.getStyle().set("gap", "16px");
 
@@ -175,6 +227,69 @@ public class EventListView extends VerticalLayout {
         return filtersContainer;
     }
 
+    private Div createFacetsSection() {
+        facetsSection.getStyle()
+                .set("display", "flex")
+                .set("flex-direction", "column")
+                .set("gap", "8px")
+                .set("margin-bottom", "24px");
+        return facetsSection;
+    }
+
+    private void renderFacets(EventSearchIndex.Facets facets) {
+        facetsSection.removeAll();
+
+        HorizontalLayout categories = facetRow("Catégories");
+        facets.categories().forEach((category, count) -> categories.add(facetChip(
+                category.getIcon() + " " + category.getLabel(), count, category == categoryFilter.getValue(),
+                () -> categoryFilter.setValue(category == categoryFilter.getValue() ? null : category))));
+
+        HorizontalLayout cities = facetRow("Villes");
+        facets.cities().entrySet().stream().limit(CITY_FACETS).forEach(entry -> {
+            boolean selected = entry.getKey().equalsIgnoreCase(villeFilter.getValue());
+            cities.add(facetChip(entry.getKey(), entry.getValue(), selected,
+                    () -> villeFilter.setValue(selected ? null : entry.getKey())));
+        });
+
+        HorizontalLayout prices = facetRow("Prix");
+        for (Map.Entry<PriceBand, Integer> entry : facets.priceBands().entrySet()) {
+            PriceBand band = entry.getKey();
+            boolean selected = Objects.equals(band.getMinPrice(), minPriceFilter.getValue())
+                    && Objects.equals(band.getMaxPrice(), maxPriceFilter.getValue());
+            prices.add(facetChip(band.getLabel(), entry.getValue(), selected, () -> updateFilters(() -> {
+                minPriceFilter.setValue(selected ? null : band.getMinPrice());
+                maxPriceFilter.setValue(selected ? null : band.getMaxPrice());
+            })));
+        }
+
+        facetsSection.add(categories, cities, prices);
+    }
+
+    private HorizontalLayout facetRow(String title) {
+        Span label = new Span(title);
+        label.getStyle()
+                .set("min-width", "90px")
+                .set("font-size", "0.8125rem")
+                .set("font-weight", "600")
+                .set("color", "var(--text-secondary)");
+        HorizontalLayout row = new HorizontalLayout(label);
+        row.setAlignItems(Alignment.CENTER);
+        row.getStyle().set("gap", "8px").set("flex-wrap", "wrap");
+        return row;
+    }
+
+    private Button facetChip(String label, int count, boolean selected, Runnable onClick) {
+        Button chip = new Button(label + " · " + count);
+        chip.addThemeVariants(ButtonVariant.LUMO_SMALL,
+                selected ? ButtonVariant.LUMO_PRIMARY : ButtonVariant.LUMO_CONTRAST);
+        chip.setEnabled(selected || count > 0);
+        chip.getStyle()
+                .set("border-radius", "999px")
+                .set("font-weight", "600");
+        chip.addClickListener(e -> onClick.run());
+        return chip;
+    }
+
     private void styleField(com.vaadin.flow.component. Component field) {
         field.getElement().getStyle()
                 .set("border-radius", "10px")
@@ -191,10 +306,41 @@ public class EventListView extends VerticalLayout {
                 .set("box-shadow", "var(--shadow-sm)");
 
         createGrid();
-        gridContainer.add(grid);
+        gridContainer.add(grid, createPagination());
         return gridContainer;
     }
 
+    private HorizontalLayout createPagination() {
+        previousBtn.setIcon(new Icon(VaadinIcon.ANGLE_LEFT));
+        previousBtn.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+        previousBtn.addClickListener(e -> {
+            currentCursor = previousCursors.remove(previousCursors.size() - 1);
+            loadPage();
+        });
+
+        nextBtn.setIcon(new Icon(VaadinIcon.ANGLE_RIGHT));
+        nextBtn.setIconAfterText(true);
+        nextBtn.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+        nextBtn.addClickListener(e -> {
+            previousCursors.add(currentCursor);
+            currentCursor = currentPage.next();
+            loadPage();
+        });
+
+        pageLabel.getStyle()
+                .set("color", "var(--text-secondary)")
+                .set("font-weight", "600");
+
+        HorizontalLayout pagination = new HorizontalLayout(previousBtn, pageLabel, nextBtn);
+        pagination.setWidthFull();
+        pagination.setJustifyContentMode(JustifyContentMode.CENTER);
+        pagination.setAlignItems(Alignment.CENTER);
+        pagination.getStyle()
+                .set("padding", "12px")
+                .set("border-top", "1px solid var(--border-color)");
+        return pagination;
+    }
+
     private void createGrid() {
         // Category column
         grid.addComponentColumn(event -> {
@@ -279,7 +425,7 @@ public class EventListView extends VerticalLayout {
             return btn;
         }).setHeader("Actions").setAutoWidth(true).setFlexGrow(0);
 
-        // Grid styling
+        // Grid styling : une page de PAGE_SIZE lignes au plus
         grid.setAllRowsVisible(true);
         grid.getStyle()
                 .set("border", "none")
@@ -302,14 +448,46 @@ public class EventListView extends VerticalLayout {
         );
     }
 
+    private void refreshOnChange() {
+        if (!updatingFilters) {
+            refreshGrid();
+        }
+    }
+
+    // Plusieurs filtres modifiés d'un coup : une seule recherche
+    private void updateFilters(Runnable changes) {
+        updatingFilters = true;
+        try {
+            changes.run();
+        } finally {
+            updatingFilters = false;
+        }
+        refreshGrid();
+    }
+
+    // Nouveaux critères : retour à la première page
     private void refreshGrid() {
-        List<Event> events = eventService. search(
+        previousCursors.clear();
+        currentCursor = null;
+        loadPage();
+        renderFacets(eventService.searchFacets(currentQuery()));
+    }
+
+    private void loadPage() {
+        currentPage = eventService.searchPage(currentQuery(), sortOrder.getValue(), currentCursor, PAGE_SIZE);
+        grid.setItems(currentPage.events());
+        previousBtn.setEnabled(!previousCursors.isEmpty());
+        nextBtn.setEnabled(currentPage.hasNext());
+        pageLabel.setText("Page " + (previousCursors.size() + 1));
+    }
+
+    private EventSearchIndex.Query currentQuery() {
+        return new EventSearchIndex.Query(
                 categoryFilter.getValue(),
                 villeFilter.getValue(),
                 keywordFilter.getValue(),
                 minPriceFilter.getValue(),
                 maxPriceFilter.getValue()
         );
-        grid.setItems(events);
     }
 }
\ No newline at end of file
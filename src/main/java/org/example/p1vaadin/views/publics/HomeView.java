@@ -274,7 +274,7 @@ public class HomeView extends VerticalLayout {
                 .set("gap", "32px")
                 .set("justify-content", "center");
 
-        List<Event> events = eventService.findPopularEvents(6);
+        List<Event> events = eventService.findTrendingEvents(6);
         int delay = 0;
         for (Event event : events) {
             eventsGrid.add(createEventCard(event, delay));
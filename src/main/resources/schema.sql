@@ -0,0 +1,2 @@
+-- Séquence des blocs de codes de réservation (voir CodeGenerator), hors du modèle JPA
+CREATE SEQUENCE IF NOT EXISTS reservation_code_blocks START WITH 0 MINVALUE 0;
@@ -0,0 +1,44 @@
+package org.example.p1vaadin;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Base des tests sur la base H2 : un seul contexte Spring, statistiques Hibernate actives,
+ * et une transaction toujours annulée pour que chaque test laisse la base intacte.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public abstract class PersistenceTestSupport {
+
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    @Autowired
+    protected TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    protected void inRolledBackTransaction(Runnable work) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                work.run();
+            } finally {
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    protected Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.p1vaadin.repository;
+
+import org.example.p1vaadin.PersistenceTestSupport;
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.domain.enums.EventCategory;
+import org.example.p1vaadin.domain.enums.EventSortOrder;
+import org.example.p1vaadin.domain.enums.EventStatus;
+import org.example.p1vaadin.domain.enums.Role;
+import org.example.p1vaadin.service.EventSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Parcours par curseur du catalogue : chaque page reprend exactement après la précédente, égalités comprises,
+ * et les critères poussés en SQL retiennent les mêmes événements que l'index dont viennent les facettes.
+ */
+class EventSpecificationsTest extends PersistenceTestSupport {
+
+    private static final String MARKER = "Zyxpagination";
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Test
+    void keysetPagesCoverTheSortedResultOnce() {
+        inRolledBackTransaction(() -> {
+            User organizer = organizer();
+            double[] prices = {50, 120, 120, 120, 300, 80, 120};
+            for (int i = 0; i < prices.length; i++) {
+                persist(organizer, MARKER + " " + i, "Rabat", EventCategory.CONCERT, prices[i],
+                        EventStatus.PUBLIE, i + 1);
+            }
+            persist(organizer, MARKER + " brouillon", "Rabat", EventCategory.CONCERT, 90, EventStatus.BROUILLON, 2);
+            persist(organizer, MARKER + " passé", "Rabat", EventCategory.CONCERT, 90, EventStatus.PUBLIE, -3);
+            entityManager.flush();
+            entityManager.clear();
+
+            Specification<Event> spec = EventSpecifications.matching(null, null, MARKER, null, null, LocalDateTime.now());
+            for (EventSortOrder order : EventSortOrder.values()) {
+                List<Long> expected = ids(eventRepository.findBy(spec,
+                        q -> q.sortBy(EventSpecifications.sort(order)).all()));
+                assertEquals(prices.length, expected.size());
+                assertEquals(expected, walk(spec, order, 2), order.name());
+            }
+        });
+    }
+
+    @Test
+    void predicatesArePushedIntoTheQuery() {
+        inRolledBackTransaction(() -> {
+            User organizer = organizer();
+            Event jazz = persist(organizer, MARKER + " Jazz", "Marrakech", EventCategory.CONCERT, 150,
+                    EventStatus.PUBLIE, 3);
+            persist(organizer, MARKER + " Rock", "Marrakech", EventCategory.CONCERT, 400, EventStatus.PUBLIE, 4);
+            persist(organizer, MARKER + " Gala", "Agadir", EventCategory.SPORT, 150, EventStatus.PUBLIE, 5);
+            entityManager.flush();
+
+            Specification<Event> spec = EventSpecifications.matching(EventCategory.CONCERT, "MARRA",
+                    MARKER + " jazz", 100.0, 200.0, LocalDateTime.now());
+            assertEquals(List.of(jazz.getId()), ids(eventRepository.findAll(spec)));
+        });
+    }
+
+    @Test
+    void textMatchingAgreesWithTheSearchIndex() {
+        inRolledBackTransaction(() -> {
+            User organizer = organizer();
+            EventSearchIndex index = new EventSearchIndex(null, null);
+            Event theatre = persist(organizer, MARKER + " Théâtre de l'Été", "Marseille", EventCategory.THEATRE, 80,
+                    EventStatus.PUBLIE, 3);
+            Event festival = persist(organizer, MARKER + " Festival Gnaoua", "Essaouira", EventCategory.CONCERT, 200,
+                    EventStatus.PUBLIE, 4);
+            entityManager.flush();
+            index.put(theatre);
+            index.put(festival);
+
+            assertSameMatches(index, null, "THEATRE ete", List.of(theatre.getId()));
+            assertSameMatches(index, "mars", null, List.of(theatre.getId()));
+            assertSameMatches(index, null, "gna", List.of(festival.getId()));
+            // Début de mot seulement : une sous-chaîne au milieu d'un mot ne correspond pas
+            assertSameMatches(index, "seille", null, List.of());
+            assertSameMatches(index, null, "aoua", List.of());
+        });
+    }
+
+    private void assertSameMatches(EventSearchIndex index, String city, String keyword, List<Long> expected) {
+        // Le marqueur écarte les événements d'exemple de la base, absents de l'index local
+        String markedKeyword = keyword == null ? MARKER : MARKER + " " + keyword;
+        Specification<Event> spec = EventSpecifications.matching(null, city, markedKeyword, null, null, LocalDateTime.now());
+        assertEquals(expected, ids(eventRepository.findBy(spec,
+                q -> q.sortBy(EventSpecifications.sort(EventSortOrder.DATE)).all())));
+        assertEquals(expected, index.search(new EventSearchIndex.Query(null, city, keyword, null, null)));
+    }
+
+    private List<Long> walk(Specification<Event> spec, EventSortOrder order, int pageSize) {
+        List<Long> seen = new ArrayList<>();
+        Event last = null;
+        while (true) {
+            Specification<Event> page = last == null ? spec
+                    : spec.and(EventSpecifications.after(order, order.keyOf(last), last.getId()));
+            List<Event> rows = eventRepository.findBy(page,
+                    q -> q.sortBy(EventSpecifications.sort(order)).limit(pageSize).all());
+            if (rows.isEmpty()) {
+                return seen;
+            }
+            seen.addAll(ids(rows));
+            last = rows.get(rows.size() - 1);
+        }
+    }
+
+    private User organizer() {
+        User organizer = User.builder().nom("Catalogue").prenom("Organisateur").email("organisateur@catalogue.test")
+                .password("motdepasse").role(Role.ORGANIZER).build();
+        entityManager.persist(organizer);
+        return organizer;
+    }
+
+    private Event persist(User organizer, String titre, String ville, EventCategory categorie, double prix,
+                          EventStatus statut, int daysAhead) {
+        LocalDateTime start = LocalDateTime.now().plusDays(daysAhead);
+        Event event = Event.builder().titre(titre).description("Test de pagination").categorie(categorie)
+                .dateDebut(start).dateFin(start.plusHours(2)).lieu("Salle Atlas").ville(ville)
+                .capaciteMax(100).prixUnitaire(prix).statut(statut).organisateur(organizer).build();
+        entityManager.persist(event);
+        return event;
+    }
+
+    private static List<Long> ids(List<Event> events) {
+        return events.stream().map(Event::getId).toList();
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.p1vaadin.repository;
+
+import org.example.p1vaadin.PersistenceTestSupport;
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.Reservation;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.domain.enums.EventCategory;
+import org.example.p1vaadin.domain.enums.EventStatus;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.domain.enums.Role;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie que les identifiants des réservations viennent d'une séquence par blocs (aucun INSERT
+ * au moment du persist, contrairement à IDENTITY) et que le flush les écrit par lots JDBC.
+ */
+class ReservationBatchInsertTest extends PersistenceTestSupport {
+
+    private static final int ROWS = 500;
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Value("${app.jdbc.batch-size}")
+    private int batchSize;
+
+    @Test
+    void pooledIdsDeferInsertsToBatchedFlush() {
+        inRolledBackTransaction(() -> {
+            User client = User.builder().nom("Lots").prenom("Client").email("client@lots.test")
+                    .password("motdepasse").role(Role.CLIENT).build();
+            entityManager.persist(client);
+            Event event = Event.builder().titre("Insertion par lots").categorie(EventCategory.AUTRE)
+                    .dateDebut(LocalDateTime.now().plusDays(10)).dateFin(LocalDateTime.now().plusDays(11))
+                    .lieu("Salle test").ville("Rabat").capaciteMax(ROWS).prixUnitaire(10.0)
+                    .organisateur(client).statut(EventStatus.PUBLIE).build();
+            entityManager.persist(event);
+            entityManager.flush();
+
+            Statistics statistics = statistics();
+            statistics.clear();
+            List<Reservation> reservations = new ArrayList<>();
+            for (int i = 0; i < ROWS; i++) {
+                Reservation reservation = Reservation.builder().utilisateur(client).evenement(event)
+                        .nombrePlaces(1).montantTotal(10.0).statut(ReservationStatus.CONFIRMEE)
+                        .codeReservation("LOT-" + i).build();
+                entityManager.persist(reservation);
+                reservations.add(reservation);
+            }
+            reservations.forEach(reservation -> assertNotNull(reservation.getId()));
+            assertEquals(0, statistics.getEntityInsertCount());
+            // Une lecture de séquence par bloc de ALLOCATION_SIZE identifiants, au plus
+            long sequenceCalls = statistics.getPrepareStatementCount();
+            assertTrue(sequenceCalls <= ROWS / ALLOCATION_SIZE + 1, "lectures de séquence : " + sequenceCalls);
+
+            entityManager.flush();
+            assertEquals(ROWS, statistics.getEntityInsertCount());
+            long insertStatements = statistics.getPrepareStatementCount() - sequenceCalls;
+            assertTrue(insertStatements <= (ROWS + batchSize - 1) / batchSize, "requêtes d'insertion : " + insertStatements);
+        });
+    }
+}
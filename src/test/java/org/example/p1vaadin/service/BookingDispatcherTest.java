@@ -0,0 +1,81 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Reservation;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.exception.ServiceBusyException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingDispatcherTest {
+
+    private static final long TIMEOUT_MS = 500;
+
+    private final ReservationService reservationService = mock(ReservationService.class);
+    private final IdempotencyService idempotencyService = mock(IdempotencyService.class);
+    private final User user = User.builder().id(5L).build();
+    private final List<Integer> booked = new CopyOnWriteArrayList<>();
+
+    @Test
+    void requestWithdrawnOnTimeoutIsNeverBooked() throws Exception {
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        when(reservationService.createGroup(anyLong(), anyList())).thenAnswer(invocation -> {
+            firstBatchStarted.countDown();
+            releaseFirstBatch.await();
+            return accept(invocation.getArgument(1));
+        });
+        BookingDispatcher dispatcher = new BookingDispatcher(reservationService, idempotencyService, 10, 50, TIMEOUT_MS, 1_000);
+
+        CompletableFuture<Reservation> first = CompletableFuture.supplyAsync(() -> dispatcher.book(1L, 1, null, user, null));
+        assertTrue(firstBatchStarted.await(5, TimeUnit.SECONDS));
+        // Le lot en cours bloque la file : la deuxième demande expire en file et est retirée par son appelant
+        ServiceBusyException busy = assertThrows(ServiceBusyException.class, () -> dispatcher.book(1L, 2, null, user, null));
+        assertTrue(busy.getMessage().contains("n'a pas été traitée"));
+        releaseFirstBatch.countDown();
+
+        assertEquals(1, first.get(5, TimeUnit.SECONDS).getNombrePlaces());
+        // La file traite dans l'ordre : une fois la troisième demande servie, la deuxième a été écartée
+        assertEquals(3, dispatcher.submit(new BookingRequest(1L, 3, null, user, null))
+                .get(5, TimeUnit.SECONDS).getNombrePlaces());
+        assertEquals(List.of(1, 3), booked);
+    }
+
+    @Test
+    void idleLaneIsRetiredAndReplacedOnNextRequest() throws Exception {
+        when(reservationService.createGroup(anyLong(), anyList()))
+                .thenAnswer(invocation -> accept(invocation.getArgument(1)));
+        BookingDispatcher dispatcher = new BookingDispatcher(reservationService, idempotencyService, 10, 50, TIMEOUT_MS, 50);
+
+        assertEquals(1, dispatcher.book(2L, 1, null, user, null).getNombrePlaces());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!dispatcher.laneStats().isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(dispatcher.laneStats().isEmpty());
+
+        assertEquals(2, dispatcher.book(2L, 2, null, user, null).getNombrePlaces());
+        assertEquals(List.of(1, 2), booked);
+    }
+
+    private List<BookingResult> accept(List<BookingRequest> requests) {
+        return requests.stream()
+                .map(request -> {
+                    booked.add(request.nombrePlaces());
+                    return BookingResult.accepted(Reservation.builder().nombrePlaces(request.nombrePlaces()).build());
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.PersistenceTestSupport;
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.Reservation;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.domain.enums.EventCategory;
+import org.example.p1vaadin.domain.enums.EventStatus;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.domain.enums.Role;
+import org.example.p1vaadin.events.ReservationsBulkCancelledEvent;
+import org.example.p1vaadin.repository.EventRepository;
+import org.example.p1vaadin.repository.NotificationRepository;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.example.p1vaadin.repository.WaitlistRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Annulation en cascade avec des lots de {@value #CHUNK_SIZE} réservations, exécutée sur le thread du test
+ * pour rester dans sa transaction annulée.
+ */
+class EventCancellationServiceTest extends PersistenceTestSupport {
+
+    private static final int CHUNK_SIZE = 7;
+    private static final int ACTIVE = 50;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private ReservedPlacesLedgerService ledgerService;
+
+    @Test
+    void activeReservationsAreCancelledChunkByChunk() {
+        List<Object> published = new ArrayList<>();
+        EventCancellationService service = new EventCancellationService(reservationRepository, eventRepository,
+                waitlistRepository, notificationRepository, seatInventory, ledgerService, transactionTemplate,
+                published::add, Runnable::run, CHUNK_SIZE);
+
+        inRolledBackTransaction(() -> {
+            User client = User.builder().nom("Annulation").prenom("Client").email("client@annulation.test")
+                    .password("motdepasse").role(Role.CLIENT).build();
+            entityManager.persist(client);
+            Event event = Event.builder().titre("Événement annulé").categorie(EventCategory.AUTRE)
+                    .dateDebut(LocalDateTime.now().plusDays(10)).dateFin(LocalDateTime.now().plusDays(11))
+                    .lieu("Salle test").ville("Rabat").capaciteMax(200).prixUnitaire(10.0)
+                    .organisateur(client).statut(EventStatus.ANNULE).build();
+            entityManager.persist(event);
+            for (int i = 0; i < ACTIVE; i++) {
+                entityManager.persist(Reservation.builder().utilisateur(client).evenement(event)
+                        .nombrePlaces(2).montantTotal(20.0)
+                        .statut(i % 5 == 0 ? ReservationStatus.EN_ATTENTE : ReservationStatus.CONFIRMEE)
+                        .codeReservation("ANNUL-" + i).build());
+            }
+            entityManager.persist(Reservation.builder().utilisateur(client).evenement(event)
+                    .nombrePlaces(3).montantTotal(30.0).statut(ReservationStatus.ANNULEE)
+                    .codeReservation("ANNUL-deja").build());
+            entityManager.flush();
+            eventRepository.setReservedPlaces(event.getId(), ACTIVE * 2);
+
+            assertEquals(ACTIVE, service.cancelReservations(event.getId()));
+
+            assertEquals(0L, count("SELECT COUNT(r) FROM Reservation r WHERE r.evenement.id = :id AND r.statut <> 'ANNULEE'", event.getId()));
+            assertEquals((long) ACTIVE, count("SELECT COUNT(n) FROM Notification n WHERE n.type = 'EVENEMENT_ANNULE' "
+                    + "AND n.utilisateur.id = :id", client.getId()));
+            assertEquals(0, eventRepository.findReservedPlaces(event.getId()));
+            List<ReservationsBulkCancelledEvent> chunks = published.stream()
+                    .map(ReservationsBulkCancelledEvent.class::cast)
+                    .toList();
+            assertEquals((ACTIVE + CHUNK_SIZE - 1) / CHUNK_SIZE, chunks.size());
+            assertEquals(ACTIVE / 5, chunks.stream().mapToInt(ReservationsBulkCancelledEvent::previouslyPending).sum());
+            assertEquals(ACTIVE * 2, chunks.stream().mapToInt(ReservationsBulkCancelledEvent::places).sum());
+            // Un second passage ne trouve plus rien à annuler
+            assertEquals(0, service.cancelReservations(event.getId()));
+        });
+    }
+
+    private long count(String jpql, Long id) {
+        return entityManager.createQuery(jpql, Long.class).setParameter("id", id).getSingleResult();
+    }
+}
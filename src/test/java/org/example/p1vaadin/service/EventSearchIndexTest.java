@@ -0,0 +1,112 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.enums.EventCategory;
+import org.example.p1vaadin.domain.enums.EventStatus;
+import org.example.p1vaadin.domain.enums.PriceBand;
+import org.example.p1vaadin.service.EventSearchIndex.Facets;
+import org.example.p1vaadin.service.EventSearchIndex.Query;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventSearchIndexTest {
+
+    private final EventSearchIndex index = new EventSearchIndex(null, null);
+
+    private static Event event(long id, String titre, String ville, EventCategory categorie, double prix,
+                               EventStatus statut, int daysAhead) {
+        LocalDateTime start = LocalDateTime.now().plusDays(daysAhead);
+        return Event.builder().id(id).titre(titre).description("Soirée de " + titre).categorie(categorie)
+                .dateDebut(start).dateFin(start.plusHours(3)).lieu("Salle Atlas").ville(ville)
+                .capaciteMax(100).prixUnitaire(prix).statut(statut).build();
+    }
+
+    private List<Long> search(EventCategory category, String city, String keyword, Double min, Double max) {
+        return index.search(new Query(category, city, keyword, min, max));
+    }
+
+    @Test
+    void keywordsIgnoreAccentsAndMatchWordPrefixes() {
+        index.put(event(1, "Festival Gnaoua", "Essaouira", EventCategory.CONCERT, 200, EventStatus.PUBLIE, 5));
+        index.put(event(2, "Théâtre de rue", "Marrakech", EventCategory.THEATRE, 80, EventStatus.PUBLIE, 2));
+        index.put(event(3, "Conférence IA", "Casablanca", EventCategory.CONFERENCE, 0, EventStatus.PUBLIE, 9));
+
+        assertEquals(List.of(2L), search(null, null, "THEATRE", null, null));
+        assertEquals(List.of(1L), search(null, null, "fest gna", null, null));
+        assertEquals(List.of(2L), search(null, "marra", null, null, null));
+        // Le lieu et la description sont aussi indexés : résultats par date de début
+        assertEquals(List.of(2L, 1L, 3L), search(null, null, "atlas", null, null));
+    }
+
+    @Test
+    void filtersCombineCategoryPriceAndAvailability() {
+        index.put(event(1, "Concert Jazz", "Rabat", EventCategory.CONCERT, 150, EventStatus.PUBLIE, 3));
+        index.put(event(2, "Concert Rock", "Rabat", EventCategory.CONCERT, 300, EventStatus.PUBLIE, 4));
+        index.put(event(3, "Concert Pop", "Rabat", EventCategory.CONCERT, 120, EventStatus.BROUILLON, 4));
+        index.put(event(4, "Concert passé", "Rabat", EventCategory.CONCERT, 100, EventStatus.PUBLIE, -2));
+        index.put(event(5, "Match de gala", "Rabat", EventCategory.SPORT, 150, EventStatus.PUBLIE, 1));
+
+        assertEquals(List.of(1L, 2L), search(EventCategory.CONCERT, null, null, null, null));
+        assertEquals(List.of(5L, 1L), search(null, null, null, 150.0, 150.0));
+        assertEquals(List.of(1L), search(EventCategory.CONCERT, "rabat", null, null, 200.0));
+    }
+
+    @Test
+    void updatesAndRemovalsReplaceTheIndexedEntry() {
+        index.put(event(1, "Concert Jazz", "Rabat", EventCategory.CONCERT, 150, EventStatus.PUBLIE, 3));
+        index.put(event(1, "Concert Blues", "Tanger", EventCategory.CONCERT, 150, EventStatus.PUBLIE, 3));
+
+        assertEquals(List.of(), search(null, null, "jazz", null, null));
+        assertEquals(List.of(1L), search(null, "tanger", "blues", null, null));
+
+        index.put(event(1, "Concert Blues", "Tanger", EventCategory.CONCERT, 150, EventStatus.ANNULE, 3));
+        assertEquals(List.of(), search(null, null, "blues", null, null));
+
+        index.remove(1L);
+        index.put(event(2, "Concert Soul", "Tanger", EventCategory.CONCERT, 90, EventStatus.PUBLIE, 3));
+        assertEquals(1, index.size());
+        assertEquals(List.of(2L), search(null, "tanger", null, null, null));
+    }
+
+    @Test
+    void facetsCountEachValueWithoutItsOwnCriterion() {
+        index.put(event(1, "Concert Jazz", "Rabat", EventCategory.CONCERT, 150, EventStatus.PUBLIE, 3));
+        index.put(event(2, "Concert Rock", "Rabat", EventCategory.CONCERT, 300, EventStatus.PUBLIE, 4));
+        index.put(event(3, "Concert Gnaoua", "Essaouira", EventCategory.CONCERT, 0, EventStatus.PUBLIE, 5));
+        index.put(event(4, "Match de gala", "Rabat", EventCategory.SPORT, 50, EventStatus.PUBLIE, 1));
+        index.put(event(5, "Concert annulé", "Rabat", EventCategory.CONCERT, 150, EventStatus.ANNULE, 2));
+
+        EventSearchIndex.Result result = index.searchWithFacets(new Query(EventCategory.CONCERT, "rabat", null, null, null));
+        assertEquals(List.of(1L, 2L), result.eventIds());
+
+        Facets facets = result.facets();
+        // Catégories comptées sur Rabat, villes sur les concerts, tranches sur les concerts de Rabat
+        assertEquals(2, facets.categories().get(EventCategory.CONCERT));
+        assertEquals(1, facets.categories().get(EventCategory.SPORT));
+        assertEquals(0, facets.categories().get(EventCategory.THEATRE));
+        assertEquals(Map.of("Rabat", 2, "Essaouira", 1), facets.cities());
+        assertEquals(List.of("Rabat", "Essaouira"), List.copyOf(facets.cities().keySet()));
+        assertEquals(1, facets.priceBands().get(PriceBand.DE_100_A_300));
+        assertEquals(1, facets.priceBands().get(PriceBand.DE_300_A_500));
+        assertEquals(0, facets.priceBands().get(PriceBand.GRATUIT));
+    }
+
+    @Test
+    void facetsFollowIndexUpdates() {
+        index.put(event(1, "Concert Jazz", "Rabat", EventCategory.CONCERT, 150, EventStatus.PUBLIE, 3));
+        index.put(event(1, "Concert Jazz", "Tanger", EventCategory.CONCERT, 0, EventStatus.PUBLIE, 3));
+
+        Facets facets = index.facets(new Query(null, null, "jazz", null, 0.0));
+        assertEquals(Map.of("Tanger", 1), facets.cities());
+        assertEquals(1, facets.priceBands().get(PriceBand.GRATUIT));
+        assertEquals(0, facets.priceBands().get(PriceBand.DE_100_A_300));
+
+        index.remove(1L);
+        assertEquals(Map.of(), index.facets(new Query(null, null, null, null, null)).cities());
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.IdempotencyKey;
+import org.example.p1vaadin.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private static final int THREADS = 16;
+
+    private final IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+    private final IdempotencyService service = new IdempotencyService(repository, Duration.ofHours(24), 100);
+
+    @Test
+    void onlyOneConcurrentRequestPerKeyIsInFlight() throws InterruptedException {
+        AtomicInteger winners = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch begun = new CountDownLatch(THREADS);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            pool.execute(() -> inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+                try {
+                    start.await();
+                    if (service.begin("7:double-clic")) {
+                        winners.incrementAndGet();
+                    }
+                    begun.countDown();
+                    finish.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        start.countDown();
+        assertTrue(begun.await(1, TimeUnit.MINUTES));
+        assertEquals(1, winners.get());
+
+        finish.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        // La transaction gagnante est terminée : la clé est libérée
+        assertTrue(service.begin("7:double-clic"));
+    }
+
+    @Test
+    void keyIsCachedOnlyOnceItsTransactionCommits() {
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> service.remember("7:annulee", 41L));
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> service.remember("7:validee", 42L));
+
+        assertTrue(service.find("7:annulee").isEmpty());
+        assertEquals(Optional.of(42L), service.find("7:validee"));
+        verify(repository, never()).findById("7:validee");
+        verify(repository, times(2)).save(any(IdempotencyKey.class));
+    }
+
+    @Test
+    void expiredKeysAreIgnored() {
+        when(repository.findById("7:ancienne")).thenReturn(Optional.of(IdempotencyKey.builder()
+                .cle("7:ancienne")
+                .reservationId(43L)
+                .dateCreation(LocalDateTime.now().minusHours(25))
+                .build()));
+
+        assertTrue(service.find("7:ancienne").isEmpty());
+    }
+
+    // Simule une transaction sur le thread courant, terminée avec le statut donné
+    private static void inTransaction(int status, Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
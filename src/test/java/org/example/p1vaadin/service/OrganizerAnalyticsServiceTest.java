@@ -0,0 +1,72 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.PersistenceTestSupport;
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.Reservation;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.domain.enums.EventCategory;
+import org.example.p1vaadin.domain.enums.EventStatus;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.domain.enums.Role;
+import org.example.p1vaadin.service.OrganizerAnalyticsService.OrganizerStats;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vérifie que les indicateurs d'un organisateur coûtent un nombre fixe de requêtes,
+ * quel que soit le nombre de ses événements.
+ */
+class OrganizerAnalyticsServiceTest extends PersistenceTestSupport {
+
+    private static final int EVENTS = 300;
+    private static final int RESERVATIONS_PER_EVENT = 3;
+
+    @Autowired
+    private OrganizerAnalyticsService organizerAnalyticsService;
+
+    @Test
+    void statsUseTwoQueriesWhateverTheNumberOfEvents() {
+        inRolledBackTransaction(() -> {
+            User organizer = User.builder().nom("Analyse").prenom("Organisateur").email("organisateur@analyse.test")
+                    .password("motdepasse").role(Role.ORGANIZER).build();
+            User client = User.builder().nom("Analyse").prenom("Client").email("client@analyse.test")
+                    .password("motdepasse").role(Role.CLIENT).build();
+            entityManager.persist(organizer);
+            entityManager.persist(client);
+            for (int i = 0; i < EVENTS; i++) {
+                Event event = Event.builder().titre("Analyse " + i).categorie(EventCategory.AUTRE)
+                        .dateDebut(LocalDateTime.now().plusDays(10)).dateFin(LocalDateTime.now().plusDays(11))
+                        .lieu("Salle test").ville("Rabat").capaciteMax(100).prixUnitaire(10.0)
+                        .organisateur(organizer)
+                        .statut(i % 2 == 0 ? EventStatus.PUBLIE : EventStatus.BROUILLON)
+                        .build();
+                entityManager.persist(event);
+                for (int j = 0; j < RESERVATIONS_PER_EVENT; j++) {
+                    entityManager.persist(Reservation.builder().utilisateur(client).evenement(event)
+                            .nombrePlaces(1).montantTotal(10.0)
+                            .statut(j == 0 ? ReservationStatus.ANNULEE : ReservationStatus.CONFIRMEE)
+                            .codeReservation("STATS-" + i + "-" + j)
+                            .build());
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+
+            Statistics statistics = statistics();
+            statistics.clear();
+            OrganizerStats stats = organizerAnalyticsService.stats(organizer);
+            assertEquals(2, statistics.getPrepareStatementCount());
+
+            assertEquals(EVENTS, stats.totalEvents());
+            assertEquals(EVENTS / 2, stats.events(EventStatus.PUBLIE));
+            assertEquals(EVENTS * RESERVATIONS_PER_EVENT, stats.totalReservations());
+            assertEquals(EVENTS, stats.reservations(ReservationStatus.ANNULEE));
+            assertEquals(EVENTS * (RESERVATIONS_PER_EVENT - 1) * 10.0, stats.revenue(), 0.001);
+        });
+    }
+}
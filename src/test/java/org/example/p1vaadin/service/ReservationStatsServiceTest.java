@@ -0,0 +1,71 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.ReservationStatusTally;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.events.ReservationStatusChangedEvent;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.example.p1vaadin.repository.ReservationStatusTallyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReservationStatsServiceTest {
+
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final ReservationStatusTallyRepository tallyRepository = mock(ReservationStatusTallyRepository.class);
+    private final ReservationStatsService stats = new ReservationStatsService(reservationRepository, tallyRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+    @Test
+    void reconcileIgnoresACommitNotYetCounted() {
+        tableHolds(ReservationStatus.CONFIRMEE, 1, 150.0);
+        ReservationStatusChangedEvent created = new ReservationStatusChangedEvent(1L, 2L, 3L, 2, 150.0,
+                LocalDateTime.now(), null, ReservationStatus.CONFIRMEE);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stats.onReservationsCommitting();
+            // Réservation visible dans la table mais pas encore comptée : aucune correction
+            assertEquals(List.of(), stats.reconcile());
+            assertEquals(0, stats.count(ReservationStatus.CONFIRMEE));
+
+            stats.onReservationStatusChanged(created);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(), stats.reconcile());
+        assertEquals(1, stats.count(ReservationStatus.CONFIRMEE));
+        assertEquals(150.0, stats.revenue(), 0.001);
+    }
+
+    @Test
+    void loadResumesSavedCountersAndCorrectsTheirDrift() {
+        when(tallyRepository.findAll()).thenReturn(List.of(ReservationStatusTally.builder()
+                .statut(ReservationStatus.CONFIRMEE).nombre(4).montantCentimes(40_000).build()));
+        tableHolds(ReservationStatus.CONFIRMEE, 5, 500.0);
+
+        stats.load();
+
+        assertEquals(5, stats.count(ReservationStatus.CONFIRMEE));
+        assertEquals(500.0, stats.revenue(), 0.001);
+        assertEquals(List.of(), stats.reconcile());
+    }
+
+    private void tableHolds(ReservationStatus status, long count, double amount) {
+        when(reservationRepository.countAndSumGroupedByStatus())
+                .thenReturn(Collections.singletonList(new Object[]{status, count, amount}));
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.PersistenceTestSupport;
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.Reservation;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.domain.enums.EventCategory;
+import org.example.p1vaadin.domain.enums.EventStatus;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.domain.enums.Role;
+import org.example.p1vaadin.repository.EventRepository;
+import org.example.p1vaadin.service.ReservedPlacesLedgerService.LedgerDrift;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReservedPlacesLedgerServiceTest extends PersistenceTestSupport {
+
+    @Autowired
+    private ReservedPlacesLedgerService ledgerService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Test
+    void repairRealignsDriftedLedgerOnActiveReservations() {
+        inRolledBackTransaction(() -> {
+            User organizer = User.builder().nom("Registre").prenom("Organisateur").email("organisateur@registre.test")
+                    .password("motdepasse").role(Role.ORGANIZER).build();
+            entityManager.persist(organizer);
+            // Registre à 0 alors que 5 places sont réservées : les réservations insérées directement ne le mettent pas à jour
+            Event event = Event.builder().titre("Registre dérivé").categorie(EventCategory.AUTRE)
+                    .dateDebut(LocalDateTime.now().plusDays(10)).dateFin(LocalDateTime.now().plusDays(11))
+                    .lieu("Salle test").ville("Rabat").capaciteMax(50).prixUnitaire(10.0)
+                    .organisateur(organizer).statut(EventStatus.PUBLIE).build();
+            entityManager.persist(event);
+            int[] places = {2, 3, 4};
+            ReservationStatus[] statuses = {ReservationStatus.CONFIRMEE, ReservationStatus.EN_ATTENTE, ReservationStatus.ANNULEE};
+            for (int i = 0; i < places.length; i++) {
+                entityManager.persist(Reservation.builder().utilisateur(organizer).evenement(event)
+                        .nombrePlaces(places[i]).montantTotal(places[i] * 10.0).statut(statuses[i])
+                        .codeReservation("REGISTRE-" + i).build());
+            }
+            entityManager.flush();
+
+            // Les réservations annulées ne comptent pas
+            assertTrue(ledgerService.repair().contains(new LedgerDrift(event.getId(), 0, 5)));
+            assertEquals(5, eventRepository.findReservedPlaces(event.getId()));
+            assertNull(ledgerService.align(event.getId()));
+        });
+    }
+}
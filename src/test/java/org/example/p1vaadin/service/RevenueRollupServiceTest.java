@@ -0,0 +1,46 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.domain.enums.ReservationStatus;
+import org.example.p1vaadin.events.ReservationStatusChangedEvent;
+import org.example.p1vaadin.repository.DailyRollupRepository;
+import org.example.p1vaadin.repository.EventRepository;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.example.p1vaadin.service.RevenueRollupService.MonthlyRevenue;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RevenueRollupServiceTest {
+
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final RevenueRollupService rollups = new RevenueRollupService(mock(DailyRollupRepository.class),
+            mock(ReservationRepository.class), eventRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+    @Test
+    void monthlySeriesIncludeChangesNotYetFlushed() {
+        when(eventRepository.findOrganizerIds(anyCollection()))
+                .thenReturn(Collections.singletonList(new Object[]{2L, 7L}));
+        rollups.onReservationStatusChanged(new ReservationStatusChangedEvent(1L, 2L, 3L, 4, 200.0,
+                LocalDateTime.now(), null, ReservationStatus.CONFIRMEE));
+        YearMonth month = YearMonth.now();
+
+        // Aucune écriture en base : la série vient des écarts en mémoire
+        assertEquals(List.of(new MonthlyRevenue(month.minusMonths(1), 0, 0, 0), new MonthlyRevenue(month, 1, 4, 200.0)),
+                rollups.monthlyForOrganizer(User.builder().id(7L).build(), month.minusMonths(1), month));
+        assertEquals(List.of(new MonthlyRevenue(month, 0, 0, 0)),
+                rollups.monthlyForOrganizer(User.builder().id(8L).build(), month, month));
+        assertEquals(List.of(new MonthlyRevenue(month, 1, 4, 200.0)), rollups.monthlyForEvent(2L, month, month));
+    }
+}
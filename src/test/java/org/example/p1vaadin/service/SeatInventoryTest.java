@@ -0,0 +1,98 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.exception.BadRequestException;
+import org.example.p1vaadin.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SeatInventoryTest {
+
+    private static final int CAPACITY = 100;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 20;
+
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final SeatInventory inventory = new SeatInventory(reservationRepository);
+    private final Event event = Event.builder().id(1L).capaciteMax(CAPACITY).build();
+
+    @Test
+    void concurrentReservationsNeverOversell() throws InterruptedException {
+        when(reservationRepository.sumPlacesReservedForEvent(event)).thenReturn(10);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    try {
+                        inventory.reserve(event, 1);
+                        accepted.incrementAndGet();
+                    } catch (BadRequestException e) {
+                        refused.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(CAPACITY - 10, accepted.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - (CAPACITY - 10), refused.get());
+        assertEquals(0, inventory.available(event));
+        // Le compteur n'est chargé qu'une fois malgré les premiers accès simultanés
+        verify(reservationRepository, times(1)).sumPlacesReservedForEvent(event);
+    }
+
+    @Test
+    void placesOfARolledBackTransactionAreReturned() {
+        when(reservationRepository.sumPlacesReservedForEvent(event)).thenReturn(0);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            inventory.reserve(event, 30);
+            assertEquals(CAPACITY - 30, inventory.available(event));
+            assertThrows(BadRequestException.class, () -> inventory.reserve(event, CAPACITY));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(CAPACITY, inventory.available(event));
+    }
+
+    @Test
+    void reconcileRealignsTheCounterOnActiveReservations() {
+        when(reservationRepository.sumPlacesReservedForEvent(event)).thenReturn(40);
+        inventory.reserve(event, 5);
+        when(reservationRepository.sumPlacesReservedGroupedByEvent()).thenReturn(List.<Object[]>of(new Object[]{1L, 42L}));
+
+        inventory.reconcile();
+
+        assertEquals(CAPACITY - 42, inventory.available(event));
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.SeatSection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatMapTest {
+
+    private static SeatSection section(long id, int ordre, int rangees, int siegesParRangee) {
+        return SeatSection.builder().id(id).nom("S" + id).ordre(ordre)
+                .rangees(rangees).siegesParRangee(siegesParRangee).build();
+    }
+
+    @Test
+    void bestBlockIsCentredInTheFrontRow() {
+        SeatMap map = new SeatMap(List.of(section(1, 1, 3, 10)));
+
+        SeatMap.Block block = map.findBestBlock(4);
+        assertEquals(new SeatMap.Block(1, 0, 3, 4), block);
+        map.occupy(block);
+
+        // Il reste 3 sièges de chaque côté : un bloc de 4 passe au rang suivant
+        assertEquals(new SeatMap.Block(1, 1, 3, 4), map.findBestBlock(4));
+        assertEquals(0, map.findBestBlock(3).row());
+        assertEquals(26, map.available());
+    }
+
+    @Test
+    void freedSeatsCanBeAllocatedAgain() {
+        SeatMap map = new SeatMap(List.of(section(1, 1, 1, 4)));
+        SeatMap.Block block = map.findBestBlock(4);
+        map.occupy(block);
+        assertNull(map.findBestBlock(1));
+
+        map.free(SeatMap.Block.decode(block.encode()));
+        assertTrue(map.isFree(block));
+        assertEquals(block, map.findBestBlock(4));
+    }
+
+    @Test
+    void largeVenueIsFilledBlockByBlock() {
+        SeatMap map = new SeatMap(List.of(section(1, 1, 250, 100), section(2, 2, 250, 100)));
+        assertEquals(50_000, map.capacity());
+
+        int allocated = 0;
+        SeatMap.Block block;
+        while ((block = map.findBestBlock(7)) != null) {
+            assertTrue(map.isFree(block));
+            map.occupy(block);
+            assertFalse(map.isFree(block));
+            allocated++;
+        }
+
+        // En partant du centre, un rang de 100 reçoit 13 blocs de 7 (il reste 4 et 5 sièges aux bords)
+        assertEquals(500 * 13, allocated);
+        assertEquals(50_000 - allocated * 7, map.available());
+        assertNotNull(map.findBestBlock(2));
+    }
+}
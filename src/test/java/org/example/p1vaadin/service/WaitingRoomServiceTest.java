@@ -0,0 +1,55 @@
+package org.example.p1vaadin.service;
+
+import org.example.p1vaadin.domain.Event;
+import org.example.p1vaadin.domain.User;
+import org.example.p1vaadin.exception.ForbiddenException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WaitingRoomServiceTest {
+
+    private static final Event EVENT = Event.builder().id(1L).titre("Festival Gnaoua").build();
+
+    @Test
+    void admissionIsCheckedPerUserOutsideTheView() {
+        // Une admission par minute, rafale d'une : seul le premier ticket passe pendant le test
+        WaitingRoomService service = new WaitingRoomService(1, 1, Duration.ofMinutes(10), Duration.ofMinutes(2));
+        assertTrue(service.hasAccess(1L, 11L));
+        service.open(EVENT);
+
+        WaitingRoomService.Ticket first = service.join(1L, 10L);
+        service.join(1L, 11L);
+
+        assertSame(first, service.join(1L, 10L));
+        assertTrue(service.hasAccess(1L, 10L));
+        assertFalse(service.hasAccess(1L, 11L));
+        assertFalse(service.hasAccess(1L, 12L));
+        assertThrows(ForbiddenException.class, () -> service.checkAdmitted(EVENT, User.builder().id(11L).build()));
+    }
+
+    @Test
+    void abandonedTicketsAreSkippedWithoutUsingAdmissions() {
+        WaitingRoomService service = new WaitingRoomService(1, 1, Duration.ofMinutes(10), Duration.ZERO);
+        service.open(EVENT);
+        WaitingRoomService.Ticket first = service.join(1L, 10L);
+        assertTrue(service.status(first).admitted());
+        WaitingRoomService.Ticket second = service.join(1L, 11L);
+        service.join(1L, 12L);
+
+        service.releaseAbandoned();
+
+        assertTrue(service.status(second).expired());
+        assertTrue(service.hasAccess(1L, 10L));
+        // Les deux tickets abandonnés sont passés : le nouveau venu est le prochain admis
+        WaitingRoomService.Ticket next = service.join(1L, 13L);
+        assertEquals(1, service.status(next).position());
+        assertEquals(1, service.stats().get(0).waiting());
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.p1vaadin.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Débit de {@link CodeGenerator} sur 32 threads, en codes par seconde.
+ * Hors de la suite normale : {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class CodeGeneratorBenchmarkTest {
+
+    private static final int THREADS = 32;
+    private static final int CODES_PER_THREAD = 200_000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    void codesPerSecondAcrossThreads() throws InterruptedException {
+        CodeGenerator generator = new CodeGenerator(new AtomicLong()::getAndIncrement, "benchmark-reservation-code-secret");
+        // Premier tour pour la compilation à chaud, non compté
+        run(generator);
+        double best = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            long elapsed = run(generator);
+            double rate = THREADS * (double) CODES_PER_THREAD / (elapsed / 1e9);
+            best = Math.max(best, rate);
+            System.out.printf("CodeGenerator, tour %d : %,.0f codes/s sur %d threads%n", round, rate, THREADS);
+        }
+        System.out.printf("CodeGenerator, meilleur tour : %,.0f codes/s%n", best);
+    }
+
+    // Durée en nanosecondes pour générer CODES_PER_THREAD codes sur chaque thread
+    private static long run(CodeGenerator generator) throws InterruptedException {
+        LongAdder sink = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                // Les codes sont consommés pour que leur génération ne soit pas éliminée
+                long hash = 0;
+                for (int i = 0; i < CODES_PER_THREAD; i++) {
+                    hash += generator.generateReservationCode().hashCode();
+                }
+                sink.add(hash);
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.MINUTES));
+        return System.nanoTime() - begin;
+    }
+}
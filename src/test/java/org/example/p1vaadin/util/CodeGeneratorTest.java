@@ -0,0 +1,63 @@
+package org.example.p1vaadin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CodeGeneratorTest {
+
+    private static final int THREADS = 32;
+    private static final int CODES_PER_THREAD = 20_000;
+
+    @Test
+    void permutationIsBijectiveOnAPrefixOfTheKeyspace() {
+        CodeGenerator generator = new CodeGenerator(new AtomicLong()::getAndIncrement, "test-reservation-code-secret");
+        Set<Long> seen = new HashSet<>();
+        for (long i = 0; i < 200_000; i++) {
+            long permuted = generator.permute(i);
+            assertTrue(permuted >= 0 && permuted < (1L << 40));
+            assertTrue(seen.add(permuted));
+        }
+    }
+
+    @Test
+    void codesAreUniqueAcrossThreads() throws InterruptedException {
+        AtomicLong blocks = new AtomicLong();
+        CodeGenerator generator = new CodeGenerator(blocks::getAndIncrement, "test-reservation-code-secret");
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < CODES_PER_THREAD; i++) {
+                    codes.add(generator.generateReservationCode());
+                }
+            });
+        }
+
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        int total = THREADS * CODES_PER_THREAD;
+        assertEquals(total, codes.size());
+        assertTrue(blocks.get() <= total / CodeGenerator.BLOCK_SIZE + THREADS + 1);
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.p1vaadin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecentRingTest {
+
+    @Test
+    void pushEvictsTheOldestOnceFull() {
+        RecentRing<Integer> ring = new RecentRing<>(3);
+        for (int i = 1; i <= 5; i++) {
+            ring.push(i);
+        }
+        assertEquals(List.of(5, 4, 3), ring.latest(10));
+        assertEquals(List.of(5, 4), ring.latest(2));
+        assertEquals(3, ring.oldest());
+    }
+
+    @Test
+    void appendFillsTheTailOnlyWhileThereIsRoom() {
+        RecentRing<Integer> ring = new RecentRing<>(3);
+        ring.push(10);
+        assertTrue(ring.append(9));
+        assertTrue(ring.append(8));
+        assertFalse(ring.append(7));
+        assertEquals(List.of(10, 9, 8), ring.latest(3));
+    }
+
+    @Test
+    void removeIfKeepsOrderAcrossTheWrapAround() {
+        RecentRing<Integer> ring = new RecentRing<>(4);
+        for (int i = 1; i <= 6; i++) {
+            ring.push(i);
+        }
+        assertTrue(ring.removeIf(i -> i % 2 == 0));
+        assertEquals(List.of(5, 3), ring.latest(4));
+
+        ring.push(7);
+        assertTrue(ring.append(2));
+        assertEquals(List.of(7, 5, 3, 2), ring.latest(4));
+        ring.replaceAll(i -> i * 10);
+        assertEquals(List.of(70, 50, 30, 20), ring.latest(4));
+    }
+}
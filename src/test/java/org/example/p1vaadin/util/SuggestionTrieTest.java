@@ -0,0 +1,50 @@
+package org.example.p1vaadin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SuggestionTrieTest {
+
+    private static SuggestionTrie cities() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.adjust("marrakech", "Marrakech", 5);
+        trie.adjust("marseille", "Marseille", 2);
+        trie.adjust("meknes", "Meknès", 7);
+        trie.adjust("rabat", "Rabat", 3);
+        trie.adjust("fes", "Fès", 1);
+        return trie;
+    }
+
+    @Test
+    void prefixSuggestionsAreRankedByWeight() {
+        SuggestionTrie trie = cities();
+        assertEquals(List.of("Meknès", "Marrakech", "Marseille"), trie.suggest("m", 5, 0));
+        assertEquals(List.of("Marrakech"), trie.suggest("mar", 1, 0));
+        assertEquals(List.of(), trie.suggest("x", 5, 0));
+    }
+
+    @Test
+    void typosAreToleratedAfterExactMatches() {
+        SuggestionTrie trie = cities();
+        // « marakech » : une lettre manquante
+        assertEquals(List.of("Marrakech"), trie.suggest("marakech", 5, 1));
+        assertEquals(List.of("Marrakech", "Marseille"), trie.suggest("marx", 5, 1));
+        // Les préfixes exacts passent avant les préfixes approchés, même plus lourds
+        assertEquals(List.of("Marseille", "Marrakech"), trie.suggest("mars", 5, 1));
+    }
+
+    @Test
+    void weightsAreAdjustedAndEmptyTermsDisappear() {
+        SuggestionTrie trie = cities();
+        trie.adjust("marseille", "Marseille", 10);
+        assertEquals(List.of("Marseille", "Meknès"), trie.suggest("m", 2, 0));
+
+        trie.adjust("marseille", "Marseille", -12);
+        trie.adjust("marrakech", "Marrakech", -5);
+        assertEquals(List.of("Meknès"), trie.suggest("m", 5, 0));
+        assertEquals(3, trie.size());
+    }
+}